@@ -0,0 +1,19 @@
+#!/bin/sh
+# Builds the application and the JMH benchmarks, runs them with the GC (allocation) profiler and
+# writes the results to benchmarks/results/<commit>.json. Extra arguments go to JMH, e.g.
+#   benchmarks/run.sh                      all benchmarks
+#   benchmarks/run.sh Serialization -p lines=5
+# Compare two runs with CompareResults (see "Benchmarks" in README.md).
+set -e
+cd "$(dirname "$0")/.."
+
+mvn -q -B install -DskipTests
+mvn -q -B -f benchmarks/pom.xml package
+
+mkdir -p benchmarks/results
+revision=$(git rev-parse --short HEAD 2>/dev/null || echo local)
+if [ -n "$(git status --porcelain --untracked-files=no 2>/dev/null)" ]; then
+    revision="$revision-dirty"
+fi
+java -jar benchmarks/target/benchmarks.jar -prof gc -rf json -rff "benchmarks/results/$revision.json" "$@"
+echo "Results written to benchmarks/results/$revision.json"
@@ -0,0 +1,69 @@
+package com.restaurant.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints the score change of every benchmark present in two JMH JSON result files, e.g. the
+ * results of two commits:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.restaurant.benchmarks.CompareResults \
+ *     benchmarks/results/abc1234.json benchmarks/results/def5678.json
+ * </pre>
+ * Changes smaller than the combined score errors are marked as noise.
+ */
+public final class CompareResults {
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CompareResults <baseline.json> <candidate.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> candidate = read(new File(args[1]));
+
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Candidate", "Change");
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double base = before.path("primaryMetric").path("score").asDouble();
+            double next = after.path("primaryMetric").path("score").asDouble();
+            double error = before.path("primaryMetric").path("scoreError").asDouble(0)
+                    + after.path("primaryMetric").path("scoreError").asDouble(0);
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+            double change = base == 0 ? 0 : (next - base) / base * 100;
+            System.out.printf("%-90s %10.2f %-3s %10.2f %-3s %+8.1f%%%s%n", entry.getKey(), base, shortUnit(unit),
+                    next, shortUnit(unit), change, Math.abs(next - base) <= error ? " (noise)" : "");
+        }
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static String shortUnit(String unit) {
+        return unit.startsWith("ns") ? "ns" : unit.startsWith("us") ? "us" : unit.startsWith("ms") ? "ms" : unit;
+    }
+}
@@ -0,0 +1,80 @@
+package com.restaurant.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.helpers.NOPAppender;
+import com.restaurant.config.LogRateLimitTurboFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a log statement on the request path, without I/O (events go to a no-op appender):
+ * disabled DEBUG with and without eager message building, an enabled INFO event, and an INFO
+ * event on a logger throttled by {@link LogRateLimitTurboFilter} as in {@code logback-spring.xml}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private Logger plain;
+    private Logger limited;
+    private String orderId = "ORD12345";
+    private int lines = 3;
+
+    @Setup
+    public void setUp() {
+        LoggerContext context = new LoggerContext();
+        NOPAppender<ILoggingEvent> appender = new NOPAppender<>();
+        appender.setContext(context);
+        appender.start();
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+
+        LogRateLimitTurboFilter filter = new LogRateLimitTurboFilter();
+        filter.addLogger("com.restaurant.service.OrderService");
+        filter.setMaxEventsPerSecond(50);
+        filter.setContext(context);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        plain = context.getLogger("com.restaurant.controller.MenuController");
+        limited = context.getLogger("com.restaurant.service.OrderService");
+    }
+
+    @Benchmark
+    public void disabledDebugParameterized() {
+        plain.debug("Order {} created with {} lines", orderId, lines);
+    }
+
+    @Benchmark
+    public void disabledDebugConcatenated() {
+        plain.debug("Order " + orderId + " created with " + lines + " lines");
+    }
+
+    @Benchmark
+    public void enabledInfo() {
+        plain.info("Order {} created with {} lines", orderId, lines);
+    }
+
+    @Benchmark
+    public void rateLimitedInfo() {
+        limited.info("Order {} created with {} lines", orderId, lines);
+    }
+}
@@ -0,0 +1,42 @@
+package com.restaurant.benchmarks;
+
+import com.restaurant.entity.Customer;
+import com.restaurant.entity.MenuItem;
+import com.restaurant.entity.Order;
+import com.restaurant.entity.OrderItem;
+import com.restaurant.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Detached orders shaped like the ones the API renders, with a given number of lines.
+ */
+final class OrderFixtures {
+
+    private OrderFixtures() {
+    }
+
+    static MenuItem menuItem(int index) {
+        MenuItem item = new MenuItem("Menu Item " + index, "Description of menu item " + index,
+                new BigDecimal("9.99").add(BigDecimal.valueOf(index % 10)), "Category " + index % 5, true);
+        item.setId((long) index + 1);
+        return item;
+    }
+
+    static Order order(int lines) {
+        Customer customer = new Customer("John Doe", "john@example.com", "123-456-7890");
+        customer.setId(1L);
+        Order order = new Order(customer);
+        order.setId("ORD12345");
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setCreatedAt(LocalDateTime.of(2026, 3, 14, 12, 30));
+        for (int i = 0; i < lines; i++) {
+            OrderItem item = new OrderItem(order, menuItem(i), 1 + i % 3);
+            item.setId((long) i + 1);
+            order.addOrderItem(item);
+        }
+        order.calculateTotalAmount();
+        return order;
+    }
+}
@@ -0,0 +1,35 @@
+package com.restaurant.benchmarks;
+
+import com.restaurant.generator.OrderIdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order id generation, single-threaded and with concurrent callers sharing its {@code Random}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderIdGeneratorBenchmark {
+
+    @Benchmark
+    public String nextId() {
+        return OrderIdGenerator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String nextIdContended() {
+        return OrderIdGenerator.nextId();
+    }
+}
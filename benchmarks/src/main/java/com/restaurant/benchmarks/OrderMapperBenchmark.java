@@ -0,0 +1,53 @@
+package com.restaurant.benchmarks;
+
+import com.restaurant.dto.OrderFields;
+import com.restaurant.dto.OrderResponse;
+import com.restaurant.entity.Order;
+import com.restaurant.mapper.OrderMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-response mapping, for the full response and for a sparse field selection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderMapperBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int lines;
+
+    private final OrderMapper mapper = new OrderMapper();
+    private final OrderFields summaryFields = OrderFields.parse("id,status,totalAmount");
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = OrderFixtures.order(lines);
+    }
+
+    @Benchmark
+    public OrderResponse toOrderResponse() {
+        return mapper.toOrderResponse(order);
+    }
+
+    @Benchmark
+    public OrderResponse toOrderResponseSelectedFields() {
+        return mapper.toOrderResponse(order, summaryFields);
+    }
+}
@@ -0,0 +1,62 @@
+package com.restaurant.benchmarks;
+
+import com.restaurant.entity.MenuItem;
+import com.restaurant.entity.Order;
+import com.restaurant.entity.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Line pricing ({@link OrderItem} constructor and {@code setMenuItem}) and the order total.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderPricingBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int lines;
+
+    private Order order;
+    private MenuItem menuItem;
+    private OrderItem orderItem;
+
+    @Setup
+    public void setUp() {
+        order = OrderFixtures.order(lines);
+        menuItem = OrderFixtures.menuItem(7);
+        orderItem = new OrderItem(order, menuItem, 2);
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalAmount() {
+        order.calculateTotalAmount();
+        return order.getTotalAmount();
+    }
+
+    @Benchmark
+    public OrderItem newOrderItem() {
+        return new OrderItem(order, menuItem, 3);
+    }
+
+    @Benchmark
+    public BigDecimal setMenuItem() {
+        orderItem.setMenuItem(menuItem);
+        return orderItem.getTotalPrice();
+    }
+}
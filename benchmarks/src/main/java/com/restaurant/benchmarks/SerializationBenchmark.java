@@ -0,0 +1,98 @@
+package com.restaurant.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.restaurant.dto.ApiResult;
+import com.restaurant.dto.OrderResponse;
+import com.restaurant.mapper.OrderMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response encoding with an ObjectMapper configured like Spring Boot's: a bare {@link OrderResponse},
+ * the {@link ApiResult} envelope through the generic mapper and through a cached
+ * {@link ObjectWriter} (what {@code ApiResultMessageConverter} does), a page of orders, and the
+ * CBOR and Smile encodings offered to POS terminals.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int lines;
+
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+    private ObjectWriter envelopeWriter;
+    private OrderResponse response;
+    private ApiResult<OrderResponse> envelope;
+    private ApiResult.Page<OrderResponse> page;
+
+    @Setup
+    public void setUp() {
+        json = Jackson2ObjectMapperBuilder.json().build();
+        cbor = json.copyWith(new CBORFactory());
+        smile = json.copyWith(new SmileFactory());
+        response = new OrderMapper().toOrderResponse(OrderFixtures.order(lines));
+        envelope = ApiResult.success(response);
+        envelopeWriter = json.writerFor(envelope.getClass());
+        page = new ApiResult.Page<>(List.of(response, response, response, response, response,
+                response, response, response, response, response));
+    }
+
+    @Benchmark
+    public byte[] orderResponseJson() throws JsonProcessingException {
+        return json.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] envelopeJson() throws JsonProcessingException {
+        return json.writeValueAsBytes(envelope);
+    }
+
+    @Benchmark
+    public byte[] envelopeJsonCachedWriter() throws JsonProcessingException {
+        return envelopeWriter.writeValueAsBytes(envelope);
+    }
+
+    @Benchmark
+    public byte[] pageOfTenJson() throws JsonProcessingException {
+        return json.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] envelopeCbor() throws JsonProcessingException {
+        return cbor.writeValueAsBytes(envelope);
+    }
+
+    @Benchmark
+    public byte[] envelopeSmile() throws JsonProcessingException {
+        return smile.writeValueAsBytes(envelope);
+    }
+
+    @Benchmark
+    public OrderResponse orderResponseJsonRoundTrip() throws Exception {
+        return json.readValue(json.writeValueAsBytes(response), OrderResponse.class);
+    }
+}
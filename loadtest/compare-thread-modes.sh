@@ -0,0 +1,33 @@
+#!/bin/sh
+# Runs the same load against the platform-thread default and the virtual-threads profile and
+# compares throughput and response-time percentiles per endpoint. Needs a Java 21+ "java" on the
+# PATH: the application runs on the load generator's JVM, and on Java 17 both runs would use
+# platform threads. Results go to loadtest/results/<commit>-platform/ and <commit>-virtual/.
+# Extra arguments go to both runs, e.g.
+#   loadtest/compare-thread-modes.sh --stages=300:120
+set -e
+cd "$(dirname "$0")/.."
+
+feature=$(java -XshowSettings:properties -version 2>&1 | sed -n 's/^ *java.specification.version = //p')
+if [ "${feature%%.*}" -lt 21 ] 2>/dev/null || [ -z "$feature" ]; then
+    echo "Virtual threads need Java 21+, found ${feature:-unknown}; set JAVA_HOME/PATH accordingly" >&2
+    exit 1
+fi
+
+mvn -q -B package -DskipTests
+mvn -q -B -f loadtest/pom.xml package
+
+revision=$(git rev-parse --short HEAD 2>/dev/null || echo local)
+if [ -n "$(git status --porcelain --untracked-files=no 2>/dev/null)" ]; then
+    revision="$revision-dirty"
+fi
+# 1k concurrent clients: enough outstanding requests to exhaust Tomcat's 200 platform threads
+for mode in platform virtual; do
+    profiles=""
+    [ "$mode" = virtual ] && profiles="virtual-threads"
+    java -Dloadtest.revision="$revision" -jar loadtest/target/loadtest.jar \
+        --name="$revision-$mode" --app-profiles="$profiles" \
+        --connections=1000 --stages=500:120,1000:120 "$@"
+done
+java -cp loadtest/target/loadtest.jar com.restaurant.loadtest.CompareReports \
+    "loadtest/results/$revision-platform/report.json" "loadtest/results/$revision-virtual/report.json"
@@ -0,0 +1,18 @@
+#!/bin/sh
+# Builds the application and the load generator, starts the application against an in-memory
+# database and drives the mixed workload at it. Results go to loadtest/results/<commit>/.
+# Extra arguments go to the load generator, e.g.
+#   loadtest/run.sh                                  the default rush-hour profile
+#   loadtest/run.sh --stages=100:60,400:60 --connections=512
+# Compare two runs with CompareReports (see "Load Testing" in README.md).
+set -e
+cd "$(dirname "$0")/.."
+
+mvn -q -B package -DskipTests
+mvn -q -B -f loadtest/pom.xml package
+
+revision=$(git rev-parse --short HEAD 2>/dev/null || echo local)
+if [ -n "$(git status --porcelain --untracked-files=no 2>/dev/null)" ]; then
+    revision="$revision-dirty"
+fi
+java -Dloadtest.revision="$revision" -jar loadtest/target/loadtest.jar --name="$revision" "$@"
@@ -0,0 +1,99 @@
+package com.restaurant.loadtest;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application under test, started as a separate JVM so it does not share heap, GC or CPU
+ * accounting with the load generator. It runs against an in-memory Derby database, so every run
+ * starts from the same seeded data; its output goes to {@code app.log} next to the report.
+ */
+final class AppProcess implements AutoCloseable {
+
+    private final Process process;
+    private final String baseUrl;
+
+    private AppProcess(Process process, int port) {
+        this.process = process;
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    static AppProcess start(File jar, String jvmArgs, String profiles, Path log) throws IOException {
+        if (!jar.isFile()) {
+            throw new IllegalStateException(jar + " not found; build the application first (mvn package)");
+        }
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String arg : jvmArgs.trim().split("\\s+")) {
+            if (!arg.isEmpty()) {
+                command.add(arg);
+            }
+        }
+        command.add("-jar");
+        command.add(jar.getPath());
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:derby:memory:loadtest;create=true");
+        if (!profiles.isEmpty()) {
+            command.add("--spring.profiles.active=" + profiles);
+        }
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new AppProcess(process, port);
+    }
+
+    /**
+     * Waits until {@code /actuator/health} reports the application up.
+     */
+    void awaitReady(HttpClient client, Duration timeout) throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2)).GET().build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with code " + process.exitValue()
+                        + " during startup; see app.log");
+            }
+            try {
+                HttpResponse<String> response = client.send(health, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            TimeUnit.MILLISECONDS.sleep(250);
+        }
+        throw new IllegalStateException("Application not ready after " + timeout.toSeconds() + " s; see app.log");
+    }
+
+    String getBaseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
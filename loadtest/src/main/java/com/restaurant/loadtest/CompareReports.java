@@ -0,0 +1,73 @@
+package com.restaurant.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints the throughput and response-time change of every stage and endpoint present in two
+ * load-test reports, e.g. the runs of two commits or of two thread modes:
+ * <pre>
+ * java -cp loadtest/target/loadtest.jar com.restaurant.loadtest.CompareReports \
+ *     loadtest/results/abc1234/report.json loadtest/results/def5678/report.json
+ * </pre>
+ * Stages are matched by name, so compare runs made with the same {@code --stages}.
+ */
+public final class CompareReports {
+
+    private static final String[] PERCENTILES = {"p50", "p99", "p999"};
+
+    private CompareReports() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CompareReports <baseline/report.json> <candidate/report.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> candidate = read(new File(args[1]));
+
+        System.out.printf("%-45s %-6s %10s %10s %9s%n", "Stage / endpoint", "", "Baseline", "Candidate", "Change");
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double rateBefore = before.path("rate").asDouble();
+            double rateAfter = after.path("rate").asDouble();
+            System.out.printf("%-45s %-6s %6.1f/s %7.1f/s %+8.1f%%%n", entry.getKey(), "rate", rateBefore, rateAfter,
+                    rateBefore == 0 ? 0 : (rateAfter - rateBefore) / rateBefore * 100);
+            for (String percentile : PERCENTILES) {
+                double base = before.path("responseTimeMs").path(percentile).asDouble();
+                double next = after.path("responseTimeMs").path(percentile).asDouble();
+                double change = base == 0 ? 0 : (next - base) / base * 100;
+                System.out.printf("%-45s %-6s %7.2f ms %7.2f ms %+8.1f%%%n", entry.getKey(), percentile, base, next,
+                        change);
+            }
+            long errorsBefore = before.path("errors").asLong();
+            long errorsAfter = after.path("errors").asLong();
+            if (errorsBefore != errorsAfter) {
+                System.out.printf("%-45s %-6s %10d %10d%n", entry.getKey(), "errors", errorsBefore, errorsAfter);
+            }
+        }
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> endpoints = new LinkedHashMap<>();
+        for (JsonNode stage : new ObjectMapper().readTree(file).path("stages")) {
+            Iterator<Map.Entry<String, JsonNode>> fields = stage.path("endpoints").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> endpoint = fields.next();
+                endpoints.put(stage.path("name").asText() + " " + endpoint.getKey(), endpoint.getValue());
+            }
+        }
+        return endpoints;
+    }
+}
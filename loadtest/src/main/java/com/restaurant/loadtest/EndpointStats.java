@@ -0,0 +1,59 @@
+package com.restaurant.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one endpoint within one stage, in microseconds.
+ * <p>
+ * {@link #responseTime} is measured from the time the request was <em>scheduled</em>, so time a
+ * request spent waiting behind a slow server is counted (no coordinated omission);
+ * {@link #serviceTime} is measured from the time it was actually sent and shows how far the two
+ * diverge under overload.
+ */
+final class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Histogram responseTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+
+    void record(long scheduledNanos, long sentNanos, long completedNanos, String outcome, boolean success) {
+        responseTime.recordValue(micros(completedNanos - scheduledNanos));
+        serviceTime.recordValue(micros(completedNanos - sentNanos));
+        outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    Histogram getResponseTime() {
+        return responseTime;
+    }
+
+    Histogram getServiceTime() {
+        return serviceTime;
+    }
+
+    long getErrors() {
+        return errors.sum();
+    }
+
+    Map<String, Long> getOutcomes() {
+        Map<String, Long> counts = new TreeMap<>();
+        outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+        return counts;
+    }
+
+    private static long micros(long nanos) {
+        return Math.max(0, Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+}
@@ -0,0 +1,117 @@
+package com.restaurant.loadtest;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Starts the application against an in-memory database (or uses {@code --target}), registers
+ * customers, warms the application up and then drives the {@link Workload} through the configured
+ * stages, writing a {@link Report} to {@code <results>/<name>/}.
+ * <pre>
+ * java -jar loadtest/target/loadtest.jar --stages=50:60,300:120 --name=baseline
+ * </pre>
+ * Run with {@code --help} for all options.
+ */
+public final class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("jar", "target/restaurant-management-app.jar");
+        DEFAULTS.put("target", "");
+        DEFAULTS.put("app-jvm-args", "-Xms1g -Xmx1g");
+        DEFAULTS.put("app-profiles", "");
+        DEFAULTS.put("startup-timeout", "120");
+        DEFAULTS.put("warmup", "50:30");
+        // A rush hour: doors open, the dinner peak builds, peaks and tails off
+        DEFAULTS.put("stages", "50:60,150:120,300:60,100:60");
+        DEFAULTS.put("mix", Workload.DEFAULT_MIX);
+        DEFAULTS.put("customers", "200");
+        DEFAULTS.put("connections", "256");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("drain-seconds", "60");
+        DEFAULTS.put("results", "loadtest/results");
+        DEFAULTS.put("name", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+    }
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        if (options == null) {
+            System.err.println("Usage: LoadTest [--option=value ...]; options and defaults:");
+            DEFAULTS.forEach((key, value) -> System.err.printf("  --%-16s %s%n", key, value));
+            System.exit(2);
+        }
+
+        Path directory = Path.of(options.get("results"), options.get("name"));
+        Files.createDirectories(directory);
+        List<Stage> stages = new ArrayList<>();
+        String[] warmup = options.get("warmup").split(":");
+        stages.add(new Stage("warmup", Double.parseDouble(warmup[0]), Integer.parseInt(warmup[1]), false));
+        stages.addAll(Stage.parse(options.get("stages")));
+
+        int connections = Integer.parseInt(options.get("connections"));
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+
+        AppProcess app = null;
+        try {
+            String baseUrl = options.get("target");
+            if (baseUrl.isEmpty()) {
+                app = AppProcess.start(new File(options.get("jar")), options.get("app-jvm-args"),
+                        options.get("app-profiles"), directory.resolve("app.log"));
+                app.awaitReady(client, Duration.ofSeconds(Long.parseLong(options.get("startup-timeout"))));
+                baseUrl = app.getBaseUrl();
+            }
+            System.out.println("Target " + baseUrl + ", results in " + directory);
+
+            Workload workload = new Workload(baseUrl, options.get("mix"));
+            workload.prepare(client, Integer.parseInt(options.get("customers")), Long.toString(
+                    System.currentTimeMillis(), 36));
+            new OpenLoopDriver(client, workload, Long.parseLong(options.get("seed")), connections)
+                    .run(stages, Long.parseLong(options.get("drain-seconds")));
+
+            Map<String, Object> settings = new LinkedHashMap<>(options);
+            settings.put("revision", System.getProperty("loadtest.revision", "unknown"));
+            settings.put("javaVersion", System.getProperty("java.version"));
+            settings.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+            Report.write(directory, settings, stages);
+            Report.print(stages, System.out);
+            System.out.println("Report written to " + directory.resolve("report.json"));
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !DEFAULTS.containsKey(arg.substring(2, separator))) {
+                return null;
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
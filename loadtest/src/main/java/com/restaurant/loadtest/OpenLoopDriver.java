@@ -0,0 +1,94 @@
+package com.restaurant.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a target arrival rate regardless of how fast the server answers (an open
+ * workload, like customers arriving at a restaurant). Arrivals follow a Poisson process per stage.
+ * <p>
+ * Every request has a scheduled time fixed in advance. When the server falls behind, requests are
+ * sent late (at most {@code connections} are outstanding) but their latency still counts from the
+ * scheduled time, so a stall shows up in every request it delayed instead of in just one. This is
+ * what avoids coordinated omission.
+ */
+final class OpenLoopDriver {
+
+    private final HttpClient client;
+    private final Workload workload;
+    private final Random random;
+    private final int connections;
+    private final Semaphore outstanding;
+
+    OpenLoopDriver(HttpClient client, Workload workload, long seed, int connections) {
+        this.client = client;
+        this.workload = workload;
+        this.random = new Random(seed);
+        this.connections = connections;
+        this.outstanding = new Semaphore(connections);
+    }
+
+    /**
+     * Runs the stages back to back and waits up to {@code drainSeconds} for the last responses.
+     */
+    void run(List<Stage> stages, long drainSeconds) throws InterruptedException {
+        long stageStart = System.nanoTime();
+        for (Stage stage : stages) {
+            System.out.printf("%s: %.0f requests/s for %d s%n", stage.getName(), stage.getRate(), stage.getSeconds());
+            stage.markStarted();
+            long stageEnd = stageStart + TimeUnit.SECONDS.toNanos(stage.getSeconds());
+            double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / stage.getRate();
+            long scheduled = stageStart;
+            while (scheduled < stageEnd) {
+                parkUntil(scheduled);
+                send(stage, scheduled);
+                scheduled += (long) (-Math.log(1 - random.nextDouble()) * meanIntervalNanos);
+            }
+            stageStart = stageEnd;
+        }
+        if (!outstanding.tryAcquire(connections, drainSeconds, TimeUnit.SECONDS)) {
+            System.err.printf("%d requests still outstanding after %d s%n",
+                    connections - outstanding.availablePermits(), drainSeconds);
+        }
+    }
+
+    private void send(Stage stage, long scheduled) throws InterruptedException {
+        Workload.Call call = workload.next(random);
+        EndpointStats stats = stage.endpoint(call.endpoint());
+        outstanding.acquire();
+        long sent = System.nanoTime();
+        client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long completed = System.nanoTime();
+                    outstanding.release();
+                    if (error != null) {
+                        stats.record(scheduled, sent, completed, outcome(error), false);
+                        return;
+                    }
+                    boolean success = response.statusCode() < 400;
+                    stats.record(scheduled, sent, completed, String.valueOf(response.statusCode()), success);
+                    if (success && call.onSuccess() != null) {
+                        call.onSuccess().accept(response);
+                    }
+                });
+    }
+
+    private static String outcome(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof HttpTimeoutException ? "timeout" : cause.getClass().getSimpleName();
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.restaurant.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Writes the results of a run to a directory:
+ * <ul>
+ *   <li>{@code report.json} - per stage and endpoint: counts, outcomes and latency percentiles in
+ *       milliseconds; the input of {@link CompareReports}</li>
+ *   <li>{@code <stage>.hlog} - the full HdrHistograms, tagged {@code <endpoint>} (response time) and
+ *       {@code <endpoint>.service} (service time), for HistogramLogAnalyzer and similar tools</li>
+ * </ul>
+ */
+final class Report {
+
+    private static final Map<String, Double> PERCENTILES = Map.of("p50", 50.0, "p90", 90.0, "p99", 99.0,
+            "p999", 99.9);
+
+    private Report() {
+    }
+
+    static void write(Path directory, Map<String, Object> settings, List<Stage> stages) throws IOException {
+        ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        ObjectNode report = mapper.createObjectNode();
+        report.set("settings", mapper.valueToTree(settings));
+        ArrayNode stageNodes = report.putArray("stages");
+        for (Stage stage : stages) {
+            if (!stage.isRecorded()) {
+                continue;
+            }
+            ObjectNode stageNode = stageNodes.addObject()
+                    .put("name", stage.getName())
+                    .put("targetRate", stage.getRate())
+                    .put("seconds", stage.getSeconds());
+            ObjectNode endpointNodes = stageNode.putObject("endpoints");
+            long total = 0;
+            for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(stage.getEndpoints()).entrySet()) {
+                EndpointStats stats = entry.getValue();
+                long count = stats.getResponseTime().getTotalCount();
+                total += count;
+                ObjectNode endpoint = endpointNodes.putObject(entry.getKey())
+                        .put("count", count)
+                        .put("rate", (double) count / stage.getSeconds())
+                        .put("errors", stats.getErrors());
+                endpoint.set("outcomes", mapper.valueToTree(stats.getOutcomes()));
+                endpoint.set("responseTimeMs", latencies(mapper, stats.getResponseTime()));
+                endpoint.set("serviceTimeMs", latencies(mapper, stats.getServiceTime()));
+            }
+            stageNode.put("achievedRate", (double) total / stage.getSeconds());
+            writeHistogramLog(directory.resolve(stage.getName() + ".hlog"), stage);
+        }
+        mapper.writeValue(directory.resolve("report.json").toFile(), report);
+    }
+
+    /**
+     * Prints one line per stage and endpoint: throughput, errors and response-time percentiles.
+     */
+    static void print(List<Stage> stages, PrintStream out) {
+        out.printf("%-22s %-22s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Stage", "Endpoint", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Stage stage : stages) {
+            if (!stage.isRecorded()) {
+                continue;
+            }
+            for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(stage.getEndpoints()).entrySet()) {
+                Histogram histogram = entry.getValue().getResponseTime();
+                out.printf("%-22s %-22s %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n", stage.getName(), entry.getKey(),
+                        (double) histogram.getTotalCount() / stage.getSeconds(), entry.getValue().getErrors(),
+                        millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                        millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                        millis(histogram.getMaxValue()));
+            }
+        }
+    }
+
+    private static ObjectNode latencies(ObjectMapper mapper, Histogram histogram) {
+        ObjectNode node = mapper.createObjectNode().put("mean", histogram.getMean() / 1000.0);
+        new TreeMap<>(PERCENTILES).forEach((name, percentile) ->
+                node.put(name, millis(histogram.getValueAtPercentile(percentile))));
+        return node.put("max", millis(histogram.getMaxValue()));
+    }
+
+    private static void writeHistogramLog(Path file, Stage stage) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            HistogramLogWriter writer = new HistogramLogWriter(out);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(stage.getStartedAtMillis());
+            writer.setBaseTime(stage.getStartedAtMillis());
+            writer.outputLegend();
+            for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(stage.getEndpoints()).entrySet()) {
+                output(writer, entry.getValue().getResponseTime(), entry.getKey(), stage.getSeconds());
+                output(writer, entry.getValue().getServiceTime(), entry.getKey() + ".service", stage.getSeconds());
+            }
+        }
+    }
+
+    private static void output(HistogramLogWriter writer, Histogram histogram, String tag, int seconds) {
+        Histogram copy = histogram.copy();
+        copy.setTag(tag);
+        // Values are recorded in microseconds; the log's max column is in milliseconds
+        writer.outputIntervalHistogram(0, seconds, copy, 1000.0);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
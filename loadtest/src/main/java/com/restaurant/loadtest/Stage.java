@@ -0,0 +1,79 @@
+package com.restaurant.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A period of constant target arrival rate, e.g. the peak of a rush hour. Requests are attributed
+ * to the stage they were scheduled in, even when they complete after it ended.
+ */
+final class Stage {
+
+    private final String name;
+    private final double rate;
+    private final int seconds;
+    private final boolean recorded;
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private volatile long startedAtMillis;
+
+    Stage(String name, double rate, int seconds, boolean recorded) {
+        if (rate <= 0 || seconds <= 0) {
+            throw new IllegalArgumentException("Stage " + name + " needs a positive rate and duration");
+        }
+        this.name = name;
+        this.rate = rate;
+        this.seconds = seconds;
+        this.recorded = recorded;
+    }
+
+    /**
+     * Parses {@code rate:seconds} pairs such as {@code 50:60,200:120,400:60}.
+     */
+    static List<Stage> parse(String spec) {
+        List<Stage> stages = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] rateAndSeconds = part.trim().split(":");
+            if (rateAndSeconds.length != 2) {
+                throw new IllegalArgumentException("Expected rate:seconds but got '" + part + "'");
+            }
+            double rate = Double.parseDouble(rateAndSeconds[0]);
+            stages.add(new Stage(String.format("stage%d-%.0frps", stages.size() + 1, rate), rate,
+                    Integer.parseInt(rateAndSeconds[1]), true));
+        }
+        return stages;
+    }
+
+    void markStarted() {
+        startedAtMillis = System.currentTimeMillis();
+    }
+
+    long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    EndpointStats endpoint(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+    }
+
+    Map<String, EndpointStats> getEndpoints() {
+        return endpoints;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    double getRate() {
+        return rate;
+    }
+
+    int getSeconds() {
+        return seconds;
+    }
+
+    boolean isRecorded() {
+        return recorded;
+    }
+}
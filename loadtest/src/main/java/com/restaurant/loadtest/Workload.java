@@ -0,0 +1,308 @@
+package com.restaurant.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * The request mix of a busy service: guests browsing the menu and placing orders by item name,
+ * staff moving orders through the kitchen and watching the kitchen board, and customer lookups.
+ * <p>
+ * Endpoints and their relative weights are set with {@code --mix}; see {@link #DEFAULT_MIX}. Item and
+ * customer popularity are Zipf-skewed, orders are created with one to four lines, and every created
+ * order is advanced CONFIRMED, PREPARING, READY, DELIVERED by later {@code update-status} calls.
+ * {@code all-orders} (the unpaged {@code GET /api/orders}) is not in the default mix because its
+ * cost grows with every order the run creates.
+ * <p>
+ * {@code reactive-menu}, {@code reactive-create-order}, {@code reactive-update-status} and
+ * {@code reactive-order} call the {@code /api/reactive} variants of the same endpoints (orders by
+ * menu item id). {@code --mix=reactive} selects {@link #REACTIVE_MIX}, which splits each of those
+ * four endpoints' default weight evenly between the MVC and the reactive variant, so both are
+ * measured side by side under the same load.
+ */
+final class Workload {
+
+    static final String DEFAULT_MIX =
+            "menu=20,create-order=10,update-status=40,order=10,customer=10,latest-order=5,kitchen-board=5";
+
+    static final String REACTIVE_MIX = "menu=10,reactive-menu=10,create-order=5,reactive-create-order=5,"
+            + "update-status=20,reactive-update-status=20,order=5,reactive-order=5,"
+            + "customer=10,latest-order=5,kitchen-board=5";
+
+    private static final List<String> ENDPOINTS = List.of("menu", "create-order", "update-status", "order",
+            "customer", "latest-order", "kitchen-board", "all-orders",
+            "reactive-menu", "reactive-create-order", "reactive-update-status", "reactive-order");
+    private static final String[] LIFECYCLE = {"CONFIRMED", "PREPARING", "READY", "DELIVERED"};
+    private static final String[] BOARD_STATUSES = {"PENDING", "CONFIRMED", "PREPARING", "READY"};
+    private static final int RECENT_ORDERS = 4096;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * One request to send; {@code onSuccess} runs on the HTTP client's threads.
+     */
+    record Call(String endpoint, HttpRequest request, Consumer<HttpResponse<String>> onSuccess) {
+    }
+
+    private record OpenOrder(String id, int nextStep) {
+    }
+
+    private record PlacedOrder(String id, String customerPhone) {
+    }
+
+    private final String baseUrl;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String[] endpoints;
+    private final double[] endpointWeights;
+    private final List<String> customerPhones = new ArrayList<>();
+    private final List<String> menuItems = new ArrayList<>();
+    private final List<Long> menuItemIds = new ArrayList<>();
+    private double[] customerWeights;
+    private double[] itemWeights;
+    private final Queue<OpenOrder> openOrders = new ConcurrentLinkedQueue<>();
+    private final AtomicReferenceArray<PlacedOrder> recentOrders = new AtomicReferenceArray<>(RECENT_ORDERS);
+    private final AtomicLong placedOrders = new AtomicLong();
+
+    Workload(String baseUrl, String mix) {
+        this.baseUrl = baseUrl;
+        Map<String, Double> weights = new LinkedHashMap<>();
+        String resolvedMix = switch (mix) {
+            case "default" -> DEFAULT_MIX;
+            case "reactive" -> REACTIVE_MIX;
+            default -> mix;
+        };
+        for (String part : resolvedMix.split(",")) {
+            String[] nameAndWeight = part.trim().split("=");
+            if (nameAndWeight.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint=weight but got '" + part + "'");
+            }
+            if (!ENDPOINTS.contains(nameAndWeight[0])) {
+                throw new IllegalArgumentException("Unknown endpoint in mix: " + nameAndWeight[0]);
+            }
+            weights.put(nameAndWeight[0], Double.parseDouble(nameAndWeight[1]));
+        }
+        this.endpoints = weights.keySet().toArray(new String[0]);
+        this.endpointWeights = cumulative(weights.values().stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    /**
+     * Registers {@code customers} customers for this run and reads the menu. Phone numbers and
+     * emails include {@code runId}, so the workload can also be pointed at a non-empty database.
+     */
+    void prepare(HttpClient client, int customers, String runId) throws IOException, InterruptedException {
+        for (int i = 0; i < customers; i++) {
+            String phone = String.format("LT-%s-%05d", runId, i);
+            ObjectNode customer = mapper.createObjectNode()
+                    .put("name", "Load Test Customer " + i)
+                    .put("email", String.format("lt-%s-%d@loadtest.example.com", runId, i))
+                    .put("phoneNumber", phone);
+            HttpResponse<String> response = client.send(post("/api/customers", customer),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Could not register customer " + phone + ": HTTP "
+                        + response.statusCode() + " " + response.body());
+            }
+            customerPhones.add(phone);
+        }
+
+        HttpResponse<String> menu = client.send(get("/api/menu"), HttpResponse.BodyHandlers.ofString());
+        for (JsonNode item : mapper.readTree(menu.body())) {
+            if (item.path("available").asBoolean(true)) {
+                menuItems.add(item.path("name").asText());
+                menuItemIds.add(item.path("id").asLong());
+            }
+        }
+        if (menuItems.isEmpty() || customerPhones.isEmpty()) {
+            throw new IllegalStateException("The workload needs at least one customer and one available menu item");
+        }
+        customerWeights = cumulative(zipf(customerPhones.size(), 0.8));
+        itemWeights = cumulative(zipf(menuItems.size(), 1.0));
+    }
+
+    /**
+     * Picks the next request. Only the scheduling thread calls this, so {@code random} needs no
+     * synchronization. Endpoints that need an existing order fall back to creating one.
+     */
+    Call next(Random random) {
+        String endpoint = endpoints[pick(endpointWeights, random)];
+        switch (endpoint) {
+            case "menu":
+                return new Call(endpoint, get("/api/menu"), null);
+            case "reactive-menu":
+                return new Call(endpoint, get("/api/reactive/menu"), null);
+            case "kitchen-board":
+                String status = BOARD_STATUSES[random.nextInt(BOARD_STATUSES.length)];
+                return new Call(endpoint, get("/api/orders/status/" + status + "?fields=id,orderNumber,status"), null);
+            case "all-orders":
+                return new Call(endpoint, get("/api/orders?fields=id,status,totalAmount"), null);
+            case "customer":
+                return new Call(endpoint, get("/api/customers/phone/" + randomCustomer(random)), null);
+            case "order":
+            case "reactive-order":
+                PlacedOrder order = recentOrder(random);
+                if (order != null) {
+                    String prefix = endpoint.equals("order") ? "/api/orders/" : "/api/reactive/orders/";
+                    return new Call(endpoint, get(prefix + order.id()), null);
+                }
+                break;
+            case "latest-order":
+                PlacedOrder placed = recentOrder(random);
+                if (placed != null) {
+                    return new Call(endpoint, get("/api/orders/customer/phone/" + placed.customerPhone() + "/latest"),
+                            null);
+                }
+                break;
+            case "update-status":
+            case "reactive-update-status":
+                OpenOrder open = openOrders.poll();
+                if (open != null) {
+                    return updateStatus(endpoint, open);
+                }
+                break;
+            default:
+                break;
+        }
+        return endpoint.startsWith("reactive-") ? createReactiveOrder(random) : createOrder(random);
+    }
+
+    private Call createOrder(Random random) {
+        String phone = randomCustomer(random);
+        ObjectNode request = mapper.createObjectNode().put("customerPhone", phone);
+        ArrayNode items = request.putArray("items");
+        for (int index : randomItems(random)) {
+            items.addObject()
+                    .put("menuItemName", menuItems.get(index))
+                    .put("quantity", 1 + random.nextInt(3));
+        }
+        return placeOrder("create-order", post("/api/orders/by-name", request), phone);
+    }
+
+    private Call createReactiveOrder(Random random) {
+        String phone = randomCustomer(random);
+        ObjectNode request = mapper.createObjectNode().put("customerPhone", phone);
+        ArrayNode items = request.putArray("orderItems");
+        for (int index : randomItems(random)) {
+            items.addObject()
+                    .put("menuItemId", menuItemIds.get(index))
+                    .put("quantity", 1 + random.nextInt(3));
+        }
+        return placeOrder("reactive-create-order", post("/api/reactive/orders", request), phone);
+    }
+
+    /**
+     * One to four distinct menu items: the API rejects an order naming the same item twice.
+     */
+    private Set<Integer> randomItems(Random random) {
+        int lines = Math.min(1 + random.nextInt(4), menuItems.size());
+        Set<Integer> indexes = new LinkedHashSet<>();
+        while (indexes.size() < lines) {
+            indexes.add(pick(itemWeights, random));
+        }
+        return indexes;
+    }
+
+    private Call placeOrder(String endpoint, HttpRequest request, String phone) {
+        return new Call(endpoint, request, response -> {
+            String id = readId(response.body());
+            if (id != null) {
+                openOrders.add(new OpenOrder(id, 0));
+                recentOrders.set((int) (placedOrders.getAndIncrement() % RECENT_ORDERS), new PlacedOrder(id, phone));
+            }
+        });
+    }
+
+    private Call updateStatus(String endpoint, OpenOrder order) {
+        ObjectNode request = mapper.createObjectNode().put("status", LIFECYCLE[order.nextStep()]);
+        String prefix = endpoint.equals("update-status") ? "/api/orders/" : "/api/reactive/orders/";
+        HttpRequest put = HttpRequest.newBuilder(URI.create(baseUrl + prefix + order.id() + "/status"))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(request.toString()))
+                .build();
+        return new Call(endpoint, put, response -> {
+            if (order.nextStep() + 1 < LIFECYCLE.length) {
+                openOrders.add(new OpenOrder(order.id(), order.nextStep() + 1));
+            }
+        });
+    }
+
+    private PlacedOrder recentOrder(Random random) {
+        long placed = placedOrders.get();
+        if (placed == 0) {
+            return null;
+        }
+        return recentOrders.get(random.nextInt((int) Math.min(placed, RECENT_ORDERS)));
+    }
+
+    private String randomCustomer(Random random) {
+        return customerPhones.get(pick(customerWeights, random));
+    }
+
+    private String readId(String body) {
+        try {
+            JsonNode id = mapper.readTree(body).path("id");
+            return id.isMissingNode() ? null : id.asText();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT)
+                .header("Accept", "application/json").GET().build();
+    }
+
+    private HttpRequest post(String path, JsonNode body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build();
+    }
+
+    private static double[] zipf(int size, double exponent) {
+        double[] weights = new double[size];
+        for (int rank = 0; rank < size; rank++) {
+            weights[rank] = 1.0 / Math.pow(rank + 1, exponent);
+        }
+        return weights;
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] cumulative = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Weights must add up to more than zero");
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, Random random) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+        return Math.min(index >= 0 ? index + 1 : -index - 1, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,79 @@
+package com.restaurant.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Training run for the AppCDS archive built into the Docker image
+ * ({@code app.startup.training-run=true}): once the application is ready it requests
+ * {@code app.startup.training-paths} so the request path's classes are loaded too, then exits.
+ * The JVM writes the archive on exit ({@code -XX:ArchiveClassesAtExit}).
+ * <p>
+ * Training paths are relative to {@code server.servlet.context-path}. The controllers' own
+ * mappings start with {@code /api}, so under the prod context path {@code /api} the menu is served
+ * at {@code /api/api/menu}. A training request that does not succeed fails the run with exit
+ * code 1, so a wrong path breaks the image build instead of silently producing an archive
+ * without the request path.
+ */
+@Component
+public class ClassDataSharingTrainingRun {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassDataSharingTrainingRun.class);
+
+    private final boolean enabled;
+    private final List<String> paths;
+
+    @Autowired
+    public ClassDataSharingTrainingRun(@Value("${app.startup.training-run:false}") boolean enabled,
+                                       @Value("${app.startup.training-paths:/api/menu,/api/menu/categories}") List<String> paths) {
+        this.enabled = enabled;
+        this.paths = paths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        if (!enabled) {
+            return;
+        }
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        String port = context.getEnvironment().getProperty("local.server.port");
+        String contextPath = context.getEnvironment().getProperty("server.servlet.context-path", "");
+        List<String> failed = port != null ? train("http://localhost:" + port + contextPath) : paths;
+        if (!failed.isEmpty()) {
+            logger.error("Class-data sharing training run failed for {}", failed);
+            System.exit(SpringApplication.exit(context, () -> 1));
+        }
+        logger.info("Class-data sharing training run complete, exiting");
+        System.exit(SpringApplication.exit(context));
+    }
+
+    /**
+     * Requests every training path below {@code baseUrl} (scheme, host, port and context path) and
+     * returns the paths that did not answer with a 2xx status.
+     */
+    public List<String> train(String baseUrl) {
+        RestTemplate restTemplate = new RestTemplate();
+        List<String> failed = new ArrayList<>();
+        for (String path : paths) {
+            try {
+                restTemplate.getForEntity(baseUrl + path.trim(), String.class);
+            } catch (RestClientException e) {
+                logger.warn("Training request {} failed: {}", path, e.getMessage());
+                failed.add(path);
+            }
+        }
+        return failed;
+    }
+}
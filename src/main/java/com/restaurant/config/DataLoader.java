@@ -5,6 +5,7 @@ import com.restaurant.entity.Customer;
 import com.restaurant.service.MenuService;
 import com.restaurant.service.CustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 import java.math.BigDecimal;
@@ -14,17 +15,24 @@ public class DataLoader implements CommandLineRunner {
 
     private final MenuService menuService;
     private final CustomerService customerService;
+    private final boolean enabled;
 
     @Autowired
-    public DataLoader(MenuService menuService, CustomerService customerService) {
+    public DataLoader(MenuService menuService, CustomerService customerService,
+                      @Value("${app.seed.enabled:true}") boolean enabled) {
         this.menuService = menuService;
         this.customerService = customerService;
+        this.enabled = enabled;
     }
 
     @Override
     public void run(String... args) throws Exception {
+        if (!enabled) {
+            return;
+        }
+
         // Create sample customers if none exist
-        if (customerService.getAllCustomers().isEmpty()) {
+        if (!customerService.hasCustomers()) {
             Customer customer1 = new Customer("John Doe", "john@example.com", "123-456-7890");
             Customer customer2 = new Customer("Jane Smith", "jane@example.com", "098-765-4321");
             customerService.saveCustomer(customer1);
@@ -32,7 +40,7 @@ public class DataLoader implements CommandLineRunner {
         }
 
         // Create sample menu items if none exist
-        if (menuService.getAllMenuItems().isEmpty()) {
+        if (!menuService.hasMenuItems()) {
             MenuItem item1 = new MenuItem(
                 "Margherita Pizza",
                 "Classic pizza with tomato sauce, mozzarella, and basil",
@@ -0,0 +1,63 @@
+package com.restaurant.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Emits a {@code com.restaurant.HttpRequest} Flight Recorder event per HTTP request (method, URI
+ * template, status), so recordings show requests next to the JVM's own events and
+ * {@link JfrProfiler} can attribute lock waits, socket reads and allocations to endpoints. While
+ * no recording has the event enabled, {@code shouldCommit()} is false and the event is dropped.
+ */
+@Component
+public class HttpRequestEventFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpRequestEvent event = new HttpRequestEvent();
+        event.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                event.method = request.getMethod();
+                event.uri = pattern != null ? pattern.toString() : "UNKNOWN";
+                event.status = response.getStatus();
+                event.commit();
+            }
+        }
+    }
+
+    @Name(HttpRequestEvent.NAME)
+    @Label("HTTP Request")
+    @Category({"Restaurant", "HTTP"})
+    @StackTrace(false)
+    public static class HttpRequestEvent extends Event {
+
+        public static final String NAME = "com.restaurant.HttpRequest";
+
+        @Label("Method")
+        String method;
+
+        @Label("URI")
+        String uri;
+
+        @Label("Status")
+        int status;
+    }
+}
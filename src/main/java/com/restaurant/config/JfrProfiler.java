@@ -0,0 +1,257 @@
+package com.restaurant.config;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Runs one time-boxed Java Flight Recorder recording at a time and summarizes it live (see
+ * {@link ProfileSummary}); backs {@link ProfilingEndpoint}.
+ * <p>
+ * The recording starts from the JDK's {@code profile} settings, tuned for running against
+ * production traffic:
+ * <ul>
+ *   <li>execution samples every {@code app.profiling.execution-sample-ms}</li>
+ *   <li>allocation samples throttled to {@code app.profiling.allocation-samples-per-second}</li>
+ *   <li>monitor waits and socket reads above their thresholds only</li>
+ *   <li>no old-object path-to-GC-roots work at dump time</li>
+ * </ul>
+ * Recordings are capped at {@code app.profiling.max-duration-seconds} and
+ * {@code app.profiling.max-size-mb}. The newest {@code app.profiling.retained-recordings} files
+ * are kept in {@code app.profiling.directory}.
+ */
+@Component
+public class JfrProfiler implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrProfiler.class);
+
+    private static final DateTimeFormatter ID_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmssSSS").withZone(ZoneOffset.UTC);
+    private static final String SUFFIX = ".jfr";
+
+    private final Path directory;
+    private final Duration defaultDuration;
+    private final Duration maxDuration;
+    private final long maxSizeBytes;
+    private final int retainedRecordings;
+    private final Duration executionSamplePeriod;
+    private final Duration lockThreshold;
+    private final Duration socketReadThreshold;
+    private final int allocationSamplesPerSecond;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jfr-profiler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Guarded by this
+    private Session current;
+    private Session last;
+
+    private static final class Session {
+        final String id;
+        final Instant startedAt = Instant.now();
+        final Duration duration;
+        final RecordingStream stream;
+        final ProfileSummary summary = new ProfileSummary();
+        ScheduledFuture<?> timeout;
+
+        Session(String id, Duration duration, RecordingStream stream) {
+            this.id = id;
+            this.duration = duration;
+            this.stream = stream;
+        }
+    }
+
+    @Autowired
+    public JfrProfiler(@Value("${app.profiling.directory:${java.io.tmpdir}/restaurant-jfr}") Path directory,
+                       @Value("${app.profiling.default-duration-seconds:60}") long defaultDurationSeconds,
+                       @Value("${app.profiling.max-duration-seconds:300}") long maxDurationSeconds,
+                       @Value("${app.profiling.max-size-mb:100}") long maxSizeMegabytes,
+                       @Value("${app.profiling.retained-recordings:5}") int retainedRecordings,
+                       @Value("${app.profiling.execution-sample-ms:20}") long executionSampleMillis,
+                       @Value("${app.profiling.lock-threshold-ms:10}") long lockThresholdMillis,
+                       @Value("${app.profiling.socket-read-threshold-ms:5}") long socketReadThresholdMillis,
+                       @Value("${app.profiling.allocation-samples-per-second:150}") int allocationSamplesPerSecond) {
+        this.directory = directory;
+        this.defaultDuration = Duration.ofSeconds(defaultDurationSeconds);
+        this.maxDuration = Duration.ofSeconds(maxDurationSeconds);
+        this.maxSizeBytes = maxSizeMegabytes * 1024 * 1024;
+        this.retainedRecordings = Math.max(1, retainedRecordings);
+        this.executionSamplePeriod = Duration.ofMillis(executionSampleMillis);
+        this.lockThreshold = Duration.ofMillis(lockThresholdMillis);
+        this.socketReadThreshold = Duration.ofMillis(socketReadThresholdMillis);
+        this.allocationSamplesPerSecond = allocationSamplesPerSecond;
+    }
+
+    /**
+     * Starts a recording of {@code duration} (the default when null).
+     *
+     * @throws IllegalArgumentException when the duration is not positive or above the maximum
+     * @throws IllegalStateException    when a recording is already running
+     */
+    public synchronized Map<String, Object> start(Duration duration) throws IOException {
+        Duration length = duration != null ? duration : defaultDuration;
+        if (length.isZero() || length.isNegative() || length.compareTo(maxDuration) > 0) {
+            throw new IllegalArgumentException("Recording duration must be between 1 and "
+                    + maxDuration.toSeconds() + " seconds");
+        }
+        if (current != null) {
+            throw new IllegalStateException("Recording " + current.id + " is already running");
+        }
+        Files.createDirectories(directory);
+
+        RecordingStream stream = newStream();
+        Session session = new Session(ID_FORMAT.format(Instant.now()), length, stream);
+        stream.onEvent("jdk.GarbageCollection", session.summary::onGarbageCollection);
+        stream.onEvent("jdk.JavaMonitorEnter", session.summary::onMonitorEnter);
+        stream.onEvent("jdk.SocketRead", session.summary::onSocketRead);
+        stream.onEvent("jdk.ObjectAllocationSample", session.summary::onAllocationSample);
+        stream.onEvent(HttpRequestEventFilter.HttpRequestEvent.NAME, session.summary::onRequest);
+        stream.startAsync();
+        session.timeout = scheduler.schedule(() -> stop(session), length.toMillis(), TimeUnit.MILLISECONDS);
+        current = session;
+        logger.info("Started JFR recording {} for {} s", session.id, length.toSeconds());
+        return describe(session, "running");
+    }
+
+    /**
+     * Stops the running recording early, writing it to disk. Returns false when none is running.
+     */
+    public synchronized boolean stop() {
+        if (current == null) {
+            return false;
+        }
+        current.timeout.cancel(false);
+        stop(current);
+        return true;
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("maxDurationSeconds", maxDuration.toSeconds());
+        if (current != null) {
+            body.put("recording", describe(current, "running"));
+            body.put("summary", current.summary.snapshot());
+        } else if (last != null) {
+            body.put("recording", describe(last, "completed"));
+            body.put("summary", last.summary.snapshot());
+        }
+        body.put("recordings", recordings());
+        return body;
+    }
+
+    /**
+     * The file of a finished recording, by id. Only ids of retained recordings resolve.
+     */
+    public Optional<Path> recording(String id) {
+        return recordings().contains(id) ? Optional.of(directory.resolve(id + SUFFIX)) : Optional.empty();
+    }
+
+    @Override
+    public void destroy() {
+        stop();
+        scheduler.shutdownNow();
+    }
+
+    private RecordingStream newStream() throws IOException {
+        Configuration profile;
+        try {
+            profile = Configuration.getConfiguration("profile");
+        } catch (ParseException e) {
+            throw new IOException("Could not read the JFR 'profile' settings", e);
+        }
+        RecordingStream stream = new RecordingStream(profile);
+        stream.setMaxSize(maxSizeBytes);
+        stream.enable("jdk.ExecutionSample").withPeriod(executionSamplePeriod);
+        stream.enable("jdk.ObjectAllocationSample").with("throttle", allocationSamplesPerSecond + "/s").withStackTrace();
+        stream.enable("jdk.JavaMonitorEnter").withThreshold(lockThreshold).withStackTrace();
+        stream.enable("jdk.SocketRead").withThreshold(socketReadThreshold).withStackTrace();
+        stream.enable("jdk.GarbageCollection");
+        stream.enable("jdk.OldObjectSample").with("cutoff", "0 ns");
+        stream.enable(HttpRequestEventFilter.HttpRequestEvent.class);
+        return stream;
+    }
+
+    private synchronized void stop(Session session) {
+        if (current != session) {
+            return;
+        }
+        Path file = directory.resolve(session.id + SUFFIX);
+        try {
+            session.stream.dump(file);
+            logger.info("JFR recording {} written to {}", session.id, file);
+        } catch (IOException e) {
+            logger.warn("Could not write JFR recording {}: {}", session.id, e.getMessage());
+        } finally {
+            session.stream.close();
+            current = null;
+            last = session;
+            prune();
+        }
+    }
+
+    private void prune() {
+        List<String> ids = recordings();
+        for (int i = retainedRecordings; i < ids.size(); i++) {
+            try {
+                Files.deleteIfExists(directory.resolve(ids.get(i) + SUFFIX));
+            } catch (IOException e) {
+                logger.warn("Could not delete old JFR recording {}: {}", ids.get(i), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Ids of the recordings on disk, newest first.
+     */
+    private List<String> recordings() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .map(name -> name.substring(0, name.length() - SUFFIX.length()))
+                    .sorted(Comparator.reverseOrder())
+                    .toList();
+        } catch (IOException e) {
+            logger.warn("Could not list JFR recordings in {}: {}", directory, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private static Map<String, Object> describe(Session session, String state) {
+        Map<String, Object> recording = new LinkedHashMap<>();
+        recording.put("id", session.id);
+        recording.put("state", state);
+        recording.put("startedAt", session.startedAt.toString());
+        recording.put("durationSeconds", session.duration.toSeconds());
+        return recording;
+    }
+}
@@ -0,0 +1,101 @@
+package com.restaurant.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that caps how many INFO-and-below events per second the configured
+ * hot-path loggers may emit. Events over the cap are denied before any message formatting or
+ * appender work happens; WARN and ERROR always pass. Configured in {@code logback-spring.xml}:
+ * <pre>
+ * &lt;turboFilter class="com.restaurant.config.LogRateLimitTurboFilter"&gt;
+ *     &lt;logger&gt;com.restaurant.service.OrderService&lt;/logger&gt;
+ *     &lt;maxEventsPerSecond&gt;50&lt;/maxEventsPerSecond&gt;
+ * &lt;/turboFilter&gt;
+ * </pre>
+ */
+public class LogRateLimitTurboFilter extends TurboFilter {
+
+    private final List<String> loggers = new ArrayList<>();
+    private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private int maxEventsPerSecond = 100;
+
+    public void addLogger(String loggerName) {
+        loggers.add(loggerName.trim());
+    }
+
+    public void setMaxEventsPerSecond(int maxEventsPerSecond) {
+        this.maxEventsPerSecond = maxEventsPerSecond;
+    }
+
+    /**
+     * Events denied since startup.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (level == null || level.isGreaterOrEqual(Level.WARN) || !isLimited(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        // Events the logger would not log anyway must not consume the budget. Compare against the
+        // effective level directly: Logger.isEnabledFor() consults the turbo filters again.
+        if (!level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(logger.getName(), name -> new Window());
+        if (window.tryAcquire(System.currentTimeMillis() / 1000, maxEventsPerSecond)) {
+            return FilterReply.NEUTRAL;
+        }
+        dropped.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    private boolean isLimited(String loggerName) {
+        for (String prefix : loggers) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fixed one-second window; the epoch second and count are packed into one long so the
+     * window can be rolled and counted with a single CAS.
+     */
+    private static final class Window {
+        private final AtomicLong state = new AtomicLong();
+
+        boolean tryAcquire(long second, int limit) {
+            while (true) {
+                long current = state.get();
+                long currentSecond = current >>> 20;
+                long count = current & 0xFFFFF;
+                long next;
+                if (currentSecond != second) {
+                    next = (second << 20) | 1;
+                } else if (count < limit) {
+                    next = current + 1;
+                } else {
+                    return false;
+                }
+                if (state.compareAndSet(current, next)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
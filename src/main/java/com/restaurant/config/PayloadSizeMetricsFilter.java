@@ -0,0 +1,151 @@
+package com.restaurant.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records request and response body sizes per endpoint in the {@code http.server.requests.payload}
+ * summary (bytes, tagged by method, URI template and {@code direction}). Request sizes come from
+ * {@code Content-Length}; response bytes are counted as they are written, without buffering.
+ * Responses written through a {@link PrintWriter} are counted in characters, and requests that
+ * go async (the reactive endpoints) are not recorded.
+ */
+@Component
+public class PayloadSizeMetricsFilter extends OncePerRequestFilter {
+
+    private static final double[] SIZE_BUCKETS = {256, 1024, 4096, 16384, 65536, 262144, 1048576};
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PayloadSizeMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CountingResponse countingResponse = new CountingResponse(response);
+        try {
+            filterChain.doFilter(request, countingResponse);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+                long requestBytes = request.getContentLengthLong();
+                if (requestBytes > 0) {
+                    summary(request.getMethod(), uri, "request").record(requestBytes);
+                }
+                summary(request.getMethod(), uri, "response").record(countingResponse.count);
+            }
+        }
+    }
+
+    private DistributionSummary summary(String method, String uri, String direction) {
+        // Cached per tag combination so the common path skips building and looking up the meter id
+        return summaries.computeIfAbsent(method + ' ' + uri + ' ' + direction,
+                key -> DistributionSummary.builder("http.server.requests.payload")
+                        .baseUnit("bytes")
+                        .tag("method", method)
+                        .tag("uri", uri)
+                        .tag("direction", direction)
+                        .description("HTTP request and response body sizes")
+                        .serviceLevelObjectives(SIZE_BUCKETS)
+                        .register(meterRegistry));
+    }
+
+    private static final class CountingResponse extends HttpServletResponseWrapper {
+
+        private long count;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        count++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        count += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(super.getWriter()) {
+                    @Override
+                    public void write(int c) {
+                        super.write(c);
+                        count++;
+                    }
+
+                    @Override
+                    public void write(char[] buf, int off, int len) {
+                        super.write(buf, off, len);
+                        count += len;
+                    }
+
+                    @Override
+                    public void write(String s, int off, int len) {
+                        super.write(s, off, len);
+                        count += len;
+                    }
+                };
+            }
+            return writer;
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.restaurant.config;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Aggregates the events of one live JFR recording into GC, lock, socket-read and allocation
+ * summaries, overall and per endpoint.
+ * <p>
+ * Thread-bound events (monitor waits, socket reads, allocation samples) are held per thread until
+ * that thread's {@code com.restaurant.HttpRequest} event arrives; the ordered stream delivers the
+ * request event after everything that happened inside it. Events that started before the request
+ * belong to no endpoint. GC pauses are charged to every request they overlapped.
+ */
+final class ProfileSummary {
+
+    private static final int PENDING_PER_THREAD = 512;
+    private static final int RECENT_COLLECTIONS = 64;
+    private static final int TOP = 10;
+    private static final String APPLICATION_PACKAGE = "com.restaurant.";
+
+    private enum Kind { LOCK, SOCKET_READ, ALLOCATION }
+
+    private record ThreadEvent(Kind kind, Instant start, Duration duration, long bytes) {
+    }
+
+    private record Collection(Instant start, Instant end, Duration pause) {
+    }
+
+    private static final class EndpointProfile {
+        long requests;
+        Duration total = Duration.ZERO;
+        Duration max = Duration.ZERO;
+        long lockWaits;
+        Duration lockWait = Duration.ZERO;
+        long socketReads;
+        Duration socketRead = Duration.ZERO;
+        long allocatedBytes;
+        Duration gcPause = Duration.ZERO;
+    }
+
+    private final Map<String, EndpointProfile> endpoints = new TreeMap<>();
+    private final Map<Long, Deque<ThreadEvent>> pendingByThread = new HashMap<>();
+    private final Deque<Collection> recentCollections = new ArrayDeque<>();
+    private final Map<String, Long> allocationsBySite = new HashMap<>();
+    private final Map<String, Duration> lockWaitByMonitor = new HashMap<>();
+    private final Map<String, Duration> socketReadByPeer = new HashMap<>();
+    private long collections;
+    private Duration gcPauseTotal = Duration.ZERO;
+    private Duration gcPauseMax = Duration.ZERO;
+
+    synchronized void onGarbageCollection(RecordedEvent event) {
+        Duration pause = event.getDuration("sumOfPauses");
+        Duration longest = event.getDuration("longestPause");
+        collections++;
+        gcPauseTotal = gcPauseTotal.plus(pause);
+        gcPauseMax = longest.compareTo(gcPauseMax) > 0 ? longest : gcPauseMax;
+        recentCollections.addLast(new Collection(event.getStartTime(), event.getEndTime(), pause));
+        if (recentCollections.size() > RECENT_COLLECTIONS) {
+            recentCollections.removeFirst();
+        }
+    }
+
+    synchronized void onMonitorEnter(RecordedEvent event) {
+        RecordedClass monitor = event.getClass("monitorClass");
+        lockWaitByMonitor.merge(monitor != null ? monitor.getName() : "unknown", event.getDuration(), Duration::plus);
+        pend(event, new ThreadEvent(Kind.LOCK, event.getStartTime(), event.getDuration(), 0));
+    }
+
+    synchronized void onSocketRead(RecordedEvent event) {
+        socketReadByPeer.merge(event.getString("host") + ":" + event.getInt("port"), event.getDuration(),
+                Duration::plus);
+        pend(event, new ThreadEvent(Kind.SOCKET_READ, event.getStartTime(), event.getDuration(), 0));
+    }
+
+    synchronized void onAllocationSample(RecordedEvent event) {
+        long weight = event.getLong("weight");
+        allocationsBySite.merge(allocationSite(event), weight, Long::sum);
+        pend(event, new ThreadEvent(Kind.ALLOCATION, event.getStartTime(), Duration.ZERO, weight));
+    }
+
+    synchronized void onRequest(RecordedEvent event) {
+        String endpoint = event.getString("method") + " " + event.getString("uri");
+        EndpointProfile profile = endpoints.computeIfAbsent(endpoint, key -> new EndpointProfile());
+        Duration duration = event.getDuration();
+        profile.requests++;
+        profile.total = profile.total.plus(duration);
+        profile.max = duration.compareTo(profile.max) > 0 ? duration : profile.max;
+
+        Instant start = event.getStartTime();
+        Instant end = event.getEndTime();
+        for (Collection collection : recentCollections) {
+            if (collection.start().isBefore(end) && collection.end().isAfter(start)) {
+                profile.gcPause = profile.gcPause.plus(collection.pause());
+            }
+        }
+
+        RecordedThread thread = event.getThread();
+        Deque<ThreadEvent> pending = thread != null ? pendingByThread.remove(thread.getJavaThreadId()) : null;
+        if (pending == null) {
+            return;
+        }
+        for (ThreadEvent inner : pending) {
+            if (inner.start().isBefore(start)) {
+                continue;
+            }
+            switch (inner.kind()) {
+                case LOCK -> {
+                    profile.lockWaits++;
+                    profile.lockWait = profile.lockWait.plus(inner.duration());
+                }
+                case SOCKET_READ -> {
+                    profile.socketReads++;
+                    profile.socketRead = profile.socketRead.plus(inner.duration());
+                }
+                case ALLOCATION -> profile.allocatedBytes += inner.bytes();
+            }
+        }
+    }
+
+    synchronized Map<String, Object> snapshot() {
+        Map<String, Object> gc = new LinkedHashMap<>();
+        gc.put("collections", collections);
+        gc.put("totalPauseMillis", gcPauseTotal.toNanos() / 1e6);
+        gc.put("maxPauseMillis", gcPauseMax.toNanos() / 1e6);
+
+        Map<String, Object> byEndpoint = new LinkedHashMap<>();
+        endpoints.forEach((endpoint, profile) -> {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("requests", profile.requests);
+            values.put("meanMillis", profile.total.toNanos() / 1e6 / profile.requests);
+            values.put("maxMillis", profile.max.toNanos() / 1e6);
+            values.put("gcPauseMillis", profile.gcPause.toNanos() / 1e6);
+            values.put("lockWaits", profile.lockWaits);
+            values.put("lockWaitMillis", profile.lockWait.toNanos() / 1e6);
+            values.put("socketReads", profile.socketReads);
+            values.put("socketReadMillis", profile.socketRead.toNanos() / 1e6);
+            values.put("sampledAllocationBytes", profile.allocatedBytes);
+            byEndpoint.put(endpoint, values);
+        });
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("gc", gc);
+        body.put("endpoints", byEndpoint);
+        body.put("allocationHotspots", top(allocationsBySite, bytes -> bytes));
+        body.put("contendedMonitors", top(lockWaitByMonitor, ProfileSummary::millis));
+        body.put("socketReads", top(socketReadByPeer, ProfileSummary::millis));
+        return body;
+    }
+
+    private void pend(RecordedEvent event, ThreadEvent threadEvent) {
+        RecordedThread thread = event.getThread();
+        if (thread == null) {
+            return;
+        }
+        Deque<ThreadEvent> pending = pendingByThread.computeIfAbsent(thread.getJavaThreadId(), id -> new ArrayDeque<>());
+        pending.addLast(threadEvent);
+        if (pending.size() > PENDING_PER_THREAD) {
+            pending.removeFirst();
+        }
+    }
+
+    /**
+     * The innermost application frame of the sample, or the top frame when the allocation happened
+     * outside application code entirely.
+     */
+    private static String allocationSite(RecordedEvent event) {
+        RecordedClass objectClass = event.getClass("objectClass");
+        String type = objectClass != null ? objectClass.getName() : "unknown";
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return type;
+        }
+        RecordedFrame site = stackTrace.getFrames().get(0);
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame() && frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE)) {
+                site = frame;
+                break;
+            }
+        }
+        return type + " at " + site.getMethod().getType().getName() + "." + site.getMethod().getName()
+                + ":" + site.getLineNumber();
+    }
+
+    private static <V extends Comparable<V>> Map<String, Object> top(Map<String, V> values,
+                                                                     Function<V, Object> format) {
+        Map<String, Object> top = new LinkedHashMap<>();
+        values.entrySet().stream()
+                .sorted(Map.Entry.<String, V>comparingByValue().reversed())
+                .limit(TOP)
+                .forEach(entry -> top.put(entry.getKey(), format.apply(entry.getValue())));
+        return top;
+    }
+
+    private static Object millis(Duration duration) {
+        return duration.toNanos() / 1e6;
+    }
+}
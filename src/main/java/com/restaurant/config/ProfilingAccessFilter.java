@@ -0,0 +1,87 @@
+package com.restaurant.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Guards {@code /actuator/profiling} and any other actuator endpoint listed in
+ * {@code app.profiling.protected-endpoints} (by default also the writable {@code loggers} and
+ * {@code slowqueries}, which shows SQL text):
+ * requests must carry {@code Authorization: Bearer <token>} matching {@code app.profiling.token}
+ * (compared in constant time). Without a configured token the guarded endpoints answer 404, so
+ * they are off unless an operator sets one - in production through the
+ * {@code APP_PROFILING_TOKEN} environment variable.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ProfilingAccessFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProfilingAccessFilter.class);
+    private static final String BEARER = "Bearer ";
+
+    private final List<String> pathPrefixes;
+    private final byte[] token;
+
+    @Autowired
+    public ProfilingAccessFilter(@Value("${management.endpoints.web.base-path:/actuator}") String basePath,
+                                 @Value("${app.profiling.protected-endpoints:profiling,loggers,slowqueries}") List<String> endpoints,
+                                 @Value("${app.profiling.token:}") String token) {
+        Set<String> ids = new LinkedHashSet<>();
+        ids.add("profiling");
+        endpoints.stream().map(String::trim).filter(id -> !id.isEmpty()).forEach(ids::add);
+        this.pathPrefixes = ids.stream().map(id -> basePath + "/" + id).toList();
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Decoded, with ";" parameters and duplicate slashes removed, as the handler mapping sees it
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        for (String prefix : pathPrefixes) {
+            if (path.equals(prefix) || path.startsWith(prefix + "/")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (token.length == 0) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        byte[] presented = authorization != null && authorization.startsWith(BEARER)
+                ? authorization.substring(BEARER.length()).getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        if (!MessageDigest.isEqual(token, presented)) {
+            logger.warn("Rejected unauthenticated actuator request {} {} from {}",
+                    request.getMethod(), request.getRequestURI(), request.getRemoteAddr());
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,70 @@
+package com.restaurant.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * {@code /actuator/profiling}: on-demand Java Flight Recorder profiling via {@link JfrProfiler}.
+ * <ul>
+ *   <li>GET returns the current (or last) recording with its live GC, lock, socket-read and
+ *       allocation summary per endpoint, and the retained recording ids</li>
+ *   <li>POST {@code {"durationSeconds": 60}} starts a recording (409 while one is running)</li>
+ *   <li>DELETE stops the running recording early</li>
+ *   <li>GET {@code /actuator/profiling/{id}} downloads a finished recording for JDK Mission Control</li>
+ * </ul>
+ * Every call requires the bearer token checked by {@link ProfilingAccessFilter}.
+ */
+@Component
+@Endpoint(id = "profiling")
+public class ProfilingEndpoint {
+
+    private final JfrProfiler profiler;
+
+    @Autowired
+    public ProfilingEndpoint(JfrProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return profiler.status();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> start(@Nullable Long durationSeconds) throws IOException {
+        try {
+            return new WebEndpointResponse<>(profiler.start(durationSeconds != null
+                    ? Duration.ofSeconds(durationSeconds) : null));
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(Map.of("error", e.getMessage()), WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(Map.of("error", e.getMessage()), 409);
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> stop() {
+        return new WebEndpointResponse<>(profiler.stop() ? WebEndpointResponse.STATUS_NO_CONTENT
+                : WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> download(@Selector String id) {
+        return profiler.recording(id)
+                .map(file -> new WebEndpointResponse<Resource>(new FileSystemResource(file)))
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+}
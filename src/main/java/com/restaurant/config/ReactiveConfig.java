@@ -0,0 +1,23 @@
+package com.restaurant.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Scheduler for the reactive API. JPA and JDBC calls are blocking, so reactive handlers hand them
+ * to a bounded pool sized like the connection pool; waiting requests are queued as tasks instead of
+ * each holding a servlet thread.
+ */
+@Configuration
+public class ReactiveConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler databaseScheduler(
+            @Value("${app.reactive.db-threads:${spring.datasource.hikari.maximum-pool-size:10}}") int threads,
+            @Value("${app.reactive.queue-capacity:10000}") int queueCapacity) {
+        return Schedulers.newBoundedElastic(threads, queueCapacity, "db");
+    }
+}
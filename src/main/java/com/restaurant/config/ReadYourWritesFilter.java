@@ -0,0 +1,82 @@
+package com.restaurant.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Read-your-writes stickiness for {@link ReplicaRouting}. A request that may write (any method
+ * other than GET, HEAD and OPTIONS) is answered with a {@value #COOKIE} cookie and an
+ * {@value #HEADER} header holding the time until which that client's reads should go to the
+ * primary. Requests presenting either value (the header is for clients without a cookie jar,
+ * such as POS terminals) read from the primary until then, so a client never reads a replica
+ * older than its own last write. Values further in the future than the window are ignored.
+ * All reads made while handling a write request use the primary as well.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "primary-until";
+    static final String HEADER = "X-Primary-Until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final long stickyMillis;
+
+    public ReadYourWritesFilter(long stickyMillis) {
+        this.stickyMillis = stickyMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        long primaryUntil = primaryUntil(request);
+        boolean sticky = primaryUntil > now && primaryUntil <= now + stickyMillis;
+
+        boolean writeRequest = !SAFE_METHODS.contains(request.getMethod());
+        if (writeRequest) {
+            // Set before the handler runs: once the body is written the response is committed
+            String until = Long.toString(now + stickyMillis);
+            Cookie cookie = new Cookie(COOKIE, until);
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (stickyMillis + 999) / 1000));
+            response.addCookie(cookie);
+            response.setHeader(HEADER, until);
+        }
+
+        // Lookups made on the way to a write (existence checks, current state) read the primary too
+        ReplicaRouting.beginRequest(sticky || writeRequest);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRouting.endRequest();
+        }
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        String value = request.getHeader(HEADER);
+        if (value == null && request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    value = cookie.getValue();
+                    break;
+                }
+            }
+        }
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.restaurant.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions of the configured services to read replicas and everything else
+ * to the primary. A transaction is routed to a replica only when
+ * <ul>
+ *   <li>it is {@code @Transactional(readOnly = true)} and its name (the {@code Class.method} Spring
+ *       gives declarative transactions) starts with one of the routed service prefixes,</li>
+ *   <li>the current request has not written, and the client has not written within the
+ *       read-your-writes window (see {@link ReadYourWritesFilter}),</li>
+ *   <li>at least one replica's measured lag is within {@code maxLagMillis}.</li>
+ * </ul>
+ * Otherwise it falls back to the primary. Lag is measured by writing a timestamp to
+ * {@code replication_heartbeat} on the primary and reading it back from each replica; a replica
+ * that cannot be queried counts as infinitely behind.
+ * <p>
+ * The routing decision is taken when a connection is first used, so the DataSource handed to
+ * JPA must be wrapped in a {@code LazyConnectionDataSourceProxy}; otherwise the connection would
+ * be fetched before Spring has marked the transaction read-only.
+ */
+public class ReplicaRouting implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouting.class);
+
+    static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<RequestState> REQUEST = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final JdbcTemplate primaryJdbc;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final List<String> routedServices;
+    private final long maxLagMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final AbstractRoutingDataSource routingDataSource;
+    private final Counter laggingFallbacks;
+    private final Counter stickyReads;
+
+    public ReplicaRouting(DataSource primary, Map<String, DataSource> replicaDataSources, List<String> routedServices,
+                          long maxLagMillis, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.primaryJdbc = new JdbcTemplate(primary);
+        this.routedServices = List.copyOf(routedServices);
+        this.maxLagMillis = maxLagMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaDataSources.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource, meterRegistry);
+            replicas.add(replica);
+            targets.put(name, dataSource);
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagMillis == Long.MAX_VALUE ? Double.NaN : r.lagMillis)
+                    .tag("replica", name)
+                    .baseUnit("milliseconds")
+                    .description("Replication lag measured through the heartbeat table; NaN while unreachable")
+                    .register(meterRegistry);
+        });
+
+        this.laggingFallbacks = readCounter(meterRegistry, PRIMARY, "lagging");
+        this.stickyReads = readCounter(meterRegistry, PRIMARY, "read-your-writes");
+
+        AbstractRoutingDataSource router = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return route();
+            }
+        };
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(primary);
+        router.setLenientFallback(false);
+        router.afterPropertiesSet();
+        this.routingDataSource = router;
+    }
+
+    /**
+     * The routing DataSource; wrap it in a {@code LazyConnectionDataSourceProxy} before use.
+     */
+    public DataSource getRoutingDataSource() {
+        return routingDataSource;
+    }
+
+    /**
+     * The primary DataSource, which is all there is when no replica is configured.
+     */
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    /**
+     * Marks the start of a request on this thread. Reads go to the primary for the whole request
+     * when {@code primaryOnly} is set, and from the first write onwards otherwise.
+     */
+    public static void beginRequest(boolean primaryOnly) {
+        RequestState state = new RequestState();
+        state.primaryOnly = primaryOnly;
+        REQUEST.set(state);
+    }
+
+    public static void endRequest() {
+        REQUEST.remove();
+    }
+
+    /**
+     * Whether the current request's reads must use the primary. Work handed to another thread
+     * captures this first and passes it to {@link #beginRequest(boolean)} there, so it keeps the
+     * request's read-your-writes stickiness.
+     */
+    public static boolean isPrimaryOnlyRequest() {
+        RequestState state = REQUEST.get();
+        return state != null && state.primaryOnly;
+    }
+
+    /**
+     * Writes a fresh heartbeat to the primary and measures how far each replica trails it.
+     * Measured lag is an upper bound of the real lag plus the check interval.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:500}")
+    public void checkReplicas() {
+        if (hasReplicas() && writeHeartbeat()) {
+            measureReplicaLag();
+        }
+    }
+
+    public boolean writeHeartbeat() {
+        try {
+            primaryJdbc.update("UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1",
+                    System.currentTimeMillis());
+            return true;
+        } catch (DataAccessException e) {
+            logger.warn("Could not write replication heartbeat to the primary: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    public void measureReplicaLag() {
+        long now = System.currentTimeMillis();
+        for (Replica replica : replicas) {
+            long lag;
+            try {
+                Long beat = replica.jdbc.queryForObject(
+                        "SELECT beat_millis FROM replication_heartbeat WHERE id = 1", Long.class);
+                lag = beat != null ? Math.max(0, now - beat) : Long.MAX_VALUE;
+            } catch (DataAccessException e) {
+                lag = Long.MAX_VALUE;
+                if (replica.lagMillis != Long.MAX_VALUE) {
+                    logger.warn("Replica {} is unreachable, reads fall back to the primary: {}",
+                            replica.name, e.getMessage());
+                }
+            }
+            boolean wasUsable = replica.lagMillis <= maxLagMillis;
+            replica.lagMillis = lag;
+            if (wasUsable && lag > maxLagMillis && lag != Long.MAX_VALUE) {
+                logger.warn("Replica {} is {} ms behind (limit {} ms), reads fall back to the primary",
+                        replica.name, lag, maxLagMillis);
+            } else if (!wasUsable && lag <= maxLagMillis) {
+                logger.info("Replica {} is serving reads ({} ms behind)", replica.name, lag);
+            }
+        }
+    }
+
+    /**
+     * Lag last measured for each replica, in milliseconds ({@code Long.MAX_VALUE} when unreachable).
+     */
+    public Map<String, Long> getReplicaLag() {
+        Map<String, Long> lag = new HashMap<>();
+        for (Replica replica : replicas) {
+            lag.put(replica.name, replica.lagMillis);
+        }
+        return lag;
+    }
+
+    Object route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        RequestState request = REQUEST.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (request != null) {
+                request.primaryOnly = true;
+            }
+            return PRIMARY;
+        }
+        if (!isRouted(TransactionSynchronizationManager.getCurrentTransactionName())) {
+            return PRIMARY;
+        }
+        if (request != null && request.primaryOnly) {
+            stickyReads.increment();
+            return PRIMARY;
+        }
+        Replica replica = pickReplica();
+        if (replica == null) {
+            laggingFallbacks.increment();
+            return PRIMARY;
+        }
+        replica.reads.increment();
+        return replica.name;
+    }
+
+    private boolean isRouted(String transactionName) {
+        if (transactionName == null) {
+            return false;
+        }
+        for (String prefix : routedServices) {
+            if (transactionName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Replica pickReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica candidate = replicas.get((start + i) % size);
+            if (candidate.lagMillis <= maxLagMillis) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("datasource.routed.reads")
+                .tag("target", target)
+                .tag("reason", reason)
+                .description("Read-only transactions by the DataSource they were sent to")
+                .register(meterRegistry);
+    }
+
+    private static final class RequestState {
+        private boolean primaryOnly;
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbc;
+        private final Counter reads;
+        // Unknown until the first check, so nothing is routed to a replica before it was measured
+        private volatile long lagMillis = Long.MAX_VALUE;
+
+        private Replica(String name, DataSource dataSource, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.dataSource = dataSource;
+            this.jdbc = new JdbcTemplate(dataSource);
+            this.jdbc.setQueryTimeout(2);
+            this.reads = readCounter(meterRegistry, name, "replica");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.restaurant.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read/write splitting, active when {@code app.datasource.replica.urls} is set. Replaces Spring
+ * Boot's DataSource with a {@link ReplicaRouting} DataSource over a primary pool (configured by
+ * the usual {@code spring.datasource.*} and {@code spring.datasource.hikari.*} properties) and
+ * one read-only pool per replica URL. Without replica URLs the primary pool is the DataSource.
+ * <p>
+ * The switch is made when the beans are created rather than with {@code @ConditionalOnProperty},
+ * which Spring AOT evaluates once at build time: the AOT-processed Docker image must still be
+ * able to turn replicas on through {@code APP_DATASOURCE_REPLICA_URLS}.
+ * <p>
+ * The Hibernate second-level and query caches are switched off while replicas are in use: an
+ * entity or query result read from a replica inside its lag would be cached and then served to
+ * primary reads too, undoing read-your-writes.
+ */
+@Configuration
+public class ReplicaRoutingConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingConfig.class);
+
+    private final List<String> replicaUrls;
+
+    @Autowired
+    public ReplicaRoutingConfig(@Value("${app.datasource.replica.urls:}") List<String> replicaUrls) {
+        this.replicaUrls = replicaUrls.stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+    }
+
+    @Bean
+    public ReplicaRouting replicaRouting(DataSourceProperties properties,
+                                         Environment environment,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                         @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                         @Value("${app.datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+                                         @Value("${app.datasource.replica.max-lag-ms:5000}") long maxLagMillis,
+                                         @Value("${app.datasource.replica.routed-services:}") List<String> routedServices) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        if (replicaUrls.isEmpty()) {
+            // A plain pool, as Spring Boot would create it; Boot also binds its metrics
+            return new ReplicaRouting(primary, replicas, routedServices, maxLagMillis, meterRegistry);
+        }
+        if (primary.getPoolName() == null) {
+            primary.setPoolName("primary");
+        }
+        primary.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        for (String url : replicaUrls) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName(name);
+            replica.setJdbcUrl(url);
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setConnectionTimeout(2000);
+            // Start even if the replica is down; the lag check keeps reads off it until it answers
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(name, replica);
+        }
+
+        return new ReplicaRouting(primary, replicas, routedServices, maxLagMillis, meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer replicaSafeCacheCustomizer() {
+        return properties -> {
+            if (replicaUrls.isEmpty()) {
+                return;
+            }
+            if (Boolean.parseBoolean(String.valueOf(properties.get(AvailableSettings.USE_SECOND_LEVEL_CACHE)))) {
+                logger.info("Read replicas configured; Hibernate second-level and query caches are disabled");
+            }
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+            properties.put(AvailableSettings.USE_QUERY_CACHE, "false");
+        };
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRouting replicaRouting) {
+        if (!replicaRouting.hasReplicas()) {
+            return replicaRouting.getPrimary();
+        }
+        return new LazyConnectionDataSourceProxy(replicaRouting.getRoutingDataSource());
+    }
+
+    /**
+     * A replica passes the lag check while up to {@code max-lag-ms} behind, and may fall further
+     * behind until the next check, so a client's write only shows up on every eligible replica
+     * after {@code max-lag-ms + lag-check-interval-ms}. A shorter {@code sticky-ms} would let the
+     * client read from a replica that does not have its write yet, so startup fails instead.
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${app.datasource.replica.sticky-ms:5500}") long stickyMillis,
+            @Value("${app.datasource.replica.max-lag-ms:5000}") long maxLagMillis,
+            @Value("${app.datasource.replica.lag-check-interval-ms:500}") long lagCheckIntervalMillis) {
+        if (!replicaUrls.isEmpty() && stickyMillis < maxLagMillis + lagCheckIntervalMillis) {
+            throw new IllegalStateException("app.datasource.replica.sticky-ms (" + stickyMillis
+                    + ") must be at least max-lag-ms + lag-check-interval-ms (" + (maxLagMillis + lagCheckIntervalMillis)
+                    + "), or clients may read from a replica that has not caught up with their write");
+        }
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(stickyMillis));
+        registration.setEnabled(!replicaUrls.isEmpty());
+        return registration;
+    }
+}
@@ -0,0 +1,127 @@
+package com.restaurant.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * {@code spring.sql.init} with a shortcut for restarts: when {@code skipWhenUnchanged} is set and
+ * the schema and data scripts hash to the checksum recorded in {@code schema_checksum} by the
+ * previous run, the scripts are not executed again. Any edit to a script changes the checksum and
+ * the scripts run as usual (still with {@code continue-on-error} for objects that already exist).
+ * Without the flag this behaves exactly like Spring Boot's own initializer.
+ */
+public class SchemaScriptInitializer extends SqlDataSourceScriptDatabaseInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaScriptInitializer.class);
+    private static final String OPTIONAL_PREFIX = "optional:";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SqlInitializationProperties properties;
+    private final boolean skipWhenUnchanged;
+    private ResourceLoader resourceLoader;
+
+    public SchemaScriptInitializer(DataSource dataSource, SqlInitializationProperties properties,
+                                   boolean skipWhenUnchanged) {
+        super(dataSource, properties);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.properties = properties;
+        this.skipWhenUnchanged = skipWhenUnchanged;
+    }
+
+    @Override
+    public void setResourceLoader(ResourceLoader resourceLoader) {
+        super.setResourceLoader(resourceLoader);
+        this.resourceLoader = resourceLoader;
+    }
+
+    @Override
+    public boolean initializeDatabase() {
+        if (!skipWhenUnchanged) {
+            return super.initializeDatabase();
+        }
+        String checksum = scriptChecksum();
+        if (checksum != null && checksum.equals(appliedChecksum())) {
+            logger.info("Schema scripts unchanged since they were last applied, skipping them");
+            return false;
+        }
+        boolean applied = super.initializeDatabase();
+        if (applied && checksum != null) {
+            recordChecksum(checksum);
+        }
+        return applied;
+    }
+
+    private String appliedChecksum() {
+        try {
+            List<String> rows = jdbcTemplate.queryForList("SELECT checksum FROM schema_checksum WHERE id = 1", String.class);
+            return rows.isEmpty() ? null : rows.get(0);
+        } catch (DataAccessException e) {
+            // First start against this database: the table is created by the scripts themselves
+            return null;
+        }
+    }
+
+    private void recordChecksum(String checksum) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            if (jdbcTemplate.update("UPDATE schema_checksum SET checksum = ?, applied_at = ? WHERE id = 1", checksum, now) == 0) {
+                jdbcTemplate.update("INSERT INTO schema_checksum (id, checksum, applied_at) VALUES (1, ?, ?)", checksum, now);
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Could not record the schema script checksum, scripts will run again on the next start: {}",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * SHA-256 over the configured schema and data scripts, or null when they cannot all be read
+     * (the scripts then always run).
+     */
+    private String scriptChecksum() {
+        if (properties.getSchemaLocations() == null) {
+            return null;
+        }
+        List<String> locations = new ArrayList<>(properties.getSchemaLocations());
+        if (properties.getDataLocations() != null) {
+            locations.addAll(properties.getDataLocations());
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String location : locations) {
+                String pattern = location.startsWith(OPTIONAL_PREFIX) ? location.substring(OPTIONAL_PREFIX.length()) : location;
+                for (Resource resource : ResourcePatternUtils.getResourcePatternResolver(resourceLoader).getResources(pattern)) {
+                    if (!resource.exists()) {
+                        continue;
+                    }
+                    digest.update(location.getBytes(StandardCharsets.UTF_8));
+                    try (InputStream in = resource.getInputStream()) {
+                        digest.update(in.readAllBytes());
+                    }
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.warn("Could not checksum the schema scripts, running them: {}", e.getMessage());
+            return null;
+        }
+    }
+}
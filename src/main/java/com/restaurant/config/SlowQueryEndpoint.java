@@ -0,0 +1,44 @@
+package com.restaurant.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/slowqueries}: GET lists the statements held by {@link SlowQueryLog}, newest
+ * first; DELETE empties the log. Statements are recorded with their {@code ?} placeholders, never
+ * with bound values.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    @Autowired
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowQueries() {
+        List<SlowQueryLog.Entry> entries = slowQueryLog.snapshot();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("thresholdMillis", slowQueryLog.getThresholdMillis());
+        body.put("capacity", slowQueryLog.getCapacity());
+        body.put("count", entries.size());
+        body.put("queries", entries);
+        return body;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
@@ -0,0 +1,97 @@
+package com.restaurant.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Bounded in-memory log of the most recent SQL statements that took longer than
+ * {@code app.sql.slow-query.threshold-ms}. Once {@code app.sql.slow-query.capacity} entries are
+ * held the oldest is evicted, so memory use is fixed however slow the database gets.
+ * Exposed read-only through the {@code slowqueries} actuator endpoint.
+ */
+@Component
+public class SlowQueryLog {
+
+    private static final int MAX_SQL_LENGTH = 2000;
+
+    private final ArrayDeque<Entry> entries;
+    private final int capacity;
+    private final long thresholdMillis;
+
+    @Autowired
+    public SlowQueryLog(@Value("${app.sql.slow-query.capacity:100}") int capacity,
+                        @Value("${app.sql.slow-query.threshold-ms:200}") long thresholdMillis) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("app.sql.slow-query.capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.thresholdMillis = thresholdMillis;
+        this.entries = new ArrayDeque<>(capacity);
+    }
+
+    public boolean isSlow(long elapsedMillis) {
+        return elapsedMillis >= thresholdMillis;
+    }
+
+    public void record(String sql, long elapsedMillis, String repositoryMethod, int batchSize, boolean success) {
+        String text = sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+        Entry entry = new Entry(Instant.now(), elapsedMillis, text, repositoryMethod,
+                Thread.currentThread().getName(), batchSize, success);
+        synchronized (entries) {
+            if (entries.size() == capacity) {
+                entries.removeFirst();
+            }
+            entries.addLast(entry);
+        }
+    }
+
+    /**
+     * Logged statements, newest first.
+     */
+    public List<Entry> snapshot() {
+        synchronized (entries) {
+            List<Entry> copy = new ArrayList<>(entries.size());
+            Iterator<Entry> newestFirst = entries.descendingIterator();
+            while (newestFirst.hasNext()) {
+                copy.add(newestFirst.next());
+            }
+            return copy;
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final Instant timestamp;
+        private final long elapsedMillis;
+        private final String sql;
+        /** {@code Repository.method} that issued the statement, or null for plain JDBC access. */
+        private final String repositoryMethod;
+        private final String thread;
+        private final int batchSize;
+        private final boolean success;
+    }
+}
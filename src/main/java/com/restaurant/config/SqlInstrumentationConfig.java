@@ -0,0 +1,105 @@
+package com.restaurant.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Wires the SQL instrumentation into the persistence layer:
+ * <ul>
+ *   <li>the DataSource is wrapped in a datasource-proxy that reports every executed statement to
+ *       {@link SqlStatementMetrics} (Hikari stays underneath, so its pool metrics - including
+ *       {@code hikaricp.connections.acquire}, the time spent waiting for a connection - are still
+ *       bound by Spring Boot),</li>
+ *   <li>every Spring Data repository proxy gets an advice that marks which repository method is
+ *       running, so statements can be attributed to it. Per-method latency is already recorded by
+ *       Spring Boot in {@code spring.data.repository.invocations}.</li>
+ * </ul>
+ * The post-processors are static and resolve {@link SqlStatementMetrics} lazily so they do not
+ * force the meter registry to be created before post-processing is set up.
+ */
+@Configuration
+public class SqlInstrumentationConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlDataSourceProxyPostProcessor(ObjectProvider<SqlStatementMetrics> metrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new LazyListener(metrics))
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMethodTrackingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(
+                                    repositoryMethodTracker(repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static MethodInterceptor repositoryMethodTracker(Class<?> repositoryInterface) {
+        String repository = repositoryInterface.getSimpleName();
+        return invocation -> {
+            SqlStatementMetrics.enterRepository(repository + '.' + invocation.getMethod().getName());
+            try {
+                return invocation.proceed();
+            } finally {
+                SqlStatementMetrics.exitRepository();
+            }
+        };
+    }
+
+    private static final class LazyListener implements QueryExecutionListener {
+
+        private final ObjectProvider<SqlStatementMetrics> metrics;
+        private volatile SqlStatementMetrics delegate;
+
+        private LazyListener(ObjectProvider<SqlStatementMetrics> metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            SqlStatementMetrics target = delegate;
+            if (target == null) {
+                target = metrics.getIfAvailable();
+                if (target == null) {
+                    // No metrics bean in this context (e.g. sliced tests): execute unrecorded
+                    return;
+                }
+                delegate = target;
+            }
+            target.afterQuery(execInfo, queryInfoList);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.restaurant.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements each HTTP request executes, records them in the
+ * {@code http.server.requests.sql.statements} summary (tagged by method and URI template), and
+ * warns when a request runs more than {@code app.sql.n-plus-one-threshold} statements - usually
+ * a lazy association or a per-row lookup being loaded inside a loop. The warning names the most
+ * repeated statement so the offending query is obvious.
+ */
+@Component
+public class SqlRequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlRequestMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+
+    @Autowired
+    public SqlRequestMetricsFilter(MeterRegistry meterRegistry,
+                                   @Value("${app.sql.n-plus-one-threshold:25}") int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementMetrics.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatementMetrics.RequestStatements statements = SqlStatementMetrics.endRequest();
+            report(request, statements);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatementMetrics.RequestStatements statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .description("SQL statements executed per request")
+                .register(meterRegistry)
+                .record(statements.getTotal());
+
+        if (nPlusOneThreshold > 0 && statements.getTotal() > nPlusOneThreshold) {
+            Map.Entry<String, Integer> top = statements.mostRepeated();
+            logger.warn("Possible N+1: {} {} executed {} SQL statements (threshold {}); most repeated ({}x): {}",
+                    request.getMethod(), request.getRequestURI(), statements.getTotal(), nPlusOneThreshold,
+                    top != null ? top.getValue() : 0, top != null ? top.getKey() : "-");
+        }
+    }
+}
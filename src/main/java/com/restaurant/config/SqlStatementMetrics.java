@@ -0,0 +1,158 @@
+package com.restaurant.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Sees every statement executed through the application DataSource (wrapped by
+ * {@link SqlInstrumentationConfig}) and
+ * <ul>
+ *   <li>counts it in {@code repository.statements}, tagged with the repository and method that
+ *       issued it ({@code none} for JdbcTemplate and other non-repository access),</li>
+ *   <li>adds it to the current request's statement count, read by {@link SqlRequestMetricsFilter},</li>
+ *   <li>hands it to the {@link SlowQueryLog} when it ran past the slow-query threshold.</li>
+ * </ul>
+ * Repository and request context are thread-bound, so statements run on other threads (the
+ * reactive executor, scheduled jobs) are counted and timed but not attributed to a request.
+ */
+@Component
+public class SqlStatementMetrics implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlStatementMetrics.class);
+
+    private static final String NONE = "none";
+    /** Distinct statements remembered per request for the N+1 report; later ones are only counted. */
+    private static final int MAX_TRACKED_STATEMENTS = 200;
+
+    private static final ThreadLocal<Deque<String>> REPOSITORY_METHOD = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<RequestStatements> REQUEST = new ThreadLocal<>();
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final SlowQueryLog slowQueryLog;
+
+    @Autowired
+    public SqlStatementMetrics(MeterRegistry meterRegistry, SlowQueryLog slowQueryLog) {
+        this.meterRegistry = meterRegistry;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String repositoryMethod = REPOSITORY_METHOD.get().peek();
+        String sql = queryInfoList.size() == 1
+                ? queryInfoList.get(0).getQuery()
+                : String.join(";\n", queryInfoList.stream().map(QueryInfo::getQuery).toList());
+
+        counterFor(repositoryMethod).increment();
+
+        RequestStatements request = REQUEST.get();
+        if (request != null) {
+            request.add(sql);
+        }
+
+        long elapsed = execInfo.getElapsedTime();
+        if (slowQueryLog.isSlow(elapsed)) {
+            slowQueryLog.record(sql, elapsed, repositoryMethod, execInfo.getBatchSize(), execInfo.isSuccess());
+            logger.warn("Slow SQL ({} ms{}): {}", elapsed,
+                    repositoryMethod != null ? ", " + repositoryMethod : "", sql);
+        }
+    }
+
+    /**
+     * Attributes statements executed on this thread to {@code repositoryMethod} until the matching
+     * {@link #exitRepository()}. Calls nest, so a repository default method calling another
+     * repository method is attributed to the innermost one.
+     */
+    static void enterRepository(String repositoryMethod) {
+        REPOSITORY_METHOD.get().push(repositoryMethod);
+    }
+
+    static void exitRepository() {
+        Deque<String> stack = REPOSITORY_METHOD.get();
+        stack.pop();
+        if (stack.isEmpty()) {
+            REPOSITORY_METHOD.remove();
+        }
+    }
+
+    /**
+     * Starts counting statements executed on this thread for the current request.
+     */
+    static void beginRequest() {
+        REQUEST.set(new RequestStatements());
+    }
+
+    /**
+     * Stops counting for the current request and returns what was executed.
+     */
+    static RequestStatements endRequest() {
+        RequestStatements statements = REQUEST.get();
+        REQUEST.remove();
+        return statements != null ? statements : new RequestStatements();
+    }
+
+    private Counter counterFor(String repositoryMethod) {
+        String key = repositoryMethod != null ? repositoryMethod : NONE;
+        return counters.computeIfAbsent(key, k -> {
+            int dot = k.indexOf('.');
+            String repository = dot < 0 ? k : k.substring(0, dot);
+            String method = dot < 0 ? NONE : k.substring(dot + 1);
+            return Counter.builder("repository.statements")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .description("SQL statements executed, by the repository method that issued them")
+                    .register(meterRegistry);
+        });
+    }
+
+    /**
+     * Statements executed while serving one request. The most repeated statement is what an N+1
+     * pattern looks like: the same parameterised query run once per row of an earlier result.
+     */
+    static class RequestStatements {
+
+        private final Map<String, Integer> counts = new HashMap<>();
+        private int total;
+
+        void add(String sql) {
+            total++;
+            if (counts.containsKey(sql) || counts.size() < MAX_TRACKED_STATEMENTS) {
+                counts.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        int getTotal() {
+            return total;
+        }
+
+        Map.Entry<String, Integer> mostRepeated() {
+            Map.Entry<String, Integer> top = null;
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                if (top == null || entry.getValue() > top.getValue()) {
+                    top = entry;
+                }
+            }
+            return top;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.restaurant.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Controller;
+
+import javax.sql.DataSource;
+
+/**
+ * Startup-path beans used by the {@code fast-startup} profile. They are registered
+ * unconditionally and switched by properties at runtime, because an AOT-processed build fixes
+ * bean conditions at build time.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlInitializationProperties.class)
+public class StartupConfig {
+
+    /**
+     * Replaces Spring Boot's {@code spring.sql.init} initializer; identical to it unless
+     * {@code app.sql.init.skip-when-unchanged} is set.
+     */
+    @Bean
+    public SqlDataSourceScriptDatabaseInitializer dataSourceScriptDatabaseInitializer(
+            DataSource dataSource,
+            SqlInitializationProperties properties,
+            @Value("${app.sql.init.skip-when-unchanged:false}") boolean skipWhenUnchanged) {
+        return new SchemaScriptInitializer(dataSource, properties, skipWhenUnchanged);
+    }
+
+    /**
+     * With {@code spring.main.lazy-initialization} the controllers and everything they depend on
+     * (services, repositories, JPA) are still created at startup, so the first request does not
+     * pay for them. Scheduled beans are kept eager by Spring Boot itself.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter requestPathLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> AnnotatedElementUtils.hasAnnotation(beanType, Controller.class);
+    }
+}
@@ -0,0 +1,52 @@
+package com.restaurant.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records how long after JVM start the first successful (non-4xx/5xx) HTTP request completed, as
+ * the {@code application.first.request.time} gauge. Unlike Spring Boot's
+ * {@code application.ready.time} this includes JVM startup and class loading (what class-data
+ * sharing saves) and any initialization deferred to the first request.
+ */
+@Component
+public class StartupMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    @Autowired
+    public StartupMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, response);
+        if (!recorded.get() && response.getStatus() < 400 && recorded.compareAndSet(false, true)) {
+            long millis = ManagementFactory.getRuntimeMXBean().getUptime();
+            TimeGauge.builder("application.first.request.time", () -> millis, TimeUnit.MILLISECONDS)
+                    .description("Time from JVM start until the first successful HTTP request completed")
+                    .register(meterRegistry);
+            logger.info("First successful request ({} {}) completed {} ms after JVM start",
+                    request.getMethod(), request.getRequestURI(), millis);
+        }
+    }
+}
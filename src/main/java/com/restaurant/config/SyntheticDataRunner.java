@@ -0,0 +1,65 @@
+package com.restaurant.config;
+
+import com.restaurant.generator.SyntheticDataGenerator;
+import com.restaurant.service.CustomerSummaryService;
+import com.restaurant.service.OrderReadModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs {@link SyntheticDataGenerator} at startup when {@code app.generator.enabled} is set (the
+ * {@code generate-data} profile), rebuilds the derived tables the generator bypasses, and exits.
+ */
+@Component
+public class SyntheticDataRunner implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataRunner.class);
+
+    private final SyntheticDataGenerator generator;
+    private final CustomerSummaryService customerSummaryService;
+    private final OrderReadModel orderReadModel;
+    private final ConfigurableApplicationContext context;
+    private final boolean enabled;
+    private final boolean rebuildReadModel;
+    private final boolean exitWhenDone;
+
+    @Autowired
+    public SyntheticDataRunner(SyntheticDataGenerator generator,
+                               CustomerSummaryService customerSummaryService,
+                               OrderReadModel orderReadModel,
+                               ConfigurableApplicationContext context,
+                               @Value("${app.generator.enabled:false}") boolean enabled,
+                               @Value("${app.generator.rebuild-read-model:true}") boolean rebuildReadModel,
+                               @Value("${app.generator.exit-when-done:true}") boolean exitWhenDone) {
+        this.generator = generator;
+        this.customerSummaryService = customerSummaryService;
+        this.orderReadModel = orderReadModel;
+        this.context = context;
+        this.enabled = enabled;
+        this.rebuildReadModel = rebuildReadModel;
+        this.exitWhenDone = exitWhenDone;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+        generator.generate();
+        customerSummaryService.rebuildAll();
+        if (rebuildReadModel) {
+            orderReadModel.rebuild();
+        } else {
+            logger.info("Skipping the order read model; it is rebuilt on the next application start");
+        }
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.restaurant.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ExecutorConfigurationSupport;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in virtual-thread execution mode ({@code app.threads.virtual.enabled=true}, or the
+ * {@code virtual-threads} profile). Tomcat request handling and the application task executor
+ * run on virtual threads, which needs a Java 21+ runtime such as the Docker image's. Requesting the
+ * mode on an older JVM fails startup instead of silently keeping the platform thread pools, so a
+ * deployment never runs (or is measured) in a different mode than it was configured for.
+ * <p>
+ * The project still compiles for Java 17, so the virtual-thread executor is looked up reflectively.
+ * It is closed on shutdown, after in-flight tasks have had a few seconds to finish.
+ * Run with {@code -Djdk.tracePinnedThreads=short} to log threads pinned to their carrier
+ * (e.g. while blocked inside a synchronized JDBC driver call).
+ * <p>
+ * The flag is read when the context starts rather than through {@code @ConditionalOnProperty},
+ * which Spring AOT would evaluate once at build time, so the AOT-processed image can still be
+ * switched with {@code APP_THREADS_VIRTUAL_ENABLED}.
+ */
+@Configuration
+public class VirtualThreadConfig implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    private final ExecutorService virtualThreadExecutor;
+
+    @Autowired
+    public VirtualThreadConfig(@Value("${app.threads.virtual.enabled:false}") boolean enabled) {
+        this.virtualThreadExecutor = enabled ? createVirtualThreadExecutor() : null;
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            if (virtualThreadExecutor != null) {
+                protocolHandler.setExecutor(virtualThreadExecutor);
+                logger.info("Tomcat request handling runs on virtual threads");
+            }
+        };
+    }
+
+    /**
+     * Swaps Spring Boot's {@code applicationTaskExecutor}, used for {@code @Async} methods and
+     * async MVC request processing, for the virtual-thread executor. Without virtual threads the
+     * Boot executor is left as configured by {@code spring.task.execution.*}. Static, resolving
+     * the configuration lazily, so it does not pull this class in before post-processing is set up.
+     */
+    @Bean
+    public static BeanPostProcessor virtualThreadTaskExecutorPostProcessor(ObjectProvider<VirtualThreadConfig> config) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME.equals(beanName)) {
+                    return bean;
+                }
+                ExecutorService virtualThreadExecutor = config.getObject().virtualThreadExecutor;
+                if (virtualThreadExecutor == null) {
+                    return bean;
+                }
+                if (bean instanceof ExecutorConfigurationSupport replaced) {
+                    replaced.shutdown();
+                }
+                return new TaskExecutorAdapter(virtualThreadExecutor);
+            }
+        };
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (virtualThreadExecutor == null) {
+            return;
+        }
+        virtualThreadExecutor.shutdown();
+        if (!virtualThreadExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Virtual-thread tasks still running after 10 s; interrupting them");
+            virtualThreadExecutor.shutdownNow();
+        }
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("app.threads.virtual.enabled=true needs Java 21+, but this JVM is Java "
+                    + Runtime.version().feature() + "; run on a Java 21 runtime or disable virtual threads", e);
+        }
+    }
+}
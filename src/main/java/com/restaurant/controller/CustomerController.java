@@ -1,28 +1,36 @@
 package com.restaurant.controller;
 
+import com.restaurant.dto.ApiResult;
+import com.restaurant.dto.CustomerImportResult;
+import com.restaurant.dto.CustomerListItem;
 import com.restaurant.entity.Customer;
+import com.restaurant.entity.CustomerSummary;
+import com.restaurant.service.CustomerImportService;
 import com.restaurant.service.CustomerService;
+import com.restaurant.service.CustomerSummaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import jakarta.validation.ConstraintViolationException;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Slice;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Set;
 
 /**
  * Controller for managing customer-related operations.
  * Provides endpoints for creating, retrieving, updating, and deleting customer records.
+ * Responses use the {@link ApiResult} envelope; errors are rendered by {@link GlobalExceptionHandler}.
  */
 @RestController
 @RequestMapping("/api/customers")
@@ -34,221 +42,167 @@ import java.util.stream.Collectors;
 @Tag(name = "Customer Management", description = "APIs for managing restaurant customers")
 public class CustomerController {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final CustomerService customerService;
+    private final CustomerImportService customerImportService;
+    private final CustomerSummaryService customerSummaryService;
 
     @Autowired
-    public CustomerController(CustomerService customerService) {
+    public CustomerController(CustomerService customerService,
+                              CustomerImportService customerImportService,
+                              CustomerSummaryService customerSummaryService) {
         this.customerService = customerService;
+        this.customerImportService = customerImportService;
+        this.customerSummaryService = customerSummaryService;
     }
 
     @PostMapping
     @Operation(summary = "Register a new customer", 
               description = "Creates a new customer with the provided details. Both email and phone number must be unique.")
-    public ResponseEntity<?> createCustomer(@Valid @RequestBody Customer customer) {
-        try {
-            Customer savedCustomer = customerService.saveCustomer(customer);
-            Map<String, Object> response = new HashMap<>();
-            response.put("status", "success");
-            response.put("message", "Customer registered successfully");
-            response.put("data", savedCustomer);
-            return new ResponseEntity<>(response, HttpStatus.CREATED);
-        } catch (DataIntegrityViolationException e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("status", "error");
-            errorResponse.put("timestamp", LocalDateTime.now().toString());
-            
-            if (e.getMessage() != null && e.getMessage().contains("EMAIL")) {
-                errorResponse.put("message", "Email already exists");
-            } else if (e.getMessage() != null && e.getMessage().contains("PHONE_NUMBER")) {
-                errorResponse.put("message", "Phone number already exists");
-            } else {
-                errorResponse.put("message", "A customer with the provided details already exists");
-            }
-            
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
-        } catch (ConstraintViolationException e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("status", "error");
-            errorResponse.put("timestamp", LocalDateTime.now().toString());
-            errorResponse.put("message", "Validation failed: " + e.getConstraintViolations().stream()
-                    .map(cv -> cv.getMessage())
-                    .collect(Collectors.joining(", ")));
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
-        } catch (Exception e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("status", "error");
-            errorResponse.put("timestamp", LocalDateTime.now().toString());
-            errorResponse.put("message", "An unexpected error occurred: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    public ResponseEntity<ApiResult<Customer>> createCustomer(@Valid @RequestBody Customer customer) {
+        Customer savedCustomer = customerService.saveCustomer(customer);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResult.success("Customer registered successfully", savedCustomer));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Bulk import customers from a CSV file",
+              description = "Streams a CSV upload with name, email and phoneNumber columns. "
+                      + "Existing customers matched by email or phone number are updated, new ones are inserted. "
+                      + "Returns counts and a per-row error report.")
+    public ResponseEntity<ApiResult<CustomerImportResult>> importCustomers(@RequestParam("file") MultipartFile file) {
+        try (InputStream input = file.getInputStream()) {
+            return importFrom(input);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Error reading CSV upload: " + e.getMessage(), e);
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Bulk import customers from a raw CSV body",
+              description = "Same as the multipart import, but reads the request body as CSV without buffering the upload.")
+    public ResponseEntity<ApiResult<CustomerImportResult>> importCustomersFromBody(HttpServletRequest request) {
+        try (InputStream input = request.getInputStream()) {
+            return importFrom(input);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Error reading CSV upload: " + e.getMessage(), e);
         }
     }
 
+    private ResponseEntity<ApiResult<CustomerImportResult>> importFrom(InputStream input) throws IOException {
+        CustomerImportResult result = customerImportService.importCsv(input);
+        ApiResult<CustomerImportResult> response = ApiResult.success("Customer import completed", result);
+        if (result.getFailed() > 0) {
+            response.setStatus(ApiResult.PARTIAL);
+        }
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/email/{email}")
     @Operation(description = "Retrieves a customer by their email address")
-    public ResponseEntity<?> getCustomerByEmail(@PathVariable String email) {
-        try {
-            Optional<Customer> customer = customerService.getCustomerByEmail(email);
-            if (customer.isPresent()) {
-                Map<String, Object> response = new HashMap<>();
-                response.put("status", "success");
-                response.put("data", customer.get());
-                return ResponseEntity.ok(response);
-            } else {
-                Map<String, String> errorResponse = new HashMap<>();
-                errorResponse.put("status", "error");
-                errorResponse.put("message", "Customer not found with email: " + email);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
-            }
-        } catch (Exception e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("status", "error");
-            errorResponse.put("message", "Error retrieving customer: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+    public ResponseEntity<ApiResult<Customer>> getCustomerByEmail(@PathVariable String email) {
+        Customer customer = customerService.getCustomerByEmail(email)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Customer not found with email: " + email));
+        return ResponseEntity.ok(ApiResult.success(customer));
     }
 
     @GetMapping("/phone/{phoneNumber}")
     @Operation(description = "Retrieves a customer by their phone number")
-    public ResponseEntity<?> getCustomerByPhoneNumber(@PathVariable String phoneNumber) {
-        try {
-            Optional<Customer> customer = customerService.getCustomerByPhone(phoneNumber);
-            if (customer.isPresent()) {
-                Map<String, Object> response = new HashMap<>();
-                response.put("status", "success");
-                response.put("data", customer.get());
-                return ResponseEntity.ok(response);
-            } else {
-                Map<String, String> errorResponse = new HashMap<>();
-                errorResponse.put("status", "error");
-                errorResponse.put("message", "Customer not found with phone number: " + phoneNumber);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
-            }
-        } catch (Exception e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("status", "error");
-            errorResponse.put("message", "Error retrieving customer: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+    public ResponseEntity<ApiResult<Customer>> getCustomerByPhoneNumber(@PathVariable String phoneNumber) {
+        return ResponseEntity.ok(ApiResult.success(requireByPhone(phoneNumber)));
     }
 
     @GetMapping
-    @Operation(description = "Retrieves a list of all registered customers")
-    public ResponseEntity<?> getAllCustomers() {
-        try {
-            List<Customer> customers = customerService.getAllCustomers();
-            Map<String, Object> response = new HashMap<>();
-            response.put("status", "success");
-            response.put("count", customers.size());
-            response.put("data", customers);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("status", "error");
-            errorResponse.put("message", "Error retrieving customers: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    @Operation(description = "Retrieves a page of registered customers ordered by id. "
+            + "Use 'after' with the previous page's nextCursor for keyset paging, "
+            + "and 'fields' (comma separated) to limit the returned attributes.")
+    public ResponseEntity<ApiResult.Page<CustomerListItem>> getAllCustomers(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) String fields) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException(
+                    "page must be >= 0 and size must be between 1 and " + MAX_PAGE_SIZE);
         }
+        Set<String> selectedFields = CustomerListItem.parseFields(fields);
+        Slice<CustomerListItem> slice = after != null
+                ? customerService.getCustomersAfter(after, size, selectedFields)
+                : customerService.getCustomerPage(page, size, selectedFields);
+
+        ApiResult.Page<CustomerListItem> response = new ApiResult.Page<>(slice.getContent());
+        response.setTotalCount(customerService.countCustomers());
+        response.setSize(size);
+        if (after == null) {
+            response.setPage(page);
+        }
+        response.setHasNext(slice.hasNext());
+        if (slice.hasNext() && !slice.getContent().isEmpty()) {
+            response.setNextCursor(slice.getContent().get(slice.getNumberOfElements() - 1).getCursor());
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/phone/{phoneNumber}/summary")
+    @Operation(description = "Retrieves a customer's lifetime spend, order count, last order date and favourite item. "
+            + "Cancelled orders are not counted.")
+    public ResponseEntity<ApiResult<CustomerSummary>> getCustomerSummary(@PathVariable String phoneNumber) {
+        Long customerId = requireByPhone(phoneNumber).getId();
+        CustomerSummary summary = customerSummaryService.getSummary(customerId)
+                .orElseGet(() -> new CustomerSummary(customerId, 0L, BigDecimal.ZERO, null, null, null, null, null));
+        return ResponseEntity.ok(ApiResult.success(summary));
+    }
+
+    @PostMapping("/summaries/rebuild")
+    @Operation(description = "Recomputes every customer summary from the orders table")
+    public ResponseEntity<ApiResult<Integer>> rebuildCustomerSummaries() {
+        int rebuilt = customerSummaryService.rebuildAll();
+        return ResponseEntity.ok(ApiResult.success("Customer summaries rebuilt", rebuilt));
     }
 
     @PutMapping("/{id}")
     @Operation(description = "Updates an existing customer's information")
-    public ResponseEntity<?> updateCustomer(
+    public ResponseEntity<ApiResult<Customer>> updateCustomer(
             @PathVariable Long id,
             @Valid @RequestBody Customer customerDetails) {
-        try {
-            Optional<Customer> existingCustomer = customerService.getCustomerById(id);
-            if (existingCustomer.isPresent()) {
-                // Preserve the original creation date
-                customerDetails.setCreatedAt(existingCustomer.get().getCreatedAt());
-                customerDetails.setId(id);
-                
-                try {
-                    Customer updatedCustomer = customerService.saveCustomer(customerDetails);
-                    Map<String, Object> response = new HashMap<>();
-                    response.put("status", "success");
-                    response.put("message", "Customer updated successfully");
-                    response.put("data", updatedCustomer);
-                    return ResponseEntity.ok(response);
-                } catch (DataIntegrityViolationException e) {
-                    Map<String, String> errorResponse = new HashMap<>();
-                    errorResponse.put("status", "error");
-                    errorResponse.put("message", "A customer with the provided email or phone number already exists");
-                    return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
-                }
-            } else {
-                Map<String, String> errorResponse = new HashMap<>();
-                errorResponse.put("status", "error");
-                errorResponse.put("message", "Customer not found with id: " + id);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
-            }
-        } catch (Exception e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("status", "error");
-            errorResponse.put("message", "Error updating customer: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+        Customer existingCustomer = requireById(id);
+        // Preserve the original creation date
+        customerDetails.setCreatedAt(existingCustomer.getCreatedAt());
+        customerDetails.setId(id);
+
+        Customer updatedCustomer = customerService.saveCustomer(customerDetails);
+        return ResponseEntity.ok(ApiResult.success("Customer updated successfully", updatedCustomer));
     }
 
     @DeleteMapping("/{id}")
     @Operation(description = "Removes a customer from the system")
-    public ResponseEntity<?> deleteCustomer(@PathVariable Long id) {
-        try {
-            Optional<Customer> customer = customerService.getCustomerById(id);
-            if (customer.isPresent()) {
-                customerService.deleteCustomer(id);
-                Map<String, String> response = new HashMap<>();
-                response.put("status", "success");
-                response.put("message", "Customer deleted successfully");
-                return ResponseEntity.ok(response);
-            } else {
-                Map<String, String> errorResponse = new HashMap<>();
-                errorResponse.put("status", "error");
-                errorResponse.put("message", "Customer not found with id: " + id);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
-            }
-        } catch (Exception e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("status", "error");
-            errorResponse.put("message", "Error deleting customer: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+    public ResponseEntity<ApiResult.CustomerDeleted> deleteCustomer(@PathVariable Long id) {
+        requireById(id);
+        long deletedOrders = customerService.deleteCustomer(id);
+        return ResponseEntity.ok(new ApiResult.CustomerDeleted(deletedOrders));
     }
 
     @GetMapping("/exists/email/{email}")
     @Operation(description = "Checks if a customer with the given email address exists in the system")
-    public ResponseEntity<?> existsByEmail(@PathVariable String email) {
-        try {
-            boolean exists = customerService.existsByEmail(email);
-            Map<String, Object> response = new HashMap<>();
-            response.put("status", "success");
-            response.put("exists", exists);
-            response.put("email", email);
-            response.put("message", exists ? "Email is already registered" : "Email is available");
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("status", "error");
-            errorResponse.put("message", "Error checking email: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+    public ResponseEntity<ApiResult.Exists> existsByEmail(@PathVariable String email) {
+        boolean exists = customerService.existsByEmail(email);
+        ApiResult.Exists response = new ApiResult.Exists(exists,
+                exists ? "Email is already registered" : "Email is available");
+        response.setEmail(email);
+        return ResponseEntity.ok(response);
     }
     
     @GetMapping("/exists/phone/{phoneNumber}")
     @Operation(description = "Checks if a customer with the given phone number exists in the system")
-    public ResponseEntity<?> existsByPhoneNumber(@PathVariable String phoneNumber) {
-        try {
-            boolean exists = customerService.existsByPhoneNumber(phoneNumber);
-            Map<String, Object> response = new HashMap<>();
-            response.put("status", "success");
-            response.put("exists", exists);
-            response.put("phoneNumber", phoneNumber);
-            response.put("message", exists ? "Phone number is already registered" : "Phone number is available");
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("status", "error");
-            errorResponse.put("message", "Error checking phone number: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+    public ResponseEntity<ApiResult.Exists> existsByPhoneNumber(@PathVariable String phoneNumber) {
+        boolean exists = customerService.existsByPhoneNumber(phoneNumber);
+        ApiResult.Exists response = new ApiResult.Exists(exists,
+                exists ? "Phone number is already registered" : "Phone number is available");
+        response.setPhoneNumber(phoneNumber);
+        return ResponseEntity.ok(response);
     }
     
     @DeleteMapping("/phone/{phoneNumber}")
@@ -261,45 +215,29 @@ public class CustomerController {
             @ApiResponse(responseCode = "500", description = "Internal server error")
         }
     )
-    public ResponseEntity<?> deleteCustomerByPhoneNumber(
+    public ResponseEntity<ApiResult.CustomerDeleted> deleteCustomerByPhoneNumber(
             @PathVariable String phoneNumber) {
-        
-        try {
-            // First check if customer exists
-            Optional<Customer> customerOpt = customerService.getCustomerByPhone(phoneNumber);
-            
-            if (customerOpt.isEmpty()) {
-                Map<String, Object> errorResponse = new HashMap<>();
-                errorResponse.put("status", "error");
-                errorResponse.put("message", "No customer found with phone number: " + phoneNumber);
-                errorResponse.put("phoneNumber", phoneNumber);
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
-            }
-            
-            // Delete the customer
-            customerService.deleteCustomer(customerOpt.get().getId());
-            
-            // Build success response
-            Map<String, Object> response = new HashMap<>();
-            response.put("status", "success");
-            response.put("message", "Customer deleted successfully");
-            response.put("phoneNumber", phoneNumber);
-            response.put("deletedCustomerId", customerOpt.get().getId());
-            
-            return ResponseEntity.ok(response);
-            
-        } catch (IllegalArgumentException e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("status", "error");
-            errorResponse.put("message", "Invalid request: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
-            
-        } catch (Exception e) {
-            Map<String, String> errorResponse = new HashMap<>();
-            errorResponse.put("status", "error");
-            errorResponse.put("message", "Error deleting customer: " + e.getMessage());
-            errorResponse.put("phoneNumber", phoneNumber);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+        Customer customer = customerService.getCustomerByPhone(phoneNumber)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "No customer found with phone number: " + phoneNumber));
+
+        long deletedOrders = customerService.deleteCustomer(customer.getId());
+
+        ApiResult.CustomerDeleted response = new ApiResult.CustomerDeleted(deletedOrders);
+        response.setPhoneNumber(phoneNumber);
+        response.setDeletedCustomerId(customer.getId());
+        return ResponseEntity.ok(response);
+    }
+
+    private Customer requireById(Long id) {
+        return customerService.getCustomerById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Customer not found with id: " + id));
+    }
+
+    private Customer requireByPhone(String phoneNumber) {
+        return customerService.getCustomerByPhone(phoneNumber)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "Customer not found with phone number: " + phoneNumber));
     }
 }
@@ -2,6 +2,7 @@ package com.restaurant.controller;
 
 import com.restaurant.repository.CustomerRepository;
 import com.restaurant.repository.OrderRepository;
+import com.restaurant.service.OrderPartitionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -27,14 +28,17 @@ public class DebugController {
     private static final Logger logger = LoggerFactory.getLogger(DebugController.class);
     private final CustomerRepository customerRepository;
     private final OrderRepository orderRepository;
+    private final OrderPartitionService orderPartitionService;
     
     @Value("${app.debug.enabled:false}")
     private boolean debugEnabled;
 
     @Autowired
-    public DebugController(CustomerRepository customerRepository, OrderRepository orderRepository) {
+    public DebugController(CustomerRepository customerRepository, OrderRepository orderRepository,
+                           OrderPartitionService orderPartitionService) {
         this.customerRepository = customerRepository;
         this.orderRepository = orderRepository;
+        this.orderPartitionService = orderPartitionService;
     }
 
     @GetMapping("/customers")
@@ -116,6 +120,7 @@ public class DebugController {
             return ResponseEntity.status(403).body("Debug endpoints are disabled");
         }
         logger.debug("Fetching orders for customer with phone number: {}", phoneNumber);
-        return ResponseEntity.ok(orderRepository.findByCustomerPhone(phoneNumber));
+        return ResponseEntity.ok(orderRepository.findByCustomerPhoneSince(phoneNumber,
+                orderPartitionService.liveOrdersStart()));
     }
 }
@@ -0,0 +1,109 @@
+package com.restaurant.controller;
+
+import com.restaurant.dto.ApiResult;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.stream.Collectors;
+
+/**
+ * Renders errors from the REST controllers as {@link ApiResult} error envelopes.
+ * Unexpected exceptions are logged through SLF4J rather than printed on the request thread.
+ */
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ApiResult<Void>> handleResponseStatus(ResponseStatusException e) {
+        String message = e.getReason() != null ? e.getReason() : e.getStatusCode().toString();
+        return ResponseEntity.status(e.getStatusCode()).body(ApiResult.error(message));
+    }
+
+    /**
+     * Unique-key violations are only explained for customer registration and update, where the
+     * email and phone number constraints are what the client can fix. Elsewhere the constraint
+     * detail says nothing useful to the client, so a generic conflict is returned.
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiResult<Void>> handleDataIntegrityViolation(DataIntegrityViolationException e,
+                                                                       HandlerMethod handler) {
+        if (!isCustomerWrite(handler)) {
+            logger.warn("Data integrity violation in {}: {}", handler != null ? handler.getShortLogMessage() : "request",
+                    e.getMostSpecificCause().getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResult.error("The request conflicts with existing data"));
+        }
+        String detail = e.getMostSpecificCause().getMessage();
+        String message;
+        if (detail != null && detail.toUpperCase().contains("EMAIL")) {
+            message = "Email already exists";
+        } else if (detail != null && detail.toUpperCase().contains("PHONE_NUMBER")) {
+            message = "Phone number already exists";
+        } else {
+            message = "A customer with the provided details already exists";
+        }
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResult.error(message));
+    }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    public ResponseEntity<ApiResult<Void>> handleConstraintViolation(ConstraintViolationException e) {
+        String violations = e.getConstraintViolations().stream()
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining(", "));
+        return ResponseEntity.badRequest().body(ApiResult.error("Validation failed: " + violations));
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<ApiResult<Void>> handleMethodArgumentNotValid(MethodArgumentNotValidException e) {
+        String violations = e.getBindingResult().getAllErrors().stream()
+                .map(error -> error.getDefaultMessage())
+                .collect(Collectors.joining(", "));
+        return ResponseEntity.badRequest().body(ApiResult.error("Validation failed: " + violations));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResult<Void>> handleIllegalArgument(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(ApiResult.error("Invalid request: " + e.getMessage()));
+    }
+
+    @ExceptionHandler({HttpMessageNotReadableException.class, TypeMismatchException.class})
+    public ResponseEntity<ApiResult<Void>> handleUnreadableRequest(Exception e) {
+        return ResponseEntity.badRequest().body(ApiResult.error("Invalid request: " + e.getMessage()));
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ApiResult<Void>> handleUnexpected(Exception e) {
+        if (e instanceof ErrorResponse errorResponse) {
+            // Standard Spring MVC exceptions (unsupported method/media type, missing parameter, ...)
+            return ResponseEntity.status(errorResponse.getStatusCode()).body(ApiResult.error(e.getMessage()));
+        }
+        // The exception message may expose SQL, class names or data; it is only logged
+        logger.error("Unhandled error while processing request", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(ApiResult.error("An unexpected error occurred"));
+    }
+
+    private static boolean isCustomerWrite(HandlerMethod handler) {
+        if (handler == null || !CustomerController.class.isAssignableFrom(handler.getBeanType())) {
+            return false;
+        }
+        return handler.hasMethodAnnotation(PostMapping.class) || handler.hasMethodAnnotation(PutMapping.class);
+    }
+}
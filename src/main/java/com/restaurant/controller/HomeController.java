@@ -48,6 +48,11 @@ public class HomeController {
             • GET    /api/customers/exists/email/{email} - Check if email exists
             • GET    /api/customers/exists/phone/{phone} - Check if phone exists
 
+            Sync Endpoints:
+            • GET    /api/sync/changes?since={cursor}   - Orders, menu items and customers changed since a cursor
+            • GET    /api/sync/cursor                   - Latest cursor (read before a full download)
+            • POST   /api/sync/orders                   - Upload orders taken while offline
+
             Documentation:
             • Swagger UI: /swagger-ui.html
             • Derby Database: Available at startup (Database: restaurantdb, Username: app, Password: empty) - For development only
@@ -57,12 +57,8 @@ public class MenuController {
     @PostMapping
     @Operation(description = "Adds a new menu item to the restaurant's menu")
     public ResponseEntity<MenuItem> createMenuItem(@Valid @RequestBody MenuItem menuItem) {
-        try {
-            MenuItem savedMenuItem = menuService.saveMenuItem(menuItem);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedMenuItem);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+        MenuItem savedMenuItem = menuService.saveMenuItem(menuItem);
+        return ResponseEntity.status(HttpStatus.CREATED).body(savedMenuItem);
     }
 
     @PutMapping("/{id}")
@@ -77,12 +73,8 @@ public class MenuController {
 
     private ResponseEntity<MenuItem> updateExistingMenuItem(MenuItem existingMenuItem, MenuItem menuItem, Long id) {
         menuItem.setId(id);
-        try {
-            MenuItem updatedMenuItem = menuService.saveMenuItem(menuItem);
-            return ResponseEntity.ok(updatedMenuItem);
-        } catch (Exception e) {
-            return ResponseEntity.badRequest().build();
-        }
+        MenuItem updatedMenuItem = menuService.saveMenuItem(menuItem);
+        return ResponseEntity.ok(updatedMenuItem);
     }
 
     @DeleteMapping("/{id}")
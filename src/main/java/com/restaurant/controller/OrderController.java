@@ -1,26 +1,36 @@
 package com.restaurant.controller;
 
+import com.restaurant.dto.OrderFields;
 import com.restaurant.dto.OrderResponse;
 import com.restaurant.dto.CreateOrderByNameRequest;
 import com.restaurant.dto.CreateOrderRequest;
 import com.restaurant.dto.UpdateStatusRequest;
 import com.restaurant.entity.*;
 import com.restaurant.mapper.OrderMapper;
+import com.restaurant.dto.ApiResult;
+import com.restaurant.service.OrderReadModel;
 import com.restaurant.service.OrderService;
+import com.restaurant.service.SingleFlight;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
 
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 
 /**
  * Controller for managing order-related operations.
  * Provides endpoints for creating, retrieving, and updating orders.
+ * Reads are served from the {@link OrderReadModel}; writes go through {@link OrderService}.
  */
 @RestController
 @RequestMapping("/api/orders")
@@ -30,149 +40,144 @@ public class OrderController {
 
     private final OrderService orderService;
     private final OrderMapper orderMapper;
+    private final SingleFlight singleFlight;
+    private final OrderReadModel orderReadModel;
 
     @Autowired
-    public OrderController(OrderService orderService, OrderMapper orderMapper) {
+    public OrderController(OrderService orderService, OrderMapper orderMapper, SingleFlight singleFlight,
+                           OrderReadModel orderReadModel) {
         this.orderService = orderService;
         this.orderMapper = orderMapper;
+        this.singleFlight = singleFlight;
+        this.orderReadModel = orderReadModel;
     }
 
     @PostMapping("/by-name")
     @Operation(description = "Creates a new order with the specified menu item names for a customer")
-    public ResponseEntity<?> createOrderByName(@Valid @RequestBody CreateOrderByNameRequest request) {
-        try {
-            System.out.println("Received order request: " + request);
-            if (request == null) {
-                return ResponseEntity.badRequest().body("Request cannot be null");
-            }
-            if (request.getCustomerPhone() == null) {
-                return ResponseEntity.badRequest().body("Customer phone number is required");
-            }
-            if (request.getItems() == null || request.getItems().isEmpty()) {
-                return ResponseEntity.badRequest().body("Order must contain at least one item");
-            }
-            
-            try {
-                Order order = orderService.createOrderByName(request.getCustomerPhone(), request.getItems());
-                OrderResponse response = orderMapper.toOrderResponse(order);
-                return ResponseEntity.status(HttpStatus.CREATED).body(response);
-            } catch (ResponseStatusException e) {
-                return ResponseEntity.status(e.getStatusCode())
-                    .body(e.getReason());
-            } catch (Exception e) {
-                System.err.println("Error creating order: " + e.getMessage());
-                e.printStackTrace();
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("An error occurred while processing your order: " + e.getMessage());
-            }
-        } catch (Exception e) {
-            System.err.println("Unexpected error: " + e.getMessage());
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("An unexpected error occurred");
+    public ResponseEntity<OrderResponse> createOrderByName(@Valid @RequestBody CreateOrderByNameRequest request) {
+        if (request.getCustomerPhone() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Customer phone number is required");
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Order must contain at least one item");
         }
+
+        // Service errors surface as ApiResult error envelopes via GlobalExceptionHandler
+        Order order = orderService.createOrderByName(request.getCustomerPhone(), request.getItems());
+        OrderResponse response = orderMapper.toOrderResponse(order);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
     @PostMapping
     @Operation(description = "Creates a new order with the specified items for a customer")
-    public ResponseEntity<OrderResponse> createOrder(@RequestBody CreateOrderRequest request) {
-        try {
-            if (request == null || request.getCustomerPhone() == null || request.getOrderItems() == null) {
-                return ResponseEntity.badRequest().build();
-            }
-            
-            Order order = orderService.createOrder(request.getCustomerPhone(), request.getOrderItems());
-            OrderResponse response = orderMapper.toOrderResponse(order);
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-        } catch (ResponseStatusException e) {
-            return ResponseEntity.status(e.getStatusCode()).build();
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
+        // Service errors surface as ApiResult error envelopes via GlobalExceptionHandler
+        Order order = orderService.createOrder(request.getCustomerPhone(), request.getOrderItems());
+        OrderResponse response = orderMapper.toOrderResponse(order);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @GetMapping("/{id}")
-    @Operation(description = "Retrieves a specific order by its unique identifier")
-    public ResponseEntity<OrderResponse> getOrderById(@PathVariable String id) {
-        return orderService.getOrderById(id)
-                .map(orderMapper::toOrderResponse)
+    @Operation(description = "Retrieves a specific order by its unique identifier. "
+            + "Use 'fields' (comma separated) to limit the returned attributes.")
+    public ResponseEntity<OrderResponse> getOrderById(@PathVariable String id,
+                                                      @RequestParam(required = false) String fields) {
+        OrderFields selectedFields = OrderFields.parse(fields);
+        String key = selectedFields.isAll() ? id : id + "?" + String.join(",", selectedFields.getFields());
+        return singleFlight.execute("order.byId", key,
+                        () -> orderReadModel.findById(id, selectedFields).or(() -> readThrough(id, selectedFields)))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/customer/phone/{phoneNumber}")
-    @Operation(description = "Retrieves all orders for a specific customer by phone number")
-    public ResponseEntity<List<OrderResponse>> getOrdersByCustomerPhone(@PathVariable String phoneNumber) {
-        List<OrderResponse> responses = orderService.getOrdersByCustomerPhone(phoneNumber).stream()
-                .map(orderMapper::toOrderResponse)
-                .collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(responses);
+    @Operation(description = "Retrieves all orders for a specific customer by phone number. "
+            + "Use 'fields' (comma separated) to limit the returned attributes.")
+    public ResponseEntity<List<OrderResponse>> getOrdersByCustomerPhone(@PathVariable String phoneNumber,
+                                                                        @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(orderReadModel.findByCustomerPhone(phoneNumber, OrderFields.parse(fields)));
     }
     
     @GetMapping("/customer/phone/{phoneNumber}/latest")
-    @Operation(description = "Retrieves the latest order for a specific customer by phone number")
-    public ResponseEntity<OrderResponse> getLatestOrderByCustomerPhone(@PathVariable String phoneNumber) {
+    @Operation(description = "Retrieves the latest order for a specific customer by phone number. "
+            + "Use 'fields' (comma separated) to limit the returned attributes.")
+    public ResponseEntity<OrderResponse> getLatestOrderByCustomerPhone(@PathVariable String phoneNumber,
+                                                                       @RequestParam(required = false) String fields) {
         if (phoneNumber == null || phoneNumber.trim().isEmpty()) {
-            return ResponseEntity.badRequest().build();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Phone number cannot be empty");
         }
-        
-        return orderService.getLatestOrderByCustomerPhone(phoneNumber)
-                .map(orderMapper::toOrderResponse)
+        OrderFields selectedFields = OrderFields.parse(fields);
+
+        // Falls back to the write model for a customer whose first order is not yet in the read model
+        return orderReadModel.findLatestByCustomerPhone(phoneNumber, selectedFields)
+                .or(() -> orderService.getLatestOrderByCustomerPhone(phoneNumber)
+                        .map(order -> orderMapper.toOrderResponse(order, selectedFields)))
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping
-    @Operation(description = "Retrieves all orders in the system")
-    public ResponseEntity<List<OrderResponse>> getAllOrders() {
-        List<OrderResponse> responses = orderService.getAllOrders().stream()
-                .map(orderMapper::toOrderResponse)
-                .collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(responses);
+    @Operation(description = "Retrieves all orders in the system. "
+            + "Use 'fields' (comma separated) to limit the returned attributes and the columns queried.")
+    public ResponseEntity<List<OrderResponse>> getAllOrders(@RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(orderReadModel.findAll(OrderFields.parse(fields)));
     }
 
     @PutMapping("/{id}/status")
     @Operation(description = "Updates the status of an existing order")
     public ResponseEntity<OrderResponse> updateOrderStatus(
             @PathVariable String id, 
-            @RequestBody UpdateStatusRequest request) {
-        try {
-            OrderStatus newStatus = OrderStatus.valueOf(request.getStatus().toUpperCase());
-            Order updatedOrder = orderService.updateOrderStatus(id, newStatus);
-            OrderResponse response = orderMapper.toOrderResponse(updatedOrder);
-            return ResponseEntity.ok(response);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        } catch (ResponseStatusException e) {
-            return ResponseEntity.status(e.getStatusCode()).build();
-        }
+            @Valid @RequestBody UpdateStatusRequest request) {
+        Order updatedOrder = orderService.updateOrderStatus(id, parseStatus(request.getStatus()));
+        OrderResponse response = orderMapper.toOrderResponse(updatedOrder);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/status/{status}")
-    @Operation(description = "Retrieves all orders with the specified status")
+    @Operation(description = "Retrieves all orders with the specified status. "
+            + "Use 'fields' (comma separated) to limit the returned attributes and the columns queried.")
     public ResponseEntity<List<OrderResponse>> getOrdersByStatus(
-            @PathVariable String status) {
-        try {
-            OrderStatus orderStatus = OrderStatus.valueOf(status.toUpperCase());
-            List<OrderResponse> responses = orderService.getOrdersByStatus(orderStatus).stream()
-                    .map(orderMapper::toOrderResponse)
-                    .collect(java.util.stream.Collectors.toList());
-            return ResponseEntity.ok(responses);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
-        }
+            @PathVariable String status,
+            @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(orderReadModel.findByStatus(parseStatus(status), OrderFields.parse(fields)));
     }
 
     @GetMapping("/status/{status}/count")
-    @Operation(description = "Counts the number of orders with the specified status")
+    @Operation(description = "Counts the number of orders with the specified status. "
+            + "Use 'since' (ISO date) to count only orders created from that day on.")
     public ResponseEntity<Long> getOrderCountByStatus(
-            @PathVariable String status) {
+            @PathVariable String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since) {
+        Long count = orderService.getOrderCountByStatus(parseStatus(status), since != null ? since.atStartOfDay() : null);
+        return ResponseEntity.ok(count);
+    }
+
+    @PostMapping("/views/rebuild")
+    @Operation(description = "Rebuilds the order read model from the orders, customers and order items tables")
+    public ResponseEntity<ApiResult<Integer>> rebuildOrderViews() {
+        return ResponseEntity.ok(ApiResult.success("Order read model rebuilt", orderReadModel.rebuild()));
+    }
+
+    /**
+     * Parses a status path or body value, rejecting unknown ones with a 400 that lists the valid values.
+     */
+    static OrderStatus parseStatus(String status) {
         try {
-            OrderStatus orderStatus = OrderStatus.valueOf(status.toUpperCase());
-            Long count = orderService.getOrderCountByStatus(orderStatus);
-            return ResponseEntity.ok(count);
+            return OrderStatus.valueOf(status.trim().toUpperCase(Locale.ROOT));
         } catch (IllegalArgumentException e) {
-            return ResponseEntity.badRequest().build();
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid order status '" + status
+                    + "'; expected one of " + Arrays.toString(OrderStatus.values()));
         }
     }
+
+    /**
+     * Serves an order that is not in the read model yet (created within the refresh lag) from the
+     * write model, and queues it for the read model.
+     */
+    private Optional<OrderResponse> readThrough(String id, OrderFields fields) {
+        Optional<OrderResponse> response = orderService.getOrderById(id)
+                .map(order -> orderMapper.toOrderResponse(order, fields));
+        response.ifPresent(found -> orderReadModel.markDirty(id));
+        return response;
+    }
 }
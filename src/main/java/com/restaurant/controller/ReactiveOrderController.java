@@ -0,0 +1,141 @@
+package com.restaurant.controller;
+
+import com.restaurant.config.ReplicaRouting;
+import com.restaurant.dto.CreateOrderRequest;
+import com.restaurant.dto.OrderFields;
+import com.restaurant.dto.OrderResponse;
+import com.restaurant.dto.UpdateStatusRequest;
+import com.restaurant.entity.MenuItem;
+import com.restaurant.entity.OrderStatus;
+import com.restaurant.mapper.OrderMapper;
+import com.restaurant.service.MenuService;
+import com.restaurant.service.OrderReadModel;
+import com.restaurant.service.OrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Reactive variants of the menu read, order create, order lookup and status endpoints.
+ * Contracts (paths below /api/reactive, bodies and status codes) match {@link MenuController}
+ * and {@link OrderController}, and the same {@link OrderService}/{@link MenuService} logic is used.
+ * The servlet thread is released as soon as the handler returns; the blocking service call and the
+ * entity-to-DTO mapping run together in one transaction on the database scheduler.
+ */
+@RestController
+@RequestMapping("/api/reactive")
+@CrossOrigin(origins = "*")
+@Tag(name = "Reactive Orders", description = "Non-blocking variants of the menu and order endpoints")
+public class ReactiveOrderController {
+
+    private final OrderService orderService;
+    private final MenuService menuService;
+    private final OrderMapper orderMapper;
+    private final OrderReadModel orderReadModel;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate menuReads;
+    private final TransactionTemplate orderReads;
+    private final Scheduler databaseScheduler;
+
+    @Autowired
+    public ReactiveOrderController(OrderService orderService,
+                                   MenuService menuService,
+                                   OrderMapper orderMapper,
+                                   OrderReadModel orderReadModel,
+                                   TransactionTemplate transactionTemplate,
+                                   @Qualifier("databaseScheduler") Scheduler databaseScheduler) {
+        this.orderService = orderService;
+        this.menuService = menuService;
+        this.orderMapper = orderMapper;
+        this.orderReadModel = orderReadModel;
+        this.transactionTemplate = transactionTemplate;
+        this.menuReads = readOnlyTemplate(transactionTemplate, MenuService.class);
+        this.orderReads = readOnlyTemplate(transactionTemplate, OrderService.class);
+        this.databaseScheduler = databaseScheduler;
+    }
+
+    @GetMapping("/menu")
+    @Operation(description = "Retrieves a list of all available menu items in the restaurant")
+    public Mono<ResponseEntity<List<MenuItem>>> getAllMenuItems() {
+        return inTransaction(menuReads, menuService::getAllMenuItems)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/menu/category/{category}")
+    @Operation(description = "Retrieves all menu items that belong to the specified category")
+    public Mono<ResponseEntity<List<MenuItem>>> getMenuItemsByCategory(@PathVariable String category) {
+        return inTransaction(menuReads, () -> menuService.getMenuItemsByCategory(category))
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/orders")
+    @Operation(description = "Creates a new order with the specified items for a customer")
+    public Mono<ResponseEntity<OrderResponse>> createOrder(@Valid @RequestBody CreateOrderRequest request) {
+        // Errors reach GlobalExceptionHandler through the async dispatch and become ApiResult envelopes
+        return inTransaction(transactionTemplate, () -> orderMapper.toOrderResponse(
+                        orderService.createOrder(request.getCustomerPhone(), request.getOrderItems())))
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @GetMapping("/orders/{id}")
+    @Operation(description = "Retrieves a specific order by its unique identifier")
+    public Mono<ResponseEntity<OrderResponse>> getOrderById(@PathVariable String id) {
+        // Read model first; orders created within the refresh lag come from the write model
+        return inTransaction(orderReads, () -> orderReadModel.findById(id, OrderFields.ALL)
+                        .or(() -> orderService.getOrderById(id).map(orderMapper::toOrderResponse))
+                        .orElse(null))
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("/orders/{id}/status")
+    @Operation(description = "Updates the status of an existing order")
+    public Mono<ResponseEntity<OrderResponse>> updateOrderStatus(
+            @PathVariable String id,
+            @Valid @RequestBody UpdateStatusRequest request) {
+        OrderStatus newStatus = OrderController.parseStatus(request.getStatus());
+        return inTransaction(transactionTemplate, () -> orderMapper.toOrderResponse(orderService.updateOrderStatus(id, newStatus)))
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Runs the call and any lazy-loading mapping in one transaction on the database scheduler.
+     * A null result completes the Mono empty. The request's read-your-writes state is carried over
+     * to the scheduler thread, which ReplicaRouting would otherwise see as outside any request.
+     */
+    private <T> Mono<T> inTransaction(TransactionTemplate template, Supplier<T> call) {
+        boolean primaryOnly = ReplicaRouting.isPrimaryOnlyRequest();
+        return Mono.fromCallable(() -> {
+                    ReplicaRouting.beginRequest(primaryOnly);
+                    try {
+                        return template.execute(status -> call.get());
+                    } finally {
+                        ReplicaRouting.endRequest();
+                    }
+                })
+                .subscribeOn(databaseScheduler);
+    }
+
+    /**
+     * Read-only template named like a method of {@code service}. The service's own read-only
+     * methods join the outer transaction, so it is this name and flag that ReplicaRouting sees
+     * when deciding whether the reads may go to a replica.
+     */
+    private static TransactionTemplate readOnlyTemplate(TransactionTemplate template, Class<?> service) {
+        TransactionTemplate readOnly = new TransactionTemplate(template.getTransactionManager(), template);
+        readOnly.setReadOnly(true);
+        readOnly.setName(service.getName() + ".reactiveRead");
+        return readOnly;
+    }
+}
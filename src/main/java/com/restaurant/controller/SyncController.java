@@ -0,0 +1,67 @@
+package com.restaurant.controller;
+
+import com.restaurant.dto.ApiResult;
+import com.restaurant.dto.OfflineOrderBatchRequest;
+import com.restaurant.dto.OfflineOrderBatchResult;
+import com.restaurant.dto.SyncChanges;
+import com.restaurant.service.ChangeFeedService;
+import com.restaurant.service.OfflineOrderSyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import jakarta.validation.Valid;
+
+/**
+ * Sync for POS clients: after a reconnect, clients upload the orders they took offline in one
+ * batch, and fetch only what changed since their last cursor instead of re-downloading orders,
+ * menu and customers in full.
+ */
+@RestController
+@RequestMapping("/api/sync")
+@CrossOrigin(origins = "*")
+@Tag(name = "Sync", description = "Changes-since feed for offline-capable POS clients")
+public class SyncController {
+
+    private static final int DEFAULT_LIMIT = 500;
+
+    private final ChangeFeedService changeFeedService;
+    private final OfflineOrderSyncService offlineOrderSyncService;
+
+    @Autowired
+    public SyncController(ChangeFeedService changeFeedService, OfflineOrderSyncService offlineOrderSyncService) {
+        this.changeFeedService = changeFeedService;
+        this.offlineOrderSyncService = offlineOrderSyncService;
+    }
+
+    @PostMapping("/orders")
+    @Operation(description = "Uploads orders taken while offline. Each order carries a client order id; "
+            + "replayed ids are reported as duplicates with their existing server id instead of being created again. "
+            + "Returns the client id to server id mapping and a per-order outcome.")
+    public ResponseEntity<ApiResult<OfflineOrderBatchResult>> syncOfflineOrders(
+            @Valid @RequestBody OfflineOrderBatchRequest request) {
+        OfflineOrderBatchResult result = offlineOrderSyncService.sync(request.getOrders());
+        ApiResult<OfflineOrderBatchResult> response = ApiResult.success("Offline orders synced", result);
+        if (result.getRejected() > 0) {
+            response.setStatus(ApiResult.PARTIAL);
+        }
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/changes")
+    @Operation(description = "Returns orders, menu items and customers inserted, updated or deleted after the "
+            + "'since' cursor (0 for the full history). Pass the returned cursor on the next call; "
+            + "410 Gone means the cursor has expired and the client must resync in full.")
+    public ResponseEntity<ApiResult<SyncChanges>> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(ApiResult.success(changeFeedService.getChanges(since, limit)));
+    }
+
+    @GetMapping("/cursor")
+    @Operation(description = "Returns the latest cursor. Read it before a full download and sync from it afterwards.")
+    public ResponseEntity<ApiResult<Long>> getCursor() {
+        return ResponseEntity.ok(ApiResult.success(changeFeedService.currentCursor()));
+    }
+}
@@ -0,0 +1,110 @@
+package com.restaurant.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Typed response envelope: {@code status} ("success", "partial" or "error"), an optional
+ * {@code message}, an error {@code timestamp} and the {@code data} payload. Null fields are omitted.
+ * Endpoint-specific top-level fields live in the nested subclasses so the JSON shape stays flat.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({"status", "message", "timestamp"})
+public class ApiResult<T> {
+
+    public static final String SUCCESS = "success";
+    public static final String PARTIAL = "partial";
+    public static final String ERROR = "error";
+
+    private String status;
+    private String message;
+    private String timestamp;
+    private T data;
+
+    protected ApiResult(String status, String message, T data) {
+        this.status = status;
+        this.message = message;
+        this.data = data;
+    }
+
+    public static <T> ApiResult<T> success(T data) {
+        return new ApiResult<>(SUCCESS, null, data);
+    }
+
+    public static <T> ApiResult<T> success(String message, T data) {
+        return new ApiResult<>(SUCCESS, message, data);
+    }
+
+    public static ApiResult<Void> message(String message) {
+        return new ApiResult<>(SUCCESS, message, null);
+    }
+
+    public static ApiResult<Void> error(String message) {
+        ApiResult<Void> result = new ApiResult<>(ERROR, message, null);
+        result.setTimestamp(Instant.now().toString());
+        return result;
+    }
+
+    /**
+     * One page of a listing plus paging metadata.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Page<T> extends ApiResult<List<T>> {
+        private Integer count;
+        private Long totalCount;
+        private Integer page;
+        private Integer size;
+        private Boolean hasNext;
+        private Long nextCursor;
+
+        public Page(List<T> items) {
+            super(SUCCESS, null, items);
+            this.count = items.size();
+        }
+    }
+
+    /**
+     * Result of an email or phone number existence check.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Exists extends ApiResult<Void> {
+        private boolean exists;
+        private String email;
+        private String phoneNumber;
+
+        public Exists(boolean exists, String message) {
+            super(SUCCESS, message, null);
+            this.exists = exists;
+        }
+    }
+
+    /**
+     * Confirmation of a customer deletion.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class CustomerDeleted extends ApiResult<Void> {
+        private String phoneNumber;
+        private Long deletedCustomerId;
+        private long deletedOrderCount;
+
+        public CustomerDeleted(long deletedOrderCount) {
+            super(SUCCESS, "Customer deleted successfully", null);
+            this.deletedOrderCount = deletedOrderCount;
+        }
+    }
+}
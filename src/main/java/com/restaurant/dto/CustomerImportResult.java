@@ -0,0 +1,32 @@
+package com.restaurant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of a bulk customer import, including a per-row error report.
+ */
+@Data
+@NoArgsConstructor
+public class CustomerImportResult {
+    private long rowsRead;
+    private long inserted;
+    private long updated;
+    private long skipped;
+    private long failed;
+    private long durationMillis;
+    private boolean errorsTruncated;
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
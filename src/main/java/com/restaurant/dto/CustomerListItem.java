@@ -0,0 +1,59 @@
+package com.restaurant.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Customer row for the paged listing. Only the requested fields are populated;
+ * unset fields are left null and omitted from the JSON.
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CustomerListItem {
+
+    public static final Set<String> ALLOWED_FIELDS = Collections.unmodifiableSet(
+            new LinkedHashSet<>(List.of("id", "name", "email", "phoneNumber", "createdAt")));
+
+    private Long id;
+    private String name;
+    private String email;
+    private String phoneNumber;
+    private LocalDateTime createdAt;
+
+    /**
+     * The customer's id even when {@code id} is not a selected field; used for the next page cursor.
+     */
+    @JsonIgnore
+    private Long cursor;
+
+    /**
+     * Parses a comma separated {@code fields} parameter. A blank value selects every field.
+     * @throws IllegalArgumentException if an unknown field is requested
+     */
+    public static Set<String> parseFields(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALLOWED_FIELDS;
+        }
+        Set<String> selected = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (String field : selected) {
+            if (!ALLOWED_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown customer field: " + field);
+            }
+        }
+        return selected;
+    }
+}
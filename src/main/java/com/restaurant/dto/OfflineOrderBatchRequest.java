@@ -0,0 +1,40 @@
+package com.restaurant.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Orders taken by a POS terminal while offline, uploaded in one request once it reconnects.
+ */
+@Data
+public class OfflineOrderBatchRequest {
+
+    @NotEmpty(message = "Batch must contain at least one order")
+    @Valid
+    private List<OfflineOrder> orders;
+
+    @Data
+    public static class OfflineOrder {
+        // Generated by the terminal (e.g. a UUID); replaying the same id never creates a second order
+        @NotBlank(message = "Client order id is required")
+        @Size(max = 64, message = "Client order id must be at most 64 characters")
+        private String clientOrderId;
+
+        @NotNull(message = "Customer phone number is required")
+        private String customerPhone;
+
+        // When the order was taken; defaults to the upload time
+        private LocalDateTime createdAt;
+
+        @NotEmpty(message = "Order must contain at least one item")
+        @Valid
+        private List<OrderItemRequest> orderItems;
+    }
+}
@@ -0,0 +1,38 @@
+package com.restaurant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of an offline order upload: counts plus one entry per uploaded order, in request
+ * order, mapping the client order id to the server order id.
+ */
+@Data
+@NoArgsConstructor
+public class OfflineOrderBatchResult {
+
+    public static final String CREATED = "CREATED";
+    public static final String DUPLICATE = "DUPLICATE";
+    public static final String REJECTED = "REJECTED";
+
+    private long received;
+    private long created;
+    private long duplicates;
+    private long rejected;
+    private long durationMillis;
+    private List<Entry> results = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String clientOrderId;
+        private String orderId;
+        private String outcome;
+        private String message;
+    }
+}
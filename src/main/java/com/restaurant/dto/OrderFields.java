@@ -0,0 +1,67 @@
+package com.restaurant.dto;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sparse fieldset for {@link OrderResponse}, parsed from a {@code fields} query parameter.
+ * Only the selected attributes are loaded and written; the customer and order item joins
+ * are skipped when none of their fields are requested.
+ */
+public final class OrderFields {
+
+    public static final Set<String> ALLOWED_FIELDS = Collections.unmodifiableSet(new LinkedHashSet<>(List.of(
+            "id", "orderNumber", "customerName", "customerPhone", "orderDate", "status", "totalAmount", "items")));
+
+    public static final OrderFields ALL = new OrderFields(ALLOWED_FIELDS);
+
+    private final Set<String> fields;
+
+    private OrderFields(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parses a comma separated {@code fields} parameter. A blank value selects every field.
+     * @throws IllegalArgumentException if an unknown field is requested
+     */
+    public static OrderFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> selected = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (String field : selected) {
+            if (!ALLOWED_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown order field: " + field);
+            }
+        }
+        return selected.isEmpty() ? ALL : new OrderFields(Collections.unmodifiableSet(selected));
+    }
+
+    public boolean includes(String field) {
+        return fields.contains(field);
+    }
+
+    public boolean isAll() {
+        return fields.size() == ALLOWED_FIELDS.size();
+    }
+
+    public boolean needsCustomer() {
+        return fields.contains("customerName") || fields.contains("customerPhone");
+    }
+
+    public boolean needsItems() {
+        return fields.contains("items");
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+}
@@ -1,5 +1,6 @@
 package com.restaurant.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.restaurant.entity.OrderStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -12,6 +13,7 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL) // fields left out of a sparse fieldset are omitted
 public class OrderResponse {
     private String id;
     private String orderNumber;
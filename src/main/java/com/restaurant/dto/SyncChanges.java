@@ -0,0 +1,35 @@
+package com.restaurant.dto;
+
+import com.restaurant.entity.Customer;
+import com.restaurant.entity.MenuItem;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of the delta-sync change feed: current state of every order, menu item and customer
+ * inserted or updated since the client's cursor, and the ids of those deleted (tombstones).
+ * The client stores {@code cursor} and passes it back as {@code since} on the next sync;
+ * while {@code hasMore} is true it should request the next page straight away.
+ */
+@Data
+@NoArgsConstructor
+public class SyncChanges {
+
+    private long cursor;
+    private boolean hasMore;
+    private List<OrderResponse> orders = new ArrayList<>();
+    private List<MenuItem> menuItems = new ArrayList<>();
+    private List<Customer> customers = new ArrayList<>();
+    private Tombstones deleted = new Tombstones();
+
+    @Data
+    @NoArgsConstructor
+    public static class Tombstones {
+        private List<String> orders = new ArrayList<>();
+        private List<Long> menuItems = new ArrayList<>();
+        private List<Long> customers = new ArrayList<>();
+    }
+}
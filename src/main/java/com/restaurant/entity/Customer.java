@@ -1,20 +1,29 @@
 package com.restaurant.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
 @Table(name = "customers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customers")
 public class Customer {
+    public static final int MIN_PHONE_DIGITS = 7;
+    public static final int MAX_PHONE_LENGTH = 20;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -35,6 +44,15 @@ public class Customer {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Indexed matching keys, so imports find existing customers without scanning (see emailKey/phoneKey)
+    @JsonIgnore
+    @Column(name = "email_key")
+    private String emailKey;
+
+    @JsonIgnore
+    @Column(name = "phone_key", length = 20)
+    private String phoneKey;
+
     // Convenience constructor for creating a new Customer
     public Customer(String name, String email, String phoneNumber) {
         this.name = name;
@@ -55,5 +73,48 @@ public class Customer {
         if (this.createdAt == null) {
             this.createdAt = LocalDateTime.now();
         }
+        updateMatchKeys();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updateMatchKeys();
+    }
+
+    private void updateMatchKeys() {
+        this.emailKey = emailKey(email);
+        this.phoneKey = phoneKey(phoneNumber);
+    }
+
+    /**
+     * The matching key of an email: the address in lower case.
+     */
+    public static String emailKey(String email) {
+        return email != null ? email.toLowerCase(Locale.ROOT) : null;
+    }
+
+    /**
+     * The matching key of a phone number: digits and a leading '+', dropping spaces, dashes, dots,
+     * slashes and brackets. Returns null if the result is too short or too long to be a phone number.
+     */
+    public static String phoneKey(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(raw.length());
+        int digits = 0;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (Character.isDigit(c)) {
+                sb.append(c);
+                digits++;
+            } else if (c == '+' && sb.length() == 0) {
+                sb.append(c);
+            }
+        }
+        if (digits < MIN_PHONE_DIGITS || sb.length() > MAX_PHONE_LENGTH) {
+            return null;
+        }
+        return sb.toString();
     }
 }
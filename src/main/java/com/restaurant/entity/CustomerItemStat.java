@@ -0,0 +1,39 @@
+package com.restaurant.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Running quantity of a menu item ordered by a customer; backs the favourite item in {@link CustomerSummary}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "customer_item_stats")
+@IdClass(CustomerItemStat.Key.class)
+public class CustomerItemStat {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Id
+    @Column(name = "menu_item_id")
+    private Long menuItemId;
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long customerId;
+        private Long menuItemId;
+    }
+}
@@ -0,0 +1,46 @@
+package com.restaurant.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Per-customer lifetime read model, maintained incrementally as orders are created or cancelled.
+ * Cancelled orders are excluded from every figure.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "customer_summaries")
+public class CustomerSummary {
+
+    @Id
+    @Column(name = "customer_id")
+    private Long customerId;
+
+    @Column(name = "order_count", nullable = false)
+    private Long orderCount = 0L;
+
+    @Column(name = "lifetime_spend", nullable = false, precision = 12, scale = 2)
+    private BigDecimal lifetimeSpend = BigDecimal.ZERO;
+
+    @Column(name = "last_order_at")
+    private LocalDateTime lastOrderAt;
+
+    @Column(name = "favourite_menu_item_id")
+    private Long favouriteMenuItemId;
+
+    @Column(name = "favourite_item_name")
+    private String favouriteItemName;
+
+    @Column(name = "favourite_item_quantity")
+    private Long favouriteItemQuantity;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
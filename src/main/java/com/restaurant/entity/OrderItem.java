@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -41,6 +42,10 @@ public class OrderItem {
     @Column(name = "total_price", precision = 10, scale = 2)
     private BigDecimal totalPrice;
 
+    // Copied from the order: on PostgreSQL order_items is partitioned by it alongside orders
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
     public OrderItem(Order order, MenuItem menuItem, Integer quantity) {
         this.order = order;
         this.menuItem = menuItem;
@@ -55,7 +60,10 @@ public class OrderItem {
 
     @PrePersist
     @PreUpdate
-    private void calculateTotalPrice() {
+    private void onSave() {
+        if (createdAt == null) {
+            createdAt = order != null && order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+        }
         if (unitPrice == null && menuItem != null) {
             unitPrice = menuItem.getPrice();
         }
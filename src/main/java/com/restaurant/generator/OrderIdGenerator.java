@@ -4,23 +4,35 @@ import org.hibernate.engine.spi.SharedSessionContractImplementor;
 import org.hibernate.id.IdentifierGenerator;
 
 import java.io.Serializable;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Draws order ids of "ORD" and 10 random digits. The space is large enough that the database
+ * uniqueness check (the primary key, or {@code order_ids} once orders are partitioned) is what
+ * catches a collision rather than a lookup before every insert.
+ */
 public class OrderIdGenerator implements IdentifierGenerator {
     private static final String PREFIX = "ORD";
-    private static final int RANDOM_NUMBER_LENGTH = 5;
-    private static final Random RANDOM = new Random();
+    private static final int RANDOM_NUMBER_LENGTH = 10;
 
     @Override
     public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        return nextId();
+    }
+
+    /**
+     * Generates an id outside a Hibernate session, for orders written with JDBC batches.
+     * Ids are random, so callers must check them against existing orders.
+     */
+    public static String nextId() {
         return PREFIX + generateRandomNumber();
     }
 
-    private String generateRandomNumber() {
+    private static String generateRandomNumber() {
         // Generate a random number with RANDOM_NUMBER_LENGTH digits
-        int min = (int) Math.pow(10, RANDOM_NUMBER_LENGTH - 1);
-        int max = (int) Math.pow(10, RANDOM_NUMBER_LENGTH) - 1;
-        int randomNumber = RANDOM.nextInt(max - min + 1) + min;
+        long min = (long) Math.pow(10, RANDOM_NUMBER_LENGTH - 1);
+        long max = (long) Math.pow(10, RANDOM_NUMBER_LENGTH) - 1;
+        long randomNumber = ThreadLocalRandom.current().nextLong(min, max + 1);
         return String.format("%0" + RANDOM_NUMBER_LENGTH + "d", randomNumber);
     }
 }
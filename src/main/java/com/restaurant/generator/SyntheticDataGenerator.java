@@ -0,0 +1,444 @@
+package com.restaurant.generator;
+
+import com.restaurant.entity.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills an empty database with a large synthetic dataset for load and query benchmarks: customers,
+ * a menu built from realistic dishes, and orders spread over {@code days} days before
+ * {@code endDate}.
+ * <ul>
+ *   <li>Item popularity follows a Zipf distribution ({@code itemSkew}) and a few customers place
+ *       most orders ({@code customerSkew}, 1 = uniform).</li>
+ *   <li>Order times follow a lunch and dinner curve and are busier towards the weekend.</li>
+ *   <li>Orders have 1-5 distinct lines; recent orders are still in progress, older ones are
+ *       delivered or (5%) cancelled.</li>
+ * </ul>
+ * Rows are written with JDBC batches, one transaction per chunk, with chunks spread over
+ * {@code threads} threads. Every chunk draws from its own {@link Random} seeded from
+ * {@code seed} and the chunk number, so the same settings always produce the same rows whatever
+ * the thread scheduling. Only identity columns (customer and order item ids) may differ.
+ * <p>
+ * Derived tables (customer summaries, the order read model) are not written here; see
+ * {@code SyntheticDataRunner}.
+ */
+@Component
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    static final String EMAIL_DOMAIN = "@synthetic.example.com";
+
+    private static final String CUSTOMER_SQL =
+            "INSERT INTO customers (name, email, phone_number, created_at, email_key, phone_key) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String MENU_ITEM_SQL =
+            "INSERT INTO menu_items (name, description, price, category, available, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String ORDER_SQL =
+            "INSERT INTO orders (id, customer_id, status, total_amount, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String ORDER_ITEM_SQL = "INSERT INTO order_items "
+            + "(order_id, menu_item_id, quantity, unit_price, total_price, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael",
+            "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas",
+            "Sarah", "Carlos", "Karen", "Wei", "Priya", "Ahmed", "Fatima", "Luca", "Sofia", "Hiroshi", "Yuki",
+            "Olga", "Ivan", "Aisha", "Kwame"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+            "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Taylor", "Thomas",
+            "Moore", "Jackson", "Martin", "Lee", "Chen", "Patel", "Khan", "Rossi", "Tanaka", "Ivanova", "Mensah",
+            "Nguyen", "Kim", "Silva", "Novak", "Schmidt"};
+
+    // Category, price range and dishes; names are "<dish> <category noun>" and get variants beyond the base list
+    private static final MenuCategory[] MENU = {
+            new MenuCategory("Pizza", "Pizza", 10, 18, "Margherita", "Pepperoni", "Quattro Formaggi", "Diavola",
+                    "Funghi", "Capricciosa", "Hawaiian", "Vegetariana"),
+            new MenuCategory("Pasta", "Pasta", 11, 19, "Carbonara", "Bolognese", "Arrabbiata", "Pesto", "Alfredo",
+                    "Puttanesca", "Primavera"),
+            new MenuCategory("Salad", "Salad", 7, 13, "Caesar", "Greek", "Caprese", "Nicoise", "Garden", "Cobb"),
+            new MenuCategory("Burger", "Burger", 10, 16, "Classic", "Cheese", "Bacon", "Mushroom Swiss", "Veggie",
+                    "Chicken"),
+            new MenuCategory("Starter", "", 5, 10, "Garlic Bread", "Bruschetta", "Fried Calamari",
+                    "Mozzarella Sticks", "Chicken Wings", "Soup of the Day"),
+            new MenuCategory("Main", "", 16, 32, "Grilled Salmon", "Ribeye Steak", "Chicken Parmesan",
+                    "Fish and Chips", "Roast Chicken", "Lamb Shank"),
+            new MenuCategory("Dessert", "", 5, 9, "Tiramisu", "Cheesecake", "Chocolate Cake", "Panna Cotta",
+                    "Gelato", "Apple Pie"),
+            new MenuCategory("Beverage", "", 2, 5, "Cola", "Lemonade", "Iced Tea", "Sparkling Water", "Orange Juice",
+                    "Espresso", "Cappuccino")
+    };
+    private static final String[] VARIANTS = {"", "Large", "Spicy", "Family Size", "Gluten-Free", "Deluxe", "Mini",
+            "House Special"};
+
+    // Relative order volume per hour of day (lunch and dinner peaks) and per weekday (Monday first)
+    private static final double[] HOUR_WEIGHTS = {0.2, 0.1, 0.05, 0.05, 0.05, 0.1, 0.3, 0.8, 1.5, 1.5, 1.5, 3.0,
+            8.0, 7.0, 3.0, 2.0, 2.5, 5.0, 9.0, 10.0, 7.0, 4.0, 2.0, 0.8};
+    private static final double[] WEEKDAY_WEIGHTS = {0.85, 0.85, 0.9, 1.0, 1.3, 1.4, 1.1};
+    private static final double[] LINE_WEIGHTS = {0.30, 0.30, 0.20, 0.12, 0.08};
+    private static final double[] QUANTITY_WEIGHTS = {0.75, 0.20, 0.05};
+    private static final int CHUNK_ATTEMPTS = 3;
+    private static final String[] IN_PROGRESS = {"PENDING", "CONFIRMED", "PREPARING", "READY"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long seed;
+    private final int customers;
+    private final int menuItems;
+    private final long orders;
+    private final int days;
+    private final String endDate;
+    private final double itemSkew;
+    private final double customerSkew;
+    private final int chunkSize;
+    private final int threads;
+
+    @Autowired
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${app.generator.seed:42}") long seed,
+                                  @Value("${app.generator.customers:100000}") int customers,
+                                  @Value("${app.generator.menu-items:120}") int menuItems,
+                                  @Value("${app.generator.orders:1000000}") long orders,
+                                  @Value("${app.generator.days:365}") int days,
+                                  @Value("${app.generator.end-date:}") String endDate,
+                                  @Value("${app.generator.item-skew:1.1}") double itemSkew,
+                                  @Value("${app.generator.customer-skew:2.0}") double customerSkew,
+                                  @Value("${app.generator.chunk-size:5000}") int chunkSize,
+                                  @Value("${app.generator.threads:4}") int threads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.seed = seed;
+        this.customers = customers;
+        this.menuItems = menuItems;
+        this.orders = orders;
+        this.days = days;
+        this.endDate = endDate;
+        this.itemSkew = itemSkew;
+        this.customerSkew = customerSkew;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+    }
+
+    /**
+     * Generates the whole dataset. The customers, menu_items and orders tables must be empty.
+     * @return the number of orders written
+     */
+    public long generate() {
+        if (customers < 1 || menuItems < LINE_WEIGHTS.length || orders < 0 || days < 1 || chunkSize < 1 || threads < 1) {
+            throw new IllegalArgumentException("Need at least 1 customer, " + LINE_WEIGHTS.length
+                    + " menu items, 1 day, and positive chunk size and thread count");
+        }
+        for (String table : new String[]{"customers", "menu_items", "orders"}) {
+            Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+            if (rows != null && rows > 0) {
+                throw new IllegalStateException("Table " + table + " already has " + rows
+                        + " rows; synthetic data is generated into an empty database");
+            }
+        }
+
+        LocalDate end = endDate == null || endDate.isBlank() ? LocalDate.now() : LocalDate.parse(endDate);
+        LocalDateTime start = end.minusDays(days).atStartOfDay();
+        long started = System.currentTimeMillis();
+        logger.info("Generating {} customers, {} menu items and {} orders from {} to {} (seed {}, {} threads)",
+                customers, menuItems, orders, start.toLocalDate(), end, seed, threads);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<MenuRow> menu = insertMenu(start);
+            long[] customerIds = insertCustomers(executor, start);
+            logger.info("Inserted customers and menu in {} ms", System.currentTimeMillis() - started);
+            insertOrders(executor, menu, customerIds, start, end.atStartOfDay());
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.info("Generated synthetic dataset in {} ms", System.currentTimeMillis() - started);
+        return orders;
+    }
+
+    private List<MenuRow> insertMenu(LocalDateTime createdAt) {
+        Random random = chunkRandom(-1);
+        Timestamp created = Timestamp.valueOf(createdAt);
+        List<MenuRow> menu = new ArrayList<>(menuItems);
+        List<Object[]> rows = new ArrayList<>(menuItems);
+        outer:
+        for (String variant : VARIANTS) {
+            for (MenuCategory category : MENU) {
+                for (String dish : category.dishes) {
+                    if (menu.size() == menuItems) {
+                        break outer;
+                    }
+                    String base = category.noun.isEmpty() ? dish : dish + " " + category.noun;
+                    String name = variant.isEmpty() ? base : variant + " " + base;
+                    BigDecimal price = BigDecimal.valueOf(category.minPrice
+                                    + random.nextInt(category.maxPrice - category.minPrice + 1))
+                            .add(new BigDecimal(random.nextBoolean() ? "0.99" : "0.49"));
+                    menu.add(new MenuRow(name, price));
+                    rows.add(new Object[]{name, "House " + base.toLowerCase() + (variant.isEmpty() ? "" : ", " + variant.toLowerCase()),
+                            price, category.name, true, created});
+                }
+            }
+        }
+        if (menu.size() < menuItems) {
+            throw new IllegalArgumentException("At most " + menu.size() + " distinct menu items can be generated");
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(MENU_ITEM_SQL, rows));
+
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM menu_items", rs -> {
+            ids.put(rs.getString("name"), rs.getLong("id"));
+        });
+        for (MenuRow row : menu) {
+            row.id = ids.get(row.name);
+        }
+        return menu;
+    }
+
+    private long[] insertCustomers(ExecutorService executor, LocalDateTime createdAt) {
+        Timestamp created = Timestamp.valueOf(createdAt);
+        int chunks = (customers + chunkSize - 1) / chunkSize;
+        List<Future<?>> futures = new ArrayList<>(chunks);
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int from = chunk * chunkSize;
+            int to = Math.min(customers, from + chunkSize);
+            Random random = chunkRandom(chunk);
+            futures.add(executor.submit(() -> {
+                List<Object[]> rows = new ArrayList<>(to - from);
+                for (int i = from; i < to; i++) {
+                    String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                            + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                    String email = customerEmail(i);
+                    String phone = customerPhone(i);
+                    rows.add(new Object[]{name, email, phone, created, Customer.emailKey(email), Customer.phoneKey(phone)});
+                }
+                writeChunk(() -> jdbcTemplate.batchUpdate(CUSTOMER_SQL, rows));
+            }));
+        }
+        awaitAll(futures, "customers");
+
+        // Identity values depend on insert order, so orders pick customers by index and map to ids
+        long[] ids = new long[customers];
+        jdbcTemplate.query("SELECT id, email FROM customers", rs -> {
+            String email = rs.getString("email");
+            ids[Integer.parseInt(email.substring("customer".length(), email.indexOf('@')))] = rs.getLong("id");
+        });
+        return ids;
+    }
+
+    private void insertOrders(ExecutorService executor, List<MenuRow> menu, long[] customerIds,
+                              LocalDateTime start, LocalDateTime end) {
+        // Popularity ranks are shuffled so the best sellers are spread over the categories
+        List<Integer> ranks = new ArrayList<>();
+        for (int i = 0; i < menu.size(); i++) {
+            ranks.add(i);
+        }
+        Collections.shuffle(ranks, chunkRandom(-2));
+        double[] itemWeights = new double[menu.size()];
+        for (int i = 0; i < menu.size(); i++) {
+            itemWeights[ranks.get(i)] = 1.0 / Math.pow(i + 1, itemSkew);
+        }
+        Distribution items = new Distribution(itemWeights);
+        double[] dayWeights = new double[days];
+        for (int d = 0; d < days; d++) {
+            DayOfWeek weekday = start.toLocalDate().plusDays(d).getDayOfWeek();
+            dayWeights[d] = WEEKDAY_WEIGHTS[weekday.getValue() - 1];
+        }
+        Distribution dayDistribution = new Distribution(dayWeights);
+        Distribution hours = new Distribution(HOUR_WEIGHTS);
+        Distribution lines = new Distribution(LINE_WEIGHTS);
+        Distribution quantities = new Distribution(QUANTITY_WEIGHTS);
+        LocalDateTime inProgressFrom = end.minusHours(2);
+
+        long chunks = (orders + chunkSize - 1) / chunkSize;
+        AtomicLong written = new AtomicLong();
+        long started = System.currentTimeMillis();
+        List<Future<?>> futures = new ArrayList<>();
+        for (long chunk = 0; chunk < chunks; chunk++) {
+            long from = chunk * chunkSize;
+            long to = Math.min(orders, from + chunkSize);
+            long chunkNumber = chunk;
+            futures.add(executor.submit(() -> {
+                Random random = chunkRandom(1_000_000L + chunkNumber);
+                List<Object[]> orderRows = new ArrayList<>((int) (to - from));
+                List<Object[]> itemRows = new ArrayList<>((int) (to - from) * 3);
+                for (long n = from; n < to; n++) {
+                    String orderId = orderId(n);
+                    int customer = (int) Math.min(customerIds.length - 1,
+                            (long) (customerIds.length * Math.pow(random.nextDouble(), customerSkew)));
+                    LocalDateTime createdAt = start.plusDays(dayDistribution.sample(random))
+                            .plusHours(hours.sample(random))
+                            .plusSeconds(random.nextInt(3600));
+                    Timestamp created = Timestamp.valueOf(createdAt);
+
+                    int lineCount = lines.sample(random) + 1;
+                    int[] chosen = new int[lineCount];
+                    BigDecimal total = BigDecimal.ZERO;
+                    for (int line = 0; line < lineCount; line++) {
+                        int item;
+                        do {
+                            item = items.sample(random);
+                        } while (contains(chosen, line, item));
+                        chosen[line] = item;
+                        MenuRow menuItem = menu.get(item);
+                        int quantity = quantities.sample(random) + 1;
+                        BigDecimal lineTotal = menuItem.price.multiply(BigDecimal.valueOf(quantity))
+                                .setScale(2, RoundingMode.HALF_UP);
+                        total = total.add(lineTotal);
+                        itemRows.add(new Object[]{orderId, menuItem.id, quantity, menuItem.price, lineTotal, created});
+                    }
+
+                    String status;
+                    if (!createdAt.isBefore(inProgressFrom)) {
+                        status = IN_PROGRESS[random.nextInt(IN_PROGRESS.length)];
+                    } else {
+                        status = random.nextDouble() < 0.05 ? "CANCELLED" : "DELIVERED";
+                    }
+                    Timestamp updated = Timestamp.valueOf(createdAt.plusMinutes(20 + random.nextInt(40)));
+                    orderRows.add(new Object[]{orderId, customerIds[customer], status, total, created, updated});
+                }
+                writeChunk(() -> {
+                    jdbcTemplate.batchUpdate(ORDER_SQL, orderRows);
+                    jdbcTemplate.batchUpdate(ORDER_ITEM_SQL, itemRows);
+                });
+                long done = written.addAndGet(orderRows.size());
+                if (done / chunkSize % 100 == 0 || done == orders) {
+                    long elapsed = Math.max(1, System.currentTimeMillis() - started);
+                    logger.info("Orders: {} of {} written ({} per second)", done, orders, done * 1000 / elapsed);
+                }
+            }));
+        }
+        awaitAll(futures, "orders");
+    }
+
+    /**
+     * Writes one chunk in its own transaction. Concurrent chunks contend for index and foreign-key
+     * locks, and Derby in particular gives up on them now and then; the rolled-back chunk is then
+     * written again from the same rows.
+     */
+    private void writeChunk(Runnable write) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write.run());
+                return;
+            } catch (PessimisticLockingFailureException e) {
+                if (attempt == CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                logger.warn("Chunk write lost a lock conflict, retrying: {}", e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    /**
+     * Order ids are "ORD" and 12 digits, longer than the ids {@link OrderIdGenerator} draws, so the
+     * two never collide.
+     */
+    static String orderId(long index) {
+        return String.format("ORD%012d", index);
+    }
+
+    static String customerEmail(int index) {
+        return "customer" + index + EMAIL_DOMAIN;
+    }
+
+    static String customerPhone(int index) {
+        return String.format("9%02d-%03d-%04d", index / 10_000_000 % 100, index / 10_000 % 1000, index % 10_000);
+    }
+
+    private Random chunkRandom(long chunk) {
+        return new Random(seed * 1_000_003L + chunk);
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void awaitAll(List<Future<?>> futures, String what) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while generating " + what, e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Generating " + what + " failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Samples indexes in proportion to their weights by binary search over the cumulative weights.
+     */
+    static final class Distribution {
+        private final double[] cumulative;
+
+        Distribution(double[] weights) {
+            cumulative = new double[weights.length];
+            double sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                sum += weights[i];
+                cumulative[i] = sum;
+            }
+        }
+
+        int sample(Random random) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * cumulative[cumulative.length - 1]);
+            return Math.min(index >= 0 ? index + 1 : -index - 1, cumulative.length - 1);
+        }
+    }
+
+    private static final class MenuCategory {
+        private final String name;
+        private final String noun;
+        private final int minPrice;
+        private final int maxPrice;
+        private final String[] dishes;
+
+        private MenuCategory(String name, String noun, int minPrice, int maxPrice, String... dishes) {
+            this.name = name;
+            this.noun = noun;
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            this.dishes = dishes;
+        }
+    }
+
+    private static final class MenuRow {
+        private final String name;
+        private final BigDecimal price;
+        private Long id;
+
+        private MenuRow(String name, BigDecimal price) {
+            this.name = name;
+            this.price = price;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.restaurant.mapper;
 
+import com.restaurant.dto.OrderFields;
 import com.restaurant.dto.OrderResponse;
 import com.restaurant.entity.MenuItem;
 import com.restaurant.entity.Order;
@@ -34,6 +35,45 @@ public class OrderMapper {
         return response;
     }
 
+    /**
+     * Maps only the selected fields. Lazy associations (customer, order items) are not touched
+     * unless one of their fields is requested, so skipped fields cost no extra queries.
+     */
+    public OrderResponse toOrderResponse(Order order, OrderFields fields) {
+        if (order == null || fields.isAll()) {
+            return toOrderResponse(order);
+        }
+
+        OrderResponse response = new OrderResponse();
+        if (fields.includes("id")) {
+            response.setId(order.getId());
+        }
+        if (fields.includes("orderNumber")) {
+            response.setOrderNumber(order.getId());
+        }
+        if (fields.includes("customerName")) {
+            response.setCustomerName(order.getCustomer() != null ? order.getCustomer().getName() : "Walk-in Customer");
+        }
+        if (fields.includes("customerPhone")) {
+            response.setCustomerPhone(order.getCustomer() != null ? order.getCustomer().getPhoneNumber() : "");
+        }
+        if (fields.includes("orderDate")) {
+            response.setOrderDate(order.getCreatedAt());
+        }
+        if (fields.includes("status")) {
+            response.setStatus(order.getStatus());
+        }
+        if (fields.includes("totalAmount")) {
+            response.setTotalAmount(order.getTotalAmount());
+        }
+        if (fields.needsItems() && order.getOrderItems() != null) {
+            response.setItems(order.getOrderItems().stream()
+                    .map(this::toOrderItemResponse)
+                    .collect(Collectors.toList()));
+        }
+        return response;
+    }
+
     private OrderResponse.OrderItemResponse toOrderItemResponse(OrderItem orderItem) {
         MenuItem menuItem = orderItem.getMenuItem();
         return new OrderResponse.OrderItemResponse(
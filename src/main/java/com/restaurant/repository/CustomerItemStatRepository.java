@@ -0,0 +1,34 @@
+package com.restaurant.repository;
+
+import com.restaurant.entity.CustomerItemStat;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CustomerItemStatRepository extends JpaRepository<CustomerItemStat, CustomerItemStat.Key> {
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CustomerItemStat s SET s.quantity = s.quantity + :delta "
+            + "WHERE s.customerId = :customerId AND s.menuItemId = :menuItemId")
+    int addQuantity(@Param("customerId") Long customerId,
+                    @Param("menuItemId") Long menuItemId,
+                    @Param("delta") long delta);
+
+    /**
+     * Most ordered item for a customer as {@code [menuItemId, name, quantity]}; ties go to the lowest id.
+     */
+    @Query("SELECT s.menuItemId, m.name, s.quantity FROM CustomerItemStat s, MenuItem m "
+            + "WHERE m.id = s.menuItemId AND s.customerId = :customerId AND s.quantity > 0 "
+            + "ORDER BY s.quantity DESC, s.menuItemId ASC")
+    List<Object[]> findTopItems(@Param("customerId") Long customerId, Pageable pageable);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM CustomerItemStat s WHERE s.customerId = :customerId")
+    int deleteByCustomerId(@Param("customerId") Long customerId);
+}
@@ -2,11 +2,14 @@ package com.restaurant.repository;
 
 import com.restaurant.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerViewRepository {
 
     Optional<Customer> findByEmail(String email);
 
@@ -15,4 +18,16 @@ public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByPhoneNumber(String phoneNumber);
     
     boolean existsByPhoneNumber(String phoneNumber);
+
+    /**
+     * Cheap emptiness check; stops at the first row instead of loading the table.
+     */
+    boolean existsByIdIsNotNull();
+
+    /**
+     * Deletes the customer row with a single statement, without loading the entity first.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM Customer c WHERE c.id = :id")
+    int deleteDirectlyById(@Param("id") Long id);
 }
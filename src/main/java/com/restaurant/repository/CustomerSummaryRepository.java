@@ -0,0 +1,53 @@
+package com.restaurant.repository;
+
+import com.restaurant.entity.CustomerSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Repository
+public interface CustomerSummaryRepository extends JpaRepository<CustomerSummary, Long> {
+
+    /**
+     * Atomically applies an order (positive deltas) or a cancellation (negative deltas).
+     * @return the number of rows updated; 0 if the customer has no summary yet
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CustomerSummary s SET s.orderCount = s.orderCount + :orderDelta, "
+            + "s.lifetimeSpend = s.lifetimeSpend + :spendDelta, s.updatedAt = :now, "
+            + "s.lastOrderAt = CASE WHEN s.lastOrderAt IS NULL OR s.lastOrderAt < :orderedAt "
+            + "THEN :orderedAt ELSE s.lastOrderAt END "
+            + "WHERE s.customerId = :customerId")
+    int applyOrder(@Param("customerId") Long customerId,
+                   @Param("orderDelta") long orderDelta,
+                   @Param("spendDelta") BigDecimal spendDelta,
+                   @Param("orderedAt") LocalDateTime orderedAt,
+                   @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CustomerSummary s SET s.orderCount = s.orderCount - 1, "
+            + "s.lifetimeSpend = s.lifetimeSpend - :amount, s.lastOrderAt = :lastOrderAt, s.updatedAt = :now "
+            + "WHERE s.customerId = :customerId")
+    int applyCancellation(@Param("customerId") Long customerId,
+                          @Param("amount") BigDecimal amount,
+                          @Param("lastOrderAt") LocalDateTime lastOrderAt,
+                          @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE CustomerSummary s SET s.favouriteMenuItemId = :menuItemId, "
+            + "s.favouriteItemName = :name, s.favouriteItemQuantity = :quantity "
+            + "WHERE s.customerId = :customerId")
+    int updateFavourite(@Param("customerId") Long customerId,
+                        @Param("menuItemId") Long menuItemId,
+                        @Param("name") String name,
+                        @Param("quantity") Long quantity);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM CustomerSummary s WHERE s.customerId = :customerId")
+    int deleteByCustomerId(@Param("customerId") Long customerId);
+}
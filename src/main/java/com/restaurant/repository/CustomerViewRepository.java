@@ -0,0 +1,21 @@
+package com.restaurant.repository;
+
+import com.restaurant.dto.CustomerListItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Set;
+
+/**
+ * Projection queries for the customer listing that read only the columns behind the requested
+ * {@link CustomerListItem} fields. Implemented by {@link CustomerViewRepositoryImpl} and exposed
+ * through {@link CustomerRepository}.
+ */
+public interface CustomerViewRepository {
+
+    /**
+     * A page of customers ordered by id, without a COUNT query. With {@code afterId} set it is a
+     * keyset page of customers with a greater id and the pageable's page number is ignored.
+     */
+    Slice<CustomerListItem> findCustomerViews(Long afterId, Pageable pageable, Set<String> fields);
+}
@@ -0,0 +1,86 @@
+package com.restaurant.repository;
+
+import com.restaurant.dto.CustomerListItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds the select list from the requested fields, so a listing of names does not hydrate (and
+ * put into the persistence context) whole customer entities. The id is always read: it orders the
+ * page and becomes the next keyset cursor.
+ */
+public class CustomerViewRepositoryImpl implements CustomerViewRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<CustomerListItem> findCustomerViews(Long afterId, Pageable pageable, Set<String> fields) {
+        StringBuilder jpql = new StringBuilder("SELECT c.id AS id");
+        if (fields.contains("name")) {
+            jpql.append(", c.name AS name");
+        }
+        if (fields.contains("email")) {
+            jpql.append(", c.email AS email");
+        }
+        if (fields.contains("phoneNumber")) {
+            jpql.append(", c.phoneNumber AS phoneNumber");
+        }
+        if (fields.contains("createdAt")) {
+            jpql.append(", c.createdAt AS createdAt");
+        }
+        jpql.append(" FROM Customer c");
+        if (afterId != null) {
+            jpql.append(" WHERE c.id > :afterId");
+        }
+        jpql.append(" ORDER BY c.id");
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setFirstResult(afterId != null ? 0 : (int) pageable.getOffset())
+                // One extra row tells whether there is a next page
+                .setMaxResults(pageable.getPageSize() + 1);
+        if (afterId != null) {
+            query.setParameter("afterId", afterId);
+        }
+
+        List<Tuple> rows = query.getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<CustomerListItem> items = new ArrayList<>(Math.min(rows.size(), pageable.getPageSize()));
+        for (Tuple row : hasNext ? rows.subList(0, pageable.getPageSize()) : rows) {
+            items.add(toItem(row, fields));
+        }
+        return new SliceImpl<>(items, pageable, hasNext);
+    }
+
+    private static CustomerListItem toItem(Tuple row, Set<String> fields) {
+        CustomerListItem item = new CustomerListItem();
+        Long id = row.get("id", Long.class);
+        item.setCursor(id);
+        if (fields.contains("id")) {
+            item.setId(id);
+        }
+        if (fields.contains("name")) {
+            item.setName(row.get("name", String.class));
+        }
+        if (fields.contains("email")) {
+            item.setEmail(row.get("email", String.class));
+        }
+        if (fields.contains("phoneNumber")) {
+            item.setPhoneNumber(row.get("phoneNumber", String.class));
+        }
+        if (fields.contains("createdAt")) {
+            item.setCreatedAt(row.get("createdAt", LocalDateTime.class));
+        }
+        return item;
+    }
+}
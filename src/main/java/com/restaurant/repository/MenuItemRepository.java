@@ -1,8 +1,11 @@
 package com.restaurant.repository;
 
 import com.restaurant.entity.MenuItem;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -12,12 +15,36 @@ public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
 
     List<MenuItem> findByCategory(String category);
 
+    // Cached queries keep their results in the "menu_queries" region (ids only, entities come from
+    // the "menu_items" region). Any write to menu_items through Hibernate invalidates them.
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "menu_queries")
+    })
     List<MenuItem> findByAvailableTrue();
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "menu_queries")
+    })
     List<MenuItem> findByCategoryAndAvailableTrue(String category);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "menu_queries")
+    })
     @Query("SELECT DISTINCT m.category FROM MenuItem m ORDER BY m.category")
     List<String> findDistinctCategories();
     
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "menu_queries")
+    })
     Optional<MenuItem> findByNameIgnoreCase(String name);
+
+    /**
+     * Cheap emptiness check, including unavailable items; stops at the first row.
+     */
+    boolean existsByIdIsNotNull();
 }
@@ -2,30 +2,76 @@ package com.restaurant.repository;
 
 import com.restaurant.entity.Order;
 import com.restaurant.entity.OrderStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, String> {
+public interface OrderRepository extends JpaRepository<Order, String>, OrderViewRepository {
 
     @Query("SELECT o FROM Order o WHERE o.customer.id = :customerId")
     List<Order> findByCustomerId(@Param("customerId") Long customerId);
 
-    List<Order> findByStatus(OrderStatus status);
+    // The queries over all live orders are bounded by created_at too, so a partitioned orders table
+    // skips the periods before "since" (see OrderPartitionService.liveOrdersStart)
+    @Query("SELECT o FROM Order o WHERE o.status = :status AND o.createdAt >= :since")
+    List<Order> findByStatusSince(@Param("status") OrderStatus status, @Param("since") LocalDateTime since);
 
     @Query("SELECT o FROM Order o LEFT JOIN FETCH o.orderItems WHERE o.id = :orderId")
     Optional<Order> findByIdWithOrderItems(@Param("orderId") String orderId);
     
-    @Query("SELECT o FROM Order o WHERE o.customer.phoneNumber = :phoneNumber")
-    List<Order> findByCustomerPhone(@Param("phoneNumber") String phoneNumber);
+    @Query("SELECT o FROM Order o WHERE o.customer.phoneNumber = :phoneNumber AND o.createdAt >= :since")
+    List<Order> findByCustomerPhoneSince(@Param("phoneNumber") String phoneNumber,
+                                         @Param("since") LocalDateTime since);
 
-    @Query("SELECT COUNT(o) FROM Order o WHERE o.status = :status")
-    Long countByStatus(@Param("status") OrderStatus status);
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.status = :status AND o.createdAt >= :since")
+    Long countByStatusSince(@Param("status") OrderStatus status, @Param("since") LocalDateTime since);
     
     @Query("SELECT o FROM Order o WHERE o.customer.phoneNumber = :phoneNumber ORDER BY o.createdAt DESC LIMIT 1")
     Optional<Order> findLatestOrderByCustomerPhone(@Param("phoneNumber") String phoneNumber);
+
+    // Bounded by created_at so a partitioned orders table only scans the partitions from "since" on
+    @Query("SELECT o FROM Order o WHERE o.customer.phoneNumber = :phoneNumber AND o.createdAt >= :since "
+            + "ORDER BY o.createdAt DESC LIMIT 1")
+    Optional<Order> findLatestOrderByCustomerPhoneSince(@Param("phoneNumber") String phoneNumber,
+                                                        @Param("since") LocalDateTime since);
+
+    @Query("SELECT COUNT(o) FROM Order o WHERE o.customer.id = :customerId")
+    long countByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("SELECT o.id FROM Order o WHERE o.customer.id = :customerId ORDER BY o.id")
+    List<String> findIdsByCustomerId(@Param("customerId") Long customerId, Pageable pageable);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM OrderItem oi WHERE oi.order.id IN "
+            + "(SELECT o.id FROM Order o WHERE o.customer.id = :customerId)")
+    int deleteOrderItemsByCustomerId(@Param("customerId") Long customerId);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM Order o WHERE o.customer.id = :customerId")
+    int deleteByCustomerId(@Param("customerId") Long customerId);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM OrderItem oi WHERE oi.order.id IN :orderIds")
+    int deleteOrderItemsByOrderIds(@Param("orderIds") List<String> orderIds);
+
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("DELETE FROM Order o WHERE o.id IN :orderIds")
+    int deleteByIdIn(@Param("orderIds") List<String> orderIds);
+
+    @Query("SELECT MAX(o.createdAt) FROM Order o WHERE o.customer.id = :customerId AND o.status <> :excludedStatus")
+    LocalDateTime findLastOrderDate(@Param("customerId") Long customerId,
+                                    @Param("excludedStatus") OrderStatus excludedStatus);
+
+    @Query("SELECT MAX(o.createdAt) FROM Order o WHERE o.customer.id = :customerId AND o.status <> :excludedStatus "
+            + "AND o.createdAt >= :since")
+    LocalDateTime findLastOrderDateSince(@Param("customerId") Long customerId,
+                                         @Param("excludedStatus") OrderStatus excludedStatus,
+                                         @Param("since") LocalDateTime since);
 }
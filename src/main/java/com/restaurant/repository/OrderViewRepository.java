@@ -0,0 +1,19 @@
+package com.restaurant.repository;
+
+import com.restaurant.dto.OrderFields;
+import com.restaurant.dto.OrderResponse;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Projection queries that read only the columns behind a sparse {@link OrderFields} selection.
+ * Implemented by {@link OrderViewRepositoryImpl} and exposed through {@link OrderRepository}.
+ */
+public interface OrderViewRepository {
+
+    /**
+     * Orders with the given ids, oldest first. Unknown ids are skipped.
+     */
+    List<OrderResponse> findOrderViewsByIds(Collection<String> orderIds, OrderFields fields);
+}
@@ -0,0 +1,131 @@
+package com.restaurant.repository;
+
+import com.restaurant.dto.OrderFields;
+import com.restaurant.dto.OrderResponse;
+import com.restaurant.entity.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the select list from the requested fields: the customer join is only added for
+ * customer fields, and order items are read by a second query over the batch of order ids
+ * instead of one lazy load per order.
+ */
+public class OrderViewRepositoryImpl implements OrderViewRepository {
+
+    // Keeps IN lists well below driver and database parameter limits
+    private static final int IN_LIST_BATCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderResponse> findOrderViewsByIds(Collection<String> orderIds, OrderFields fields) {
+        Map<String, OrderResponse> responses = new LinkedHashMap<>();
+        List<String> ids = new ArrayList<>(orderIds);
+        for (int from = 0; from < ids.size(); from += IN_LIST_BATCH_SIZE) {
+            query(ids.subList(from, Math.min(from + IN_LIST_BATCH_SIZE, ids.size())), fields, responses);
+        }
+        if (fields.needsItems() && !responses.isEmpty()) {
+            loadItems(responses);
+        }
+        return new ArrayList<>(responses.values());
+    }
+
+    private void query(List<String> orderIds, OrderFields fields, Map<String, OrderResponse> responses) {
+        StringBuilder jpql = new StringBuilder("SELECT o.id AS id");
+        if (fields.includes("orderDate")) {
+            jpql.append(", o.createdAt AS orderDate");
+        }
+        if (fields.includes("status")) {
+            jpql.append(", o.status AS status");
+        }
+        if (fields.includes("totalAmount")) {
+            jpql.append(", o.totalAmount AS totalAmount");
+        }
+        if (fields.includes("customerName")) {
+            jpql.append(", c.name AS customerName");
+        }
+        if (fields.includes("customerPhone")) {
+            jpql.append(", c.phoneNumber AS customerPhone");
+        }
+        jpql.append(" FROM Order o");
+        if (fields.needsCustomer()) {
+            jpql.append(" LEFT JOIN o.customer c");
+        }
+        jpql.append(" WHERE o.id IN :orderIds ORDER BY o.id");
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("orderIds", orderIds);
+        for (Tuple row : query.getResultList()) {
+            String id = row.get("id", String.class);
+            responses.put(id, toResponse(id, row, fields));
+        }
+    }
+
+    private OrderResponse toResponse(String id, Tuple row, OrderFields fields) {
+        OrderResponse response = new OrderResponse();
+        if (fields.includes("id")) {
+            response.setId(id);
+        }
+        if (fields.includes("orderNumber")) {
+            response.setOrderNumber(id);
+        }
+        if (fields.includes("orderDate")) {
+            response.setOrderDate(row.get("orderDate", LocalDateTime.class));
+        }
+        if (fields.includes("status")) {
+            response.setStatus(row.get("status", OrderStatus.class));
+        }
+        if (fields.includes("totalAmount")) {
+            response.setTotalAmount(row.get("totalAmount", BigDecimal.class));
+        }
+        // Same fallbacks as OrderMapper for orders without a customer
+        if (fields.includes("customerName")) {
+            String name = row.get("customerName", String.class);
+            response.setCustomerName(name != null ? name : "Walk-in Customer");
+        }
+        if (fields.includes("customerPhone")) {
+            String phone = row.get("customerPhone", String.class);
+            response.setCustomerPhone(phone != null ? phone : "");
+        }
+        if (fields.needsItems()) {
+            response.setItems(new ArrayList<>());
+        }
+        return response;
+    }
+
+    private void loadItems(Map<String, OrderResponse> responses) {
+        List<String> orderIds = new ArrayList<>(responses.keySet());
+        Map<String, List<OrderResponse.OrderItemResponse>> itemsByOrder = new HashMap<>();
+        for (int from = 0; from < orderIds.size(); from += IN_LIST_BATCH_SIZE) {
+            List<String> batch = orderIds.subList(from, Math.min(from + IN_LIST_BATCH_SIZE, orderIds.size()));
+            List<Object[]> rows = entityManager.createQuery(
+                            "SELECT oi.order.id, m.name, oi.quantity, oi.unitPrice, oi.totalPrice "
+                                    + "FROM OrderItem oi LEFT JOIN oi.menuItem m "
+                                    + "WHERE oi.order.id IN :orderIds ORDER BY oi.id", Object[].class)
+                    .setParameter("orderIds", batch)
+                    .getResultList();
+            for (Object[] row : rows) {
+                itemsByOrder.computeIfAbsent((String) row[0], id -> new ArrayList<>())
+                        .add(new OrderResponse.OrderItemResponse(
+                                row[1] != null ? (String) row[1] : "",
+                                (Integer) row[2],
+                                (BigDecimal) row[3],
+                                (BigDecimal) row[4]));
+            }
+        }
+        itemsByOrder.forEach((orderId, items) -> responses.get(orderId).setItems(items));
+    }
+}
@@ -0,0 +1,380 @@
+package com.restaurant.service;
+
+import com.restaurant.dto.OrderFields;
+import com.restaurant.dto.OrderResponse;
+import com.restaurant.dto.SyncChanges;
+import com.restaurant.entity.Customer;
+import com.restaurant.entity.MenuItem;
+import com.restaurant.repository.CustomerRepository;
+import com.restaurant.repository.MenuItemRepository;
+import com.restaurant.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Change feed behind the POS delta-sync endpoint.
+ * Writers append a row to {@code sync_changes} inside their own transaction, so the feed commits
+ * or rolls back with the change it describes. Readers page through the feed by its primary key
+ * and load only the entities that changed.
+ * <p>
+ * Sequence numbers are allocated at insert time but become visible at commit, so a change from
+ * a still-running transaction can appear behind a higher, already committed one. A gap in the
+ * sequence is such a seq, or one whose transaction rolled back and will never appear. Writers must
+ * commit within {@code app.sync.max-writer-millis} of their first feed entry (enforced before
+ * commit), so once the entry after a gap is older than twice that limit the gap is permanent.
+ * Readers only move their cursor through the prefix without open gaps ({@link #contiguousThrough});
+ * {@link OrderReadModel} tails the feed the same way.
+ */
+@Service
+public class ChangeFeedService {
+
+    public static final String ORDER = "ORDER";
+    public static final String MENU_ITEM = "MENU_ITEM";
+    public static final String CUSTOMER = "CUSTOMER";
+
+    static final String UPSERT = "UPSERT";
+    static final String DELETE = "DELETE";
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+    // Covers the commit itself after the before-commit check, and clock drift between app instances
+    private static final long COMMIT_SLACK_MILLIS = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO sync_changes (entity_type, entity_id, operation, changed_at) VALUES (?, ?, ?, ?)";
+    private static final String ENTRIES_SQL =
+            "SELECT seq, entity_type, entity_id, operation, changed_at FROM sync_changes "
+                    + "WHERE seq > ? ORDER BY seq FETCH FIRST ? ROWS ONLY";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final OrderRepository orderRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final CustomerRepository customerRepository;
+    private final long maxWriterMillis;
+    private final int retentionDays;
+    private final int maxPageSize;
+    // Transaction resource marking that the writer-time check is registered
+    private final Object writerKey = new Object();
+
+    /**
+     * One row of {@code sync_changes}.
+     */
+    public record FeedEntry(long seq, String entityType, String entityId, String operation, Timestamp changedAt) {
+    }
+
+    @Autowired
+    public ChangeFeedService(JdbcTemplate jdbcTemplate,
+                             NamedParameterJdbcTemplate namedJdbcTemplate,
+                             OrderRepository orderRepository,
+                             MenuItemRepository menuItemRepository,
+                             CustomerRepository customerRepository,
+                             @Value("${app.sync.max-writer-millis:10000}") long maxWriterMillis,
+                             @Value("${app.sync.retention-days:30}") int retentionDays,
+                             @Value("${app.sync.max-page-size:1000}") int maxPageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.orderRepository = orderRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.customerRepository = customerRepository;
+        this.maxWriterMillis = maxWriterMillis;
+        this.retentionDays = retentionDays;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Records an insert or update of one entity.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUpsert(String entityType, Object entityId) {
+        limitWriterTime();
+        jdbcTemplate.update(INSERT_SQL, entityType, String.valueOf(entityId), UPSERT, now());
+    }
+
+    /**
+     * Records inserts or updates for a batch of entities.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUpserts(String entityType, Collection<?> entityIds) {
+        recordBatch(entityType, entityIds, UPSERT);
+    }
+
+    /**
+     * Records deletes (tombstones) for a batch of entities.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletes(String entityType, Collection<?> entityIds) {
+        recordBatch(entityType, entityIds, DELETE);
+    }
+
+    private void recordBatch(String entityType, Collection<?> entityIds, String operation) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        limitWriterTime();
+        Timestamp now = now();
+        List<Object[]> rows = new ArrayList<>(entityIds.size());
+        for (Object id : entityIds) {
+            rows.add(new Object[]{entityType, String.valueOf(id), operation, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Rejects the commit of a transaction that took longer than {@code app.sync.max-writer-millis}
+     * from its first feed entry, so readers can tell when a gap before a visible entry is permanent.
+     */
+    private void limitWriterTime() {
+        if (maxWriterMillis <= 0 || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(writerKey)) {
+            return;
+        }
+        long firstEntry = System.nanoTime();
+        TransactionSynchronizationManager.bindResource(writerKey, firstEntry);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                long elapsedMillis = (System.nanoTime() - firstEntry) / 1_000_000;
+                if (elapsedMillis > maxWriterMillis) {
+                    throw new IllegalStateException("Transaction committed " + elapsedMillis
+                            + " ms after its first change feed entry, over app.sync.max-writer-millis="
+                            + maxWriterMillis + "; rolling back");
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writerKey);
+            }
+        });
+    }
+
+    /**
+     * Records tombstones for every order of a customer with one set-based statement.
+     * Must run before the orders are deleted.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrderDeletesForCustomer(Long customerId) {
+        limitWriterTime();
+        jdbcTemplate.update("INSERT INTO sync_changes (entity_type, entity_id, operation, changed_at) "
+                + "SELECT '" + ORDER + "', id, '" + DELETE + "', ? FROM orders WHERE customer_id = ?",
+                now(), customerId);
+    }
+
+    /**
+     * Records upserts for the customers with the given emails, for bulk writes that do not
+     * know the generated ids.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCustomerUpsertsByEmail(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        List<Long> ids = namedJdbcTemplate.queryForList("SELECT id FROM customers WHERE email IN (:emails)",
+                new MapSqlParameterSource("emails", emails), Long.class);
+        recordUpserts(CUSTOMER, ids);
+    }
+
+    /**
+     * Returns the changes after {@code since}, at most {@code limit} feed entries. Several entries
+     * for the same entity collapse into one: its current state, or a tombstone if it no longer exists.
+     * The page ends at the first gap a running writer may still fill, and the cursor stays there
+     * until the gap fills or expires.
+     * @throws ResponseStatusException 410 if the cursor predates the retained history
+     */
+    @Transactional(readOnly = true)
+    public SyncChanges getChanges(long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+        Long prunedThrough = jdbcTemplate.queryForObject(
+                "SELECT pruned_through FROM sync_retention WHERE id = 1", Long.class);
+        if (prunedThrough != null && since < prunedThrough) {
+            throw new ResponseStatusException(HttpStatus.GONE,
+                    "Cursor " + since + " is older than the retained change history; perform a full sync");
+        }
+
+        List<FeedEntry> entries = readEntries(since, limit);
+        long cursor = contiguousThrough(since, entries);
+        // Last operation per entity wins; insertion order keeps the feed order of first appearance
+        Map<String, Map<String, String>> latest = new LinkedHashMap<>();
+        latest.put(ORDER, new LinkedHashMap<>());
+        latest.put(MENU_ITEM, new LinkedHashMap<>());
+        latest.put(CUSTOMER, new LinkedHashMap<>());
+        for (FeedEntry entry : entries) {
+            if (entry.seq() > cursor) {
+                break;
+            }
+            Map<String, String> byId = latest.get(entry.entityType());
+            if (byId != null) {
+                byId.put(entry.entityId(), entry.operation());
+            }
+        }
+
+        SyncChanges changes = new SyncChanges();
+        changes.setCursor(cursor);
+        changes.setHasMore(entries.size() == limit && cursor == entries.get(entries.size() - 1).seq());
+
+        Set<String> orderIds = upserted(latest.get(ORDER));
+        changes.setOrders(orderRepository.findOrderViewsByIds(orderIds, OrderFields.ALL));
+        Set<String> foundOrders = changes.getOrders().stream().map(OrderResponse::getId).collect(Collectors.toSet());
+        latest.get(ORDER).forEach((id, op) -> {
+            if (DELETE.equals(op) || !foundOrders.contains(id)) {
+                changes.getDeleted().getOrders().add(id);
+            }
+        });
+
+        Set<Long> menuItemIds = toLongs(upserted(latest.get(MENU_ITEM)));
+        changes.setMenuItems(menuItemRepository.findAllById(menuItemIds));
+        Set<Long> foundMenuItems = changes.getMenuItems().stream().map(MenuItem::getId).collect(Collectors.toSet());
+        latest.get(MENU_ITEM).forEach((id, op) -> {
+            Long menuItemId = Long.valueOf(id);
+            if (DELETE.equals(op) || !foundMenuItems.contains(menuItemId)) {
+                changes.getDeleted().getMenuItems().add(menuItemId);
+            }
+        });
+
+        Set<Long> customerIds = toLongs(upserted(latest.get(CUSTOMER)));
+        changes.setCustomers(customerRepository.findAllById(customerIds));
+        Set<Long> foundCustomers = changes.getCustomers().stream().map(Customer::getId).collect(Collectors.toSet());
+        latest.get(CUSTOMER).forEach((id, op) -> {
+            Long customerId = Long.valueOf(id);
+            if (DELETE.equals(op) || !foundCustomers.contains(customerId)) {
+                changes.getDeleted().getCustomers().add(customerId);
+            }
+        });
+        return changes;
+    }
+
+    /**
+     * Reads up to {@code limit} feed entries after {@code after}, in seq order, gaps included.
+     */
+    public List<FeedEntry> readEntries(long after, int limit) {
+        return jdbcTemplate.query(ENTRIES_SQL, (rs, rowNum) -> new FeedEntry(rs.getLong("seq"),
+                rs.getString("entity_type"), rs.getString("entity_id"), rs.getString("operation"),
+                rs.getTimestamp("changed_at")), after, limit);
+    }
+
+    /**
+     * The highest seq of {@code entries} (read after {@code after}, in seq order) that a reader can
+     * move past: every lower seq is either in the list or a gap that can no longer fill.
+     */
+    public long contiguousThrough(long after, List<FeedEntry> entries) {
+        Timestamp gapsExpireBefore = gapsExpireBefore();
+        long through = after;
+        for (FeedEntry entry : entries) {
+            if (entry.seq() != through + 1 && entry.changedAt().after(gapsExpireBefore)) {
+                // A writer that allocated a seq in the gap may still commit
+                break;
+            }
+            through = entry.seq();
+        }
+        return through;
+    }
+
+    /**
+     * The highest seq below which no entry can still commit. Only gaps followed by an entry newer
+     * than the gap expiry can hold it back, so only the recent tail of the feed is read.
+     */
+    public long committedThrough() {
+        Timestamp gapsExpireBefore = gapsExpireBefore();
+        Long firstRecent = jdbcTemplate.queryForObject(
+                "SELECT MIN(seq) FROM sync_changes WHERE changed_at > ?", Long.class, gapsExpireBefore);
+        if (firstRecent == null) {
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(seq) FROM sync_changes", Long.class);
+            return max != null ? max : prunedThrough();
+        }
+        Long before = jdbcTemplate.queryForObject(
+                "SELECT MAX(seq) FROM sync_changes WHERE seq < ?", Long.class, firstRecent);
+        long through = before != null ? before : prunedThrough();
+        List<FeedEntry> page;
+        do {
+            page = readEntries(through, maxPageSize);
+            long next = contiguousThrough(through, page);
+            if (page.isEmpty() || next != page.get(page.size() - 1).seq()) {
+                return next;
+            }
+            through = next;
+        } while (page.size() == maxPageSize);
+        return through;
+    }
+
+    private Timestamp gapsExpireBefore() {
+        long holdMillis = maxWriterMillis > 0 ? 2 * maxWriterMillis + COMMIT_SLACK_MILLIS : 0;
+        return Timestamp.valueOf(LocalDateTime.now().minusNanos(holdMillis * 1_000_000));
+    }
+
+    private long prunedThrough() {
+        Long prunedThrough = jdbcTemplate.queryForObject(
+                "SELECT pruned_through FROM sync_retention WHERE id = 1", Long.class);
+        return prunedThrough != null ? prunedThrough : 0;
+    }
+
+    /**
+     * The latest sequence number below which every entry has committed. Clients read it before a
+     * full download and sync from it afterwards, so changes made during the download are replayed.
+     */
+    public long currentCursor() {
+        return committedThrough();
+    }
+
+    /**
+     * Drops feed entries older than {@code app.sync.retention-days} and remembers the highest
+     * pruned sequence so older cursors are told to resync in full.
+     */
+    @Scheduled(cron = "${app.sync.prune-cron:0 30 3 * * *}")
+    @Transactional
+    public void pruneHistory() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(retentionDays));
+        Long maxSeq = jdbcTemplate.queryForObject(
+                "SELECT MAX(seq) FROM sync_changes WHERE changed_at < ?", Long.class, cutoff);
+        if (maxSeq == null) {
+            return;
+        }
+        int deleted = jdbcTemplate.update("DELETE FROM sync_changes WHERE seq <= ?", maxSeq);
+        jdbcTemplate.update("UPDATE sync_retention SET pruned_through = ? WHERE id = 1 AND pruned_through < ?",
+                maxSeq, maxSeq);
+        logger.info("Pruned {} change feed entries up to seq {}", deleted, maxSeq);
+    }
+
+    private static Set<String> upserted(Map<String, String> operations) {
+        return operations.entrySet().stream()
+                .filter(entry -> UPSERT.equals(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static Set<Long> toLongs(Set<String> ids) {
+        return ids.stream().map(Long::valueOf).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
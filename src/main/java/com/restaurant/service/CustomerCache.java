@@ -0,0 +1,124 @@
+package com.restaurant.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.restaurant.entity.Customer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicting customer cache keyed by id, with a secondary phone number index.
+ * Entries are immutable snapshots and every lookup returns a fresh detached {@link Customer}, so
+ * callers may modify what they get without affecting other requests. Misses load through
+ * {@link Cache#get}, and writers {@link #evict} after committing instead of storing their copy:
+ * an eviction waits for a load of the same id that is in flight, so a value read before the
+ * write cannot be stored after it.
+ * Hit/miss/eviction counts are published as {@code cache.*} meters and a
+ * {@code customers.cache.hit.ratio} gauge.
+ */
+@Component
+public class CustomerCache {
+
+    static final String BY_ID = "customers.byId";
+    static final String BY_PHONE = "customers.byPhone";
+
+    private record CachedCustomer(Long id, String name, String email, String phoneNumber, LocalDateTime createdAt) {
+
+        static CachedCustomer of(Customer customer) {
+            return new CachedCustomer(customer.getId(), customer.getName(), customer.getEmail(),
+                    customer.getPhoneNumber(), customer.getCreatedAt());
+        }
+
+        Customer toCustomer() {
+            return new Customer(id, name, email, phoneNumber, createdAt,
+                    Customer.emailKey(email), Customer.phoneKey(phoneNumber));
+        }
+    }
+
+    private final Cache<Long, CachedCustomer> byId;
+    private final Cache<String, Long> idByPhone;
+
+    @Autowired
+    public CustomerCache(MeterRegistry meterRegistry,
+                         @Value("${app.customers.cache.max-size:10000}") long maxSize,
+                         @Value("${app.customers.cache.ttl-seconds:300}") long ttlSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.idByPhone = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, BY_ID);
+        CaffeineCacheMetrics.monitor(meterRegistry, idByPhone, BY_PHONE);
+        Gauge.builder("customers.cache.hit.ratio", byId, cache -> cache.stats().hitRate())
+                .tag("cache", BY_ID)
+                .description("Hit ratio of the customer-by-id cache")
+                .register(meterRegistry);
+        Gauge.builder("customers.cache.hit.ratio", idByPhone, cache -> cache.stats().hitRate())
+                .tag("cache", BY_PHONE)
+                .description("Hit ratio of the customer phone number index")
+                .register(meterRegistry);
+    }
+
+    public Optional<Customer> getById(Long id, Function<Long, Optional<Customer>> loader) {
+        CachedCustomer cached = byId.get(id, key -> loader.apply(key).map(CachedCustomer::of).orElse(null));
+        return Optional.ofNullable(cached).map(CachedCustomer::toCustomer);
+    }
+
+    public Optional<Customer> getByPhone(String phoneNumber, Function<String, Optional<Customer>> loader) {
+        CachedCustomer[] loaded = new CachedCustomer[1];
+        Long id = idByPhone.get(phoneNumber, phone -> loader.apply(phone).map(customer -> {
+            loaded[0] = CachedCustomer.of(customer);
+            return customer.getId();
+        }).orElse(null));
+        if (id == null) {
+            return Optional.empty();
+        }
+        CachedCustomer cached = loaded[0] != null ? byId.get(id, key -> loaded[0]) : byId.getIfPresent(id);
+        if (cached != null && phoneNumber.equals(cached.phoneNumber())) {
+            return Optional.of(cached.toCustomer());
+        }
+        if (loaded[0] != null) {
+            // Just read by this phone number; the id entry still has the customer's old one
+            byId.invalidate(id);
+            return Optional.of(loaded[0].toCustomer());
+        }
+        // The index outlived the entry it points to, or points to a customer whose phone changed
+        idByPhone.invalidate(phoneNumber);
+        return getByPhone(phoneNumber, loader);
+    }
+
+    /**
+     * Drops a customer after a write has committed, including the phone number it was cached under.
+     */
+    public void evict(Long id) {
+        CachedCustomer previous = byId.asMap().remove(id);
+        if (previous != null && previous.phoneNumber() != null) {
+            idByPhone.invalidate(previous.phoneNumber());
+        }
+    }
+
+    public void evictAll() {
+        byId.invalidateAll();
+        idByPhone.invalidateAll();
+    }
+
+    public long size() {
+        return byId.estimatedSize();
+    }
+}
@@ -0,0 +1,401 @@
+package com.restaurant.service;
+
+import com.restaurant.dto.CustomerImportResult;
+import com.restaurant.entity.Customer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Streams a CSV of customers into the database.
+ * Rows are validated as they are read, then processed in chunks: each chunk is matched against
+ * existing customers with one query and written with JDBC batch statements inside its own
+ * transaction.
+ * <p>
+ * Values are stored as given (trimmed), like customers created through the API, so
+ * {@code GET /api/customers/phone/{phoneNumber}} finds imported customers by the number as entered.
+ * Matching ignores formatting on both sides: emails compare case-insensitively and phone numbers
+ * by their digits (and leading '+'), so "555-123-4567" in the file updates the customer stored as
+ * "(555) 123 4567" instead of colliding with {@code uk_customers_phone}. Both sides are compared
+ * through the indexed {@code email_key} and {@code phone_key} columns ({@link Customer#emailKey},
+ * {@link Customer#phoneKey}); rows stored before those columns existed are keyed on startup.
+ */
+@Service
+public class CustomerImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerImportService.class);
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    private static final String INSERT_SQL = "INSERT INTO customers "
+            + "(name, email, phone_number, created_at, email_key, phone_key) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL =
+            "UPDATE customers SET name = ?, email = ?, phone_number = ?, email_key = ?, phone_key = ? WHERE id = ?";
+    private static final String EXISTING_SQL = "SELECT id, email_key, phone_key FROM customers "
+            + "WHERE email_key IN (:emails) OR phone_key IN (:phones)";
+    private static final String UNKEYED_SQL =
+            "SELECT id, email, phone_number FROM customers WHERE email_key IS NULL ORDER BY id FETCH FIRST ? ROWS ONLY";
+    private static final String SET_KEYS_SQL = "UPDATE customers SET email_key = ?, phone_key = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomerService customerService;
+    private final ChangeFeedService changeFeedService;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    @Autowired
+    public CustomerImportService(JdbcTemplate jdbcTemplate,
+                                 NamedParameterJdbcTemplate namedJdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 CustomerService customerService,
+                                 ChangeFeedService changeFeedService,
+                                 @Value("${app.customers.import.chunk-size:1000}") int chunkSize,
+                                 @Value("${app.customers.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.customerService = customerService;
+        this.changeFeedService = changeFeedService;
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Fills the matching keys of customers stored without them (before the columns existed, or
+     * written by other tools), one chunk per transaction.
+     * @return the number of customers keyed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int backfillMatchKeys() {
+        int keyed = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                List<Object[]> keys = jdbcTemplate.query(UNKEYED_SQL, (rs, rowNum) -> new Object[]{
+                        Customer.emailKey(rs.getString("email")), Customer.phoneKey(rs.getString("phone_number")),
+                        rs.getLong("id")}, chunkSize);
+                if (!keys.isEmpty()) {
+                    jdbcTemplate.batchUpdate(SET_KEYS_SQL, keys);
+                }
+                return keys.size();
+            });
+            keyed += batch;
+        } while (batch == chunkSize);
+        if (keyed > 0) {
+            logger.info("Filled the matching keys of {} customers", keyed);
+        }
+        return keyed;
+    }
+
+    /**
+     * Imports customers from a CSV stream with a header row containing {@code name}, {@code email}
+     * and {@code phoneNumber} (or {@code phone} / {@code phone_number}) columns.
+     * Existing customers matched by email (ignoring case) or phone number (ignoring formatting) are
+     * updated, everything else is inserted.
+     */
+    public CustomerImportResult importCsv(InputStream input) throws IOException {
+        long started = System.currentTimeMillis();
+        CustomerImportResult result = new CustomerImportResult();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV file is empty");
+            }
+            int[] columns = resolveColumns(parseLine(stripBom(headerLine)));
+
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            String line;
+            long lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.setRowsRead(result.getRowsRead() + 1);
+                ImportRow row = toRow(lineNumber, parseLine(line), columns, result);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() >= chunkSize) {
+                    processChunk(chunk, result);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, result);
+            }
+        } finally {
+            customerService.invalidateCaches();
+        }
+
+        result.setDurationMillis(System.currentTimeMillis() - started);
+        logger.info("Customer import finished: {} rows read, {} inserted, {} updated, {} skipped, {} failed in {} ms",
+                result.getRowsRead(), result.getInserted(), result.getUpdated(),
+                result.getSkipped(), result.getFailed(), result.getDurationMillis());
+        return result;
+    }
+
+    private void processChunk(List<ImportRow> chunk, CustomerImportResult result) {
+        // Later rows win when the same email or phone number appears twice in one chunk
+        Map<String, ImportRow> byEmail = new HashMap<>();
+        Map<String, ImportRow> byPhone = new HashMap<>();
+        List<ImportRow> unique = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            ImportRow sameEmail = byEmail.get(row.emailKey);
+            ImportRow samePhone = byPhone.get(row.phoneKey);
+            supersede(sameEmail, byEmail, byPhone, result);
+            if (samePhone != sameEmail) {
+                supersede(samePhone, byEmail, byPhone, result);
+            }
+            byEmail.put(row.emailKey, row);
+            byPhone.put(row.phoneKey, row);
+            unique.add(row);
+        }
+
+        ChunkOutcome outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> writeChunk(unique, byEmail.keySet(), byPhone.keySet()));
+        } catch (RuntimeException e) {
+            logger.warn("Customer import chunk starting at line {} failed: {}", chunk.get(0).line, e.getMessage());
+            for (ImportRow row : unique) {
+                if (!row.skipped) {
+                    addError(result, row.line, "Chunk rolled back: " + e.getMessage());
+                }
+            }
+            return;
+        }
+        result.setInserted(result.getInserted() + outcome.inserted);
+        result.setUpdated(result.getUpdated() + outcome.updated);
+        for (CustomerImportResult.RowError error : outcome.errors) {
+            addError(result, error.getLine(), error.getMessage());
+        }
+    }
+
+    private void supersede(ImportRow previous, Map<String, ImportRow> byEmail,
+                           Map<String, ImportRow> byPhone, CustomerImportResult result) {
+        if (previous == null) {
+            return;
+        }
+        previous.skipped = true;
+        result.setSkipped(result.getSkipped() + 1);
+        byEmail.remove(previous.emailKey);
+        byPhone.remove(previous.phoneKey);
+    }
+
+    private ChunkOutcome writeChunk(List<ImportRow> rows, Set<String> emails, Set<String> phones) {
+        Map<String, Long> idByEmail = new HashMap<>();
+        Map<String, Long> idByPhone = new HashMap<>();
+        // Keys shared by several existing customers (stored before matching ignored formatting)
+        Set<String> ambiguous = new HashSet<>();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("emails", emails)
+                .addValue("phones", phones);
+        namedJdbcTemplate.query(EXISTING_SQL, params, rs -> {
+            long id = rs.getLong("id");
+            String emailKey = rs.getString("email_key");
+            if (emailKey != null) {
+                putKey(idByEmail, ambiguous, emailKey, id);
+            }
+            String phoneKey = rs.getString("phone_key");
+            if (phoneKey != null) {
+                putKey(idByPhone, ambiguous, phoneKey, id);
+            }
+        });
+
+        ChunkOutcome outcome = new ChunkOutcome();
+        List<Object[]> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        Set<Long> updatedIds = new HashSet<>();
+        List<String> writtenEmails = new ArrayList<>();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        for (ImportRow row : rows) {
+            if (row.skipped) {
+                continue;
+            }
+            Long emailOwner = idByEmail.get(row.emailKey);
+            Long phoneOwner = idByPhone.get(row.phoneKey);
+            if (ambiguous.contains(row.emailKey) || ambiguous.contains(row.phoneKey)) {
+                outcome.errors.add(new CustomerImportResult.RowError(row.line,
+                        "Email or phone number matches several existing customers"));
+            } else if (emailOwner != null && phoneOwner != null && !emailOwner.equals(phoneOwner)) {
+                outcome.errors.add(new CustomerImportResult.RowError(row.line,
+                        "Email and phone number belong to different existing customers"));
+            } else if (emailOwner == null && phoneOwner == null) {
+                inserts.add(new Object[]{row.name, row.email, row.phoneNumber, now, row.emailKey, row.phoneKey});
+                writtenEmails.add(row.email);
+            } else {
+                Long id = emailOwner != null ? emailOwner : phoneOwner;
+                if (updatedIds.add(id)) {
+                    updates.add(new Object[]{row.name, row.email, row.phoneNumber, row.emailKey, row.phoneKey, id});
+                    writtenEmails.add(row.email);
+                } else {
+                    outcome.errors.add(new CustomerImportResult.RowError(row.line,
+                            "Another row in the same chunk already updates customer " + id));
+                }
+            }
+        }
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts);
+        }
+        changeFeedService.recordCustomerUpsertsByEmail(writtenEmails);
+        outcome.inserted = inserts.size();
+        outcome.updated = updates.size();
+        return outcome;
+    }
+
+    private static void putKey(Map<String, Long> ids, Set<String> ambiguous, String key, long id) {
+        Long previous = ids.put(key, id);
+        if (previous != null && previous != id) {
+            ambiguous.add(key);
+        }
+    }
+
+    private ImportRow toRow(long line, List<String> values, int[] columns, CustomerImportResult result) {
+        String name = valueAt(values, columns[0]);
+        String email = valueAt(values, columns[1]);
+        String phone = valueAt(values, columns[2]);
+        String phoneKey = Customer.phoneKey(phone);
+
+        if (name.isEmpty()) {
+            addError(result, line, "Name is required");
+            return null;
+        }
+        if (email.isEmpty() || !EMAIL_PATTERN.matcher(email).matches()) {
+            addError(result, line, "Email should be valid");
+            return null;
+        }
+        if (phoneKey == null || phone.length() > Customer.MAX_PHONE_LENGTH) {
+            addError(result, line, "Phone number is required, must contain at least " + Customer.MIN_PHONE_DIGITS
+                    + " digits and may be at most " + Customer.MAX_PHONE_LENGTH + " characters");
+            return null;
+        }
+        return new ImportRow(line, name, email, phone, Customer.emailKey(email), phoneKey);
+    }
+
+    private void addError(CustomerImportResult result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new CustomerImportResult.RowError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    /**
+     * Splits one CSV line following RFC 4180 quoting (quoted fields, doubled quotes).
+     * Embedded line breaks inside quoted fields are not supported.
+     */
+    static List<String> parseLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (inQuotes) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    private static int[] resolveColumns(List<String> header) {
+        int[] columns = {-1, -1, -1};
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).toLowerCase(Locale.ROOT).replace("_", "");
+            switch (column) {
+                case "name" -> columns[0] = i;
+                case "email" -> columns[1] = i;
+                case "phonenumber", "phone" -> columns[2] = i;
+                default -> { }
+            }
+        }
+        if (columns[0] < 0 || columns[1] < 0 || columns[2] < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "CSV header must contain name, email and phoneNumber columns");
+        }
+        return columns;
+    }
+
+    private static String valueAt(List<String> values, int index) {
+        return index < values.size() ? values.get(index) : "";
+    }
+
+    private static String stripBom(String line) {
+        return !line.isEmpty() && line.charAt(0) == '\uFEFF' ? line.substring(1) : line;
+    }
+
+    private static final class ChunkOutcome {
+        private int inserted;
+        private int updated;
+        private final List<CustomerImportResult.RowError> errors = new ArrayList<>();
+    }
+
+    private static final class ImportRow {
+        private final long line;
+        private final String name;
+        private final String email;
+        private final String phoneNumber;
+        private final String emailKey;
+        private final String phoneKey;
+        private boolean skipped;
+
+        private ImportRow(long line, String name, String email, String phoneNumber, String emailKey, String phoneKey) {
+            this.line = line;
+            this.name = name;
+            this.email = email;
+            this.phoneNumber = phoneNumber;
+            this.emailKey = emailKey;
+            this.phoneKey = phoneKey;
+        }
+    }
+}
@@ -1,51 +1,216 @@
 package com.restaurant.service;
 
+import com.restaurant.dto.CustomerListItem;
 import com.restaurant.entity.Customer;
 import com.restaurant.repository.CustomerRepository;
+import com.restaurant.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class CustomerService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CustomerService.class);
+
     private final CustomerRepository customerRepository;
+    private final OrderRepository orderRepository;
+    private final CustomerCache customerCache;
+    private final CustomerSummaryService customerSummaryService;
+    private final ChangeFeedService changeFeedService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final long countTtlMillis;
+    private final int deleteChunkSize;
+
+    // Cached total for the paged listing; -1 means "not computed yet / invalidated"
+    private volatile long cachedCount = -1;
+    private volatile long cachedCountAt;
+    // Bumped on every invalidation, so a count read before a write is not cached after it
+    private final Object countLock = new Object();
+    private long countGeneration;
 
     @Autowired
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(CustomerRepository customerRepository,
+                           OrderRepository orderRepository,
+                           CustomerCache customerCache,
+                           CustomerSummaryService customerSummaryService,
+                           ChangeFeedService changeFeedService,
+                           TransactionTemplate transactionTemplate,
+                           EntityManagerFactory entityManagerFactory,
+                           @Value("${app.customers.count-cache-ttl-ms:30000}") long countTtlMillis,
+                           @Value("${app.customers.delete.chunk-size:1000}") int deleteChunkSize) {
         this.customerRepository = customerRepository;
+        this.orderRepository = orderRepository;
+        this.customerCache = customerCache;
+        this.customerSummaryService = customerSummaryService;
+        this.changeFeedService = changeFeedService;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.countTtlMillis = countTtlMillis;
+        this.deleteChunkSize = deleteChunkSize;
     }
 
     public Customer saveCustomer(Customer customer) {
-        return customerRepository.save(customer);
+        Customer saved = transactionTemplate.execute(status -> {
+            Customer result = customerRepository.save(customer);
+            changeFeedService.recordUpsert(ChangeFeedService.CUSTOMER, result.getId());
+            return result;
+        });
+        customerCache.evict(saved.getId());
+        invalidateCount();
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public Optional<Customer> getCustomerById(Long id) {
-        return customerRepository.findById(id);
+        return customerCache.getById(id, customerRepository::findById);
     }
 
+    @Transactional(readOnly = true)
     public Optional<Customer> getCustomerByEmail(String email) {
         return customerRepository.findByEmail(email);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Customer> getCustomerByPhone(String phoneNumber) {
-        return customerRepository.findByPhoneNumber(phoneNumber);
+        return customerCache.getByPhone(phoneNumber, customerRepository::findByPhoneNumber);
+    }
+
+    /**
+     * Offset-based page of customers ordered by id, reading only the selected fields.
+     * No COUNT query is issued.
+     */
+    @Transactional(readOnly = true)
+    public Slice<CustomerListItem> getCustomerPage(int page, int size, Set<String> fields) {
+        return customerRepository.findCustomerViews(null, PageRequest.of(page, size), fields);
+    }
+
+    /**
+     * Keyset page of customers whose id is greater than {@code afterId}, ordered by id and reading
+     * only the selected fields. Cost does not grow with how deep into the list the client is.
+     */
+    @Transactional(readOnly = true)
+    public Slice<CustomerListItem> getCustomersAfter(Long afterId, int size, Set<String> fields) {
+        return customerRepository.findCustomerViews(afterId, PageRequest.of(0, size), fields);
+    }
+
+    /**
+     * Total number of customers, cached for {@code app.customers.count-cache-ttl-ms}
+     * and invalidated on save or delete. A count that raced with a save or delete is returned
+     * but not cached.
+     */
+    @Transactional(readOnly = true)
+    public long countCustomers() {
+        long now = System.currentTimeMillis();
+        long count = cachedCount;
+        if (count < 0 || now - cachedCountAt > countTtlMillis) {
+            long generation;
+            synchronized (countLock) {
+                generation = countGeneration;
+            }
+            count = customerRepository.count();
+            synchronized (countLock) {
+                if (countGeneration == generation) {
+                    cachedCountAt = now;
+                    cachedCount = count;
+                }
+            }
+        }
+        return count;
     }
 
-    public List<Customer> getAllCustomers() {
-        return customerRepository.findAll();
+    @Transactional(readOnly = true)
+    public boolean hasCustomers() {
+        return customerRepository.existsByIdIsNotNull();
     }
 
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return customerRepository.existsByEmail(email);
     }
     
+    @Transactional(readOnly = true)
     public boolean existsByPhoneNumber(String phoneNumber) {
         return customerRepository.existsByPhoneNumber(phoneNumber);
     }
 
-    public void deleteCustomer(Long id) {
-        customerRepository.deleteById(id);
+    /**
+     * Deletes a customer together with their orders and order items using bulk statements.
+     * Customers with up to {@code app.customers.delete.chunk-size} orders are removed in a single
+     * transaction; longer histories are purged chunk by chunk, each chunk in its own short
+     * transaction, before the customer row itself is deleted.
+     * @return the number of orders removed
+     */
+    public long deleteCustomer(Long id) {
+        long orderCount = orderRepository.countByCustomerId(id);
+        try {
+            if (orderCount <= deleteChunkSize) {
+                return deleteRemainingOrdersAndCustomer(id);
+            }
+
+            logger.info("Purging {} orders for customer {} in chunks of {}", orderCount, id, deleteChunkSize);
+            long purged = 0;
+            List<String> orderIds;
+            do {
+                orderIds = orderRepository.findIdsByCustomerId(id, PageRequest.of(0, deleteChunkSize));
+                List<String> chunk = orderIds;
+                if (!chunk.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        changeFeedService.recordDeletes(ChangeFeedService.ORDER, chunk);
+                        orderRepository.deleteOrderItemsByOrderIds(chunk);
+                        orderRepository.deleteByIdIn(chunk);
+                    });
+                    purged += chunk.size();
+                }
+            } while (orderIds.size() == deleteChunkSize);
+
+            // Also catches orders placed while the purge was running
+            return purged + deleteRemainingOrdersAndCustomer(id);
+        } finally {
+            customerCache.evict(id);
+            invalidateCount();
+        }
+    }
+
+    private long deleteRemainingOrdersAndCustomer(Long customerId) {
+        Integer deletedOrders = transactionTemplate.execute(status -> {
+            changeFeedService.recordOrderDeletesForCustomer(customerId);
+            changeFeedService.recordDeletes(ChangeFeedService.CUSTOMER, List.of(customerId));
+            orderRepository.deleteOrderItemsByCustomerId(customerId);
+            int orders = orderRepository.deleteByCustomerId(customerId);
+            customerSummaryService.deleteForCustomer(customerId);
+            customerRepository.deleteDirectlyById(customerId);
+            return orders;
+        });
+        return deletedOrders != null ? deletedOrders : 0;
+    }
+
+    /**
+     * Drops every cached customer and the cached count, for writes that bypass this service
+     * (bulk JDBC statements).
+     */
+    void invalidateCaches() {
+        customerCache.evictAll();
+        // Plain JDBC writes bypass Hibernate, so its second-level "customers" region is stale too
+        entityManagerFactory.getCache().evict(Customer.class);
+        invalidateCount();
+    }
+
+    private void invalidateCount() {
+        synchronized (countLock) {
+            countGeneration++;
+            cachedCount = -1;
+        }
     }
 }
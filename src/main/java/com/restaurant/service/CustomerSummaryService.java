@@ -0,0 +1,263 @@
+package com.restaurant.service;
+
+import com.restaurant.entity.CustomerSummary;
+import com.restaurant.entity.Order;
+import com.restaurant.entity.OrderItem;
+import com.restaurant.entity.OrderStatus;
+import com.restaurant.repository.CustomerItemStatRepository;
+import com.restaurant.repository.CustomerSummaryRepository;
+import com.restaurant.repository.OrderRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Maintains the {@link CustomerSummary} read model.
+ * Order creation and cancellation apply deltas with atomic UPDATE statements inside the caller's
+ * transaction, so a summary never disagrees with committed orders; {@link #rebuildAll()} recomputes
+ * every summary from the orders table with set-based statements.
+ * <p>
+ * A customer's first order creates the summary and stat rows. Two first orders can race for that,
+ * so a missing row is inserted empty in a way that tolerates a concurrent insert of the same key
+ * ({@code ON CONFLICT DO NOTHING} on PostgreSQL; on Derby, which only rolls back the failed
+ * statement, the duplicate-key error is ignored) before the delta is applied with the same UPDATE.
+ */
+@Service
+public class CustomerSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerSummaryService.class);
+    private static final PageRequest TOP_ONE = PageRequest.of(0, 1);
+
+    private final CustomerSummaryRepository summaryRepository;
+    private final CustomerItemStatRepository itemStatRepository;
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private volatile Boolean postgres;
+
+    @Autowired
+    public CustomerSummaryService(CustomerSummaryRepository summaryRepository,
+                                  CustomerItemStatRepository itemStatRepository,
+                                  OrderRepository orderRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.summaryRepository = summaryRepository;
+        this.itemStatRepository = itemStatRepository;
+        this.orderRepository = orderRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    public Optional<CustomerSummary> getSummary(Long customerId) {
+        return summaryRepository.findById(customerId);
+    }
+
+    /**
+     * Adds a newly created order to its customer's summary.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrder(Order order) {
+        Long customerId = order.getCustomer().getId();
+        LocalDateTime now = LocalDateTime.now();
+        if (summaryRepository.applyOrder(customerId, 1, order.getTotalAmount(), order.getCreatedAt(), now) == 0) {
+            insertIfAbsent("INSERT INTO customer_summaries (customer_id, order_count, lifetime_spend, updated_at) "
+                    + "VALUES (?, 0, 0, ?)", "customer_id", customerId, Timestamp.valueOf(now));
+            summaryRepository.applyOrder(customerId, 1, order.getTotalAmount(), order.getCreatedAt(), now);
+        }
+        applyItemQuantities(customerId, order, 1);
+        refreshFavourite(customerId);
+    }
+
+    /**
+     * Applies a status change. Only transitions into or out of CANCELLED affect the summary.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordStatusChange(Order order, OrderStatus previousStatus) {
+        boolean wasCancelled = previousStatus == OrderStatus.CANCELLED;
+        boolean isCancelled = order.getStatus() == OrderStatus.CANCELLED;
+        if (wasCancelled == isCancelled) {
+            return;
+        }
+        if (!isCancelled) {
+            recordOrder(order);
+            return;
+        }
+
+        Long customerId = order.getCustomer().getId();
+        // The cancelled order may have been the latest one; status is already CANCELLED in this transaction
+        LocalDateTime lastOrderAt = orderRepository.findLastOrderDateSince(
+                customerId, OrderStatus.CANCELLED, OrderPartitionService.currentPartitionsStart());
+        if (lastOrderAt == null) {
+            lastOrderAt = orderRepository.findLastOrderDate(customerId, OrderStatus.CANCELLED);
+        }
+        summaryRepository.applyCancellation(customerId, order.getTotalAmount(), lastOrderAt, LocalDateTime.now());
+        applyItemQuantities(customerId, order, -1);
+        refreshFavourite(customerId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteForCustomer(Long customerId) {
+        itemStatRepository.deleteByCustomerId(customerId);
+        summaryRepository.deleteByCustomerId(customerId);
+    }
+
+    /**
+     * Recomputes every summary from orders and order items. Runs on the
+     * {@code app.customers.summary.rebuild-cron} schedule when one is configured.
+     * @return the number of summaries written
+     */
+    @Scheduled(cron = "${app.customers.summary.rebuild-cron:-}")
+    @Transactional
+    public int rebuildAll() {
+        long started = System.currentTimeMillis();
+        jdbcTemplate.update("DELETE FROM customer_item_stats");
+        jdbcTemplate.update("INSERT INTO customer_item_stats (customer_id, menu_item_id, quantity) "
+                + "SELECT o.customer_id, oi.menu_item_id, SUM(oi.quantity) "
+                + "FROM orders o JOIN order_items oi ON oi.order_id = o.id "
+                + "WHERE o.status <> 'CANCELLED' GROUP BY o.customer_id, oi.menu_item_id");
+        jdbcTemplate.update("DELETE FROM customer_summaries");
+        int rows = jdbcTemplate.update("INSERT INTO customer_summaries "
+                + "(customer_id, order_count, lifetime_spend, last_order_at, updated_at) "
+                + "SELECT customer_id, COUNT(*), SUM(total_amount), MAX(created_at), CURRENT_TIMESTAMP "
+                + "FROM orders WHERE status <> 'CANCELLED' GROUP BY customer_id");
+        jdbcTemplate.update("UPDATE customer_summaries SET favourite_item_quantity = "
+                + "(SELECT MAX(st.quantity) FROM customer_item_stats st "
+                + "WHERE st.customer_id = customer_summaries.customer_id)");
+        jdbcTemplate.update("UPDATE customer_summaries SET favourite_menu_item_id = "
+                + "(SELECT MIN(st.menu_item_id) FROM customer_item_stats st "
+                + "WHERE st.customer_id = customer_summaries.customer_id "
+                + "AND st.quantity = customer_summaries.favourite_item_quantity)");
+        jdbcTemplate.update("UPDATE customer_summaries SET favourite_item_name = "
+                + "(SELECT m.name FROM menu_items m WHERE m.id = customer_summaries.favourite_menu_item_id)");
+        logger.info("Rebuilt {} customer summaries in {} ms", rows, System.currentTimeMillis() - started);
+        return rows;
+    }
+
+    /**
+     * Fills the summaries on startup when there are orders but no summaries yet, e.g. after an
+     * upgrade that introduced them or a restore of the orders alone.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        Long summaries = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM customer_summaries", Long.class);
+        if (summaries != null && summaries == 0) {
+            Integer orders = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM orders WHERE status <> 'CANCELLED'", Integer.class);
+            if (orders != null && orders > 0) {
+                logger.info("No customer summaries for {} orders, rebuilding", orders);
+                rebuildAll();
+            }
+        }
+    }
+
+    /**
+     * Recomputes the summaries of the given customers with the same set-based statements as
+     * {@link #rebuildAll()}, for bulk order writes that bypass {@link #recordOrder(Order)}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void rebuildForCustomers(Collection<Long> customerIds) {
+        if (customerIds.isEmpty()) {
+            return;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource("customerIds", customerIds);
+        namedJdbcTemplate.update("DELETE FROM customer_item_stats WHERE customer_id IN (:customerIds)", params);
+        namedJdbcTemplate.update("INSERT INTO customer_item_stats (customer_id, menu_item_id, quantity) "
+                + "SELECT o.customer_id, oi.menu_item_id, SUM(oi.quantity) "
+                + "FROM orders o JOIN order_items oi ON oi.order_id = o.id "
+                + "WHERE o.status <> 'CANCELLED' AND o.customer_id IN (:customerIds) "
+                + "GROUP BY o.customer_id, oi.menu_item_id", params);
+        namedJdbcTemplate.update("DELETE FROM customer_summaries WHERE customer_id IN (:customerIds)", params);
+        namedJdbcTemplate.update("INSERT INTO customer_summaries "
+                + "(customer_id, order_count, lifetime_spend, last_order_at, updated_at) "
+                + "SELECT customer_id, COUNT(*), SUM(total_amount), MAX(created_at), CURRENT_TIMESTAMP "
+                + "FROM orders WHERE status <> 'CANCELLED' AND customer_id IN (:customerIds) "
+                + "GROUP BY customer_id", params);
+        namedJdbcTemplate.update("UPDATE customer_summaries SET favourite_item_quantity = "
+                + "(SELECT MAX(st.quantity) FROM customer_item_stats st "
+                + "WHERE st.customer_id = customer_summaries.customer_id) "
+                + "WHERE customer_id IN (:customerIds)", params);
+        namedJdbcTemplate.update("UPDATE customer_summaries SET favourite_menu_item_id = "
+                + "(SELECT MIN(st.menu_item_id) FROM customer_item_stats st "
+                + "WHERE st.customer_id = customer_summaries.customer_id "
+                + "AND st.quantity = customer_summaries.favourite_item_quantity) "
+                + "WHERE customer_id IN (:customerIds)", params);
+        namedJdbcTemplate.update("UPDATE customer_summaries SET favourite_item_name = "
+                + "(SELECT m.name FROM menu_items m WHERE m.id = customer_summaries.favourite_menu_item_id) "
+                + "WHERE customer_id IN (:customerIds)", params);
+    }
+
+    private void applyItemQuantities(Long customerId, Order order, int sign) {
+        // Merge lines for the same menu item so each stat row is touched once
+        Map<Long, Long> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            quantities.merge(item.getMenuItem().getId(), (long) item.getQuantity(), Long::sum);
+        }
+        for (Map.Entry<Long, Long> entry : quantities.entrySet()) {
+            long delta = sign * entry.getValue();
+            int updated = itemStatRepository.addQuantity(customerId, entry.getKey(), delta);
+            if (updated == 0 && delta > 0) {
+                insertIfAbsent("INSERT INTO customer_item_stats (customer_id, menu_item_id, quantity) VALUES (?, ?, 0)",
+                        "customer_id, menu_item_id", customerId, entry.getKey());
+                itemStatRepository.addQuantity(customerId, entry.getKey(), delta);
+            }
+        }
+    }
+
+    /**
+     * Runs {@code insertSql} unless a row with the same {@code keyColumns} exists or is being
+     * inserted by a concurrent transaction, without failing the caller's transaction either way.
+     */
+    private void insertIfAbsent(String insertSql, String keyColumns, Object... args) {
+        if (isPostgres()) {
+            jdbcTemplate.update(insertSql + " ON CONFLICT (" + keyColumns + ") DO NOTHING", args);
+            return;
+        }
+        try {
+            jdbcTemplate.update(insertSql, args);
+        } catch (DuplicateKeyException e) {
+            logger.debug("Row for customer {} was created concurrently", args[0]);
+        }
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            result = product != null && product.toLowerCase().contains("postgres");
+            postgres = result;
+        }
+        return result;
+    }
+
+    private void refreshFavourite(Long customerId) {
+        List<Object[]> top = itemStatRepository.findTopItems(customerId, TOP_ONE);
+        if (top.isEmpty()) {
+            summaryRepository.updateFavourite(customerId, null, null, null);
+        } else {
+            Object[] row = top.get(0);
+            summaryRepository.updateFavourite(customerId, (Long) row[0], (String) row[1], (Long) row[2]);
+        }
+    }
+}
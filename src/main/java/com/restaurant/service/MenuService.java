@@ -4,6 +4,10 @@ import com.restaurant.entity.MenuItem;
 import com.restaurant.repository.MenuItemRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,38 +15,87 @@ import java.util.Optional;
 public class MenuService {
 
     private final MenuItemRepository menuItemRepository;
+    private final SingleFlight singleFlight;
+    private final ChangeFeedService changeFeedService;
 
     @Autowired
-    public MenuService(MenuItemRepository menuItemRepository) {
+    public MenuService(MenuItemRepository menuItemRepository, SingleFlight singleFlight,
+                       ChangeFeedService changeFeedService) {
         this.menuItemRepository = menuItemRepository;
+        this.singleFlight = singleFlight;
+        this.changeFeedService = changeFeedService;
+    }
+
+    /**
+     * What coalesced menu reads share: immutable values rather than the leader's entities, which
+     * belong to its persistence context. Every caller gets its own {@link MenuItem} copies.
+     */
+    private record MenuItemSnapshot(Long id, String name, String description, BigDecimal price,
+                                    String category, Boolean available) {
+
+        static List<MenuItemSnapshot> of(List<MenuItem> items) {
+            return items.stream()
+                    .map(item -> new MenuItemSnapshot(item.getId(), item.getName(), item.getDescription(),
+                            item.getPrice(), item.getCategory(), item.getAvailable()))
+                    .toList();
+        }
+
+        static List<MenuItem> copies(List<MenuItemSnapshot> snapshots) {
+            List<MenuItem> items = new ArrayList<>(snapshots.size());
+            for (MenuItemSnapshot snapshot : snapshots) {
+                items.add(new MenuItem(snapshot.id(), snapshot.name(), snapshot.description(), snapshot.price(),
+                        snapshot.category(), snapshot.available()));
+            }
+            return items;
+        }
     }
 
+    // Menu reads are coalesced: concurrent identical requests share one query
+
+    @Transactional(readOnly = true)
     public List<MenuItem> getAllMenuItems() {
-        return menuItemRepository.findByAvailableTrue();
+        return MenuItemSnapshot.copies(singleFlight.execute("menu.available", "all",
+                () -> MenuItemSnapshot.of(menuItemRepository.findByAvailableTrue())));
     }
 
+    @Transactional(readOnly = true)
     public List<MenuItem> getMenuItemsByCategory(String category) {
-        return menuItemRepository.findByCategoryAndAvailableTrue(category);
+        return MenuItemSnapshot.copies(singleFlight.execute("menu.category", category,
+                () -> MenuItemSnapshot.of(menuItemRepository.findByCategoryAndAvailableTrue(category))));
     }
 
+    @Transactional(readOnly = true)
     public List<String> getAllCategories() {
-        return menuItemRepository.findDistinctCategories();
+        return singleFlight.execute("menu.categories", "all",
+                () -> List.copyOf(menuItemRepository.findDistinctCategories()));
     }
     
+    @Transactional(readOnly = true)
+    public boolean hasMenuItems() {
+        return menuItemRepository.existsByIdIsNotNull();
+    }
+
+    @Transactional(readOnly = true)
     public Optional<MenuItem> getMenuItemByName(String name) {
         return menuItemRepository.findByNameIgnoreCase(name);
     }
 
+    @Transactional(readOnly = true)
     public Optional<MenuItem> getMenuItemById(Long id) {
         return menuItemRepository.findById(id)
                 .filter(MenuItem::getAvailable);
     }
 
+    @Transactional
     public MenuItem saveMenuItem(MenuItem menuItem) {
-        return menuItemRepository.save(menuItem);
+        MenuItem saved = menuItemRepository.save(menuItem);
+        changeFeedService.recordUpsert(ChangeFeedService.MENU_ITEM, saved.getId());
+        return saved;
     }
 
+    @Transactional
     public void deleteMenuItem(Long id) {
         menuItemRepository.deleteById(id);
+        changeFeedService.recordDeletes(ChangeFeedService.MENU_ITEM, List.of(id));
     }
 }
@@ -0,0 +1,310 @@
+package com.restaurant.service;
+
+import com.restaurant.dto.OfflineOrderBatchRequest.OfflineOrder;
+import com.restaurant.dto.OfflineOrderBatchResult;
+import com.restaurant.dto.OrderItemRequest;
+import com.restaurant.entity.MenuItem;
+import com.restaurant.entity.OrderStatus;
+import com.restaurant.generator.OrderIdGenerator;
+import com.restaurant.repository.MenuItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persists orders that POS terminals took while offline.
+ * Orders are deduplicated by their client order id, both within the upload and against earlier
+ * uploads, so a terminal can safely replay a batch after a timeout. Menu items are resolved once
+ * for the whole upload and customers once per chunk; each chunk is written with JDBC batch
+ * statements in its own transaction.
+ */
+@Service
+public class OfflineOrderSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfflineOrderSyncService.class);
+    private static final int MAX_ID_ATTEMPTS = 10;
+
+    private static final String CREATED = OfflineOrderBatchResult.CREATED;
+    private static final String DUPLICATE = OfflineOrderBatchResult.DUPLICATE;
+    private static final String REJECTED = OfflineOrderBatchResult.REJECTED;
+
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (id, customer_id, status, total_amount, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO order_items (order_id, menu_item_id, quantity, unit_price, total_price, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CLIENT_ID_SQL =
+            "INSERT INTO order_client_ids (client_order_id, order_id, created_at) VALUES (?, ?, ?)";
+    private static final String EXISTING_CLIENT_IDS_SQL =
+            "SELECT client_order_id, order_id FROM order_client_ids WHERE client_order_id IN (:clientOrderIds)";
+    private static final String CUSTOMERS_SQL =
+            "SELECT id, phone_number FROM customers WHERE phone_number IN (:phones)";
+    private static final String EXISTING_ORDER_IDS_SQL =
+            "SELECT id FROM orders WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MenuItemRepository menuItemRepository;
+    private final CustomerSummaryService customerSummaryService;
+    private final ChangeFeedService changeFeedService;
+    private final int chunkSize;
+    private final int maxBatchSize;
+
+    @Autowired
+    public OfflineOrderSyncService(JdbcTemplate jdbcTemplate,
+                                   NamedParameterJdbcTemplate namedJdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   MenuItemRepository menuItemRepository,
+                                   CustomerSummaryService customerSummaryService,
+                                   ChangeFeedService changeFeedService,
+                                   @Value("${app.sync.orders.chunk-size:500}") int chunkSize,
+                                   @Value("${app.sync.orders.max-batch-size:5000}") int maxBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.menuItemRepository = menuItemRepository;
+        this.customerSummaryService = customerSummaryService;
+        this.changeFeedService = changeFeedService;
+        this.chunkSize = chunkSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Creates the uploaded orders and reports, per client order id, the server order id and
+     * whether the order was created, already known (duplicate) or rejected.
+     * @throws IllegalArgumentException if the batch exceeds {@code app.sync.orders.max-batch-size}
+     */
+    public OfflineOrderBatchResult sync(List<OfflineOrder> orders) {
+        if (orders.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch must contain at most " + maxBatchSize + " orders");
+        }
+        long started = System.currentTimeMillis();
+        OfflineOrderBatchResult result = new OfflineOrderBatchResult();
+        result.setReceived(orders.size());
+
+        // One result entry per uploaded order, in request order; repeats share the first entry's outcome
+        List<OfflineOrderBatchResult.Entry> entries = new ArrayList<>(orders.size());
+        Map<String, OfflineOrderBatchResult.Entry> byClientId = new LinkedHashMap<>();
+        List<OfflineOrder> unique = new ArrayList<>(orders.size());
+        for (OfflineOrder order : orders) {
+            OfflineOrderBatchResult.Entry entry = new OfflineOrderBatchResult.Entry();
+            entry.setClientOrderId(order.getClientOrderId());
+            entries.add(entry);
+            if (byClientId.putIfAbsent(order.getClientOrderId(), entry) == null) {
+                unique.add(order);
+            }
+        }
+
+        Map<Long, MenuItem> menuItems = loadMenuItems(unique);
+        for (int from = 0; from < unique.size(); from += chunkSize) {
+            List<OfflineOrder> chunk = unique.subList(from, Math.min(from + chunkSize, unique.size()));
+            processChunk(chunk, menuItems, byClientId);
+        }
+
+        for (int i = 0; i < orders.size(); i++) {
+            OfflineOrderBatchResult.Entry entry = entries.get(i);
+            OfflineOrderBatchResult.Entry first = byClientId.get(entry.getClientOrderId());
+            if (entry != first) {
+                entry.setOrderId(first.getOrderId());
+                entry.setOutcome(REJECTED.equals(first.getOutcome()) ? REJECTED : DUPLICATE);
+                entry.setMessage("Repeated client order id in this batch");
+            }
+            switch (entry.getOutcome()) {
+                case CREATED -> result.setCreated(result.getCreated() + 1);
+                case DUPLICATE -> result.setDuplicates(result.getDuplicates() + 1);
+                default -> result.setRejected(result.getRejected() + 1);
+            }
+        }
+        result.setResults(entries);
+        result.setDurationMillis(System.currentTimeMillis() - started);
+        logger.info("Offline order sync finished: {} received, {} created, {} duplicates, {} rejected in {} ms",
+                result.getReceived(), result.getCreated(), result.getDuplicates(),
+                result.getRejected(), result.getDurationMillis());
+        return result;
+    }
+
+    private Map<Long, MenuItem> loadMenuItems(List<OfflineOrder> orders) {
+        Set<Long> ids = new HashSet<>();
+        for (OfflineOrder order : orders) {
+            for (OrderItemRequest item : order.getOrderItems()) {
+                if (item.getMenuItemId() != null) {
+                    ids.add(item.getMenuItemId());
+                }
+            }
+        }
+        Map<Long, MenuItem> menuItems = new HashMap<>();
+        for (MenuItem menuItem : menuItemRepository.findAllById(ids)) {
+            menuItems.put(menuItem.getId(), menuItem);
+        }
+        return menuItems;
+    }
+
+    private void processChunk(List<OfflineOrder> chunk, Map<Long, MenuItem> menuItems,
+                              Map<String, OfflineOrderBatchResult.Entry> byClientId) {
+        Map<String, OfflineOrderBatchResult.Entry> outcome;
+        try {
+            outcome = transactionTemplate.execute(status -> writeChunk(chunk, menuItems));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent upload of the same client ids, or an order id taken in the meantime.
+            // The retry sees the other transaction's rows and reports them as duplicates.
+            logger.info("Offline order chunk conflicted, retrying: {}", e.getMessage());
+            try {
+                outcome = transactionTemplate.execute(status -> writeChunk(chunk, menuItems));
+            } catch (RuntimeException retryFailure) {
+                outcome = rejectAll(chunk, "Chunk rolled back: " + retryFailure.getMessage());
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Offline order chunk starting at {} failed: {}", chunk.get(0).getClientOrderId(), e.getMessage());
+            outcome = rejectAll(chunk, "Chunk rolled back: " + e.getMessage());
+        }
+        // Applied only after the chunk committed (or definitely failed)
+        outcome.forEach((clientOrderId, result) -> {
+            OfflineOrderBatchResult.Entry entry = byClientId.get(clientOrderId);
+            entry.setOrderId(result.getOrderId());
+            entry.setOutcome(result.getOutcome());
+            entry.setMessage(result.getMessage());
+        });
+    }
+
+    private Map<String, OfflineOrderBatchResult.Entry> writeChunk(List<OfflineOrder> chunk, Map<Long, MenuItem> menuItems) {
+        Map<String, OfflineOrderBatchResult.Entry> outcome = new LinkedHashMap<>();
+        Set<String> clientOrderIds = new LinkedHashSet<>();
+        Set<String> phones = new HashSet<>();
+        for (OfflineOrder order : chunk) {
+            clientOrderIds.add(order.getClientOrderId());
+            phones.add(order.getCustomerPhone());
+        }
+
+        Map<String, String> alreadySynced = new HashMap<>();
+        namedJdbcTemplate.query(EXISTING_CLIENT_IDS_SQL, new MapSqlParameterSource("clientOrderIds", clientOrderIds),
+                rs -> {
+                    alreadySynced.put(rs.getString("client_order_id"), rs.getString("order_id"));
+                });
+        Map<String, Long> customerIds = new HashMap<>();
+        namedJdbcTemplate.query(CUSTOMERS_SQL, new MapSqlParameterSource("phones", phones),
+                rs -> {
+                    customerIds.put(rs.getString("phone_number"), rs.getLong("id"));
+                });
+
+        List<OfflineOrder> accepted = new ArrayList<>(chunk.size());
+        for (OfflineOrder order : chunk) {
+            String clientOrderId = order.getClientOrderId();
+            String existingOrderId = alreadySynced.get(clientOrderId);
+            if (existingOrderId != null) {
+                outcome.put(clientOrderId, new OfflineOrderBatchResult.Entry(clientOrderId, existingOrderId,
+                        DUPLICATE, "Already synced"));
+                continue;
+            }
+            String problem = customerIds.containsKey(order.getCustomerPhone())
+                    ? validateItems(order, menuItems)
+                    : String.format("Customer with phone number %s is not registered", order.getCustomerPhone());
+            if (problem != null) {
+                outcome.put(clientOrderId, new OfflineOrderBatchResult.Entry(clientOrderId, null, REJECTED, problem));
+                continue;
+            }
+            accepted.add(order);
+        }
+        if (accepted.isEmpty()) {
+            return outcome;
+        }
+
+        List<String> orderIds = allocateOrderIds(accepted.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> orderRows = new ArrayList<>(accepted.size());
+        List<Object[]> itemRows = new ArrayList<>();
+        List<Object[]> clientIdRows = new ArrayList<>(accepted.size());
+        Set<Long> touchedCustomers = new HashSet<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            OfflineOrder order = accepted.get(i);
+            String orderId = orderIds.get(i);
+            Long customerId = customerIds.get(order.getCustomerPhone());
+            Timestamp createdAt = order.getCreatedAt() != null ? Timestamp.valueOf(order.getCreatedAt()) : now;
+
+            // Prices come from the server's menu, not the terminal's possibly stale copy
+            BigDecimal total = BigDecimal.ZERO;
+            for (OrderItemRequest item : order.getOrderItems()) {
+                BigDecimal unitPrice = menuItems.get(item.getMenuItemId()).getPrice();
+                BigDecimal linePrice = unitPrice.multiply(BigDecimal.valueOf(item.getQuantity()));
+                total = total.add(linePrice);
+                // Same created_at as the order, so both land in the same month partition
+                itemRows.add(new Object[]{orderId, item.getMenuItemId(), item.getQuantity(), unitPrice, linePrice, createdAt});
+            }
+            orderRows.add(new Object[]{orderId, customerId, OrderStatus.PENDING.name(), total, createdAt, now});
+            clientIdRows.add(new Object[]{order.getClientOrderId(), orderId, now});
+            touchedCustomers.add(customerId);
+            outcome.put(order.getClientOrderId(),
+                    new OfflineOrderBatchResult.Entry(order.getClientOrderId(), orderId, CREATED, null));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orderRows);
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, itemRows);
+        jdbcTemplate.batchUpdate(INSERT_CLIENT_ID_SQL, clientIdRows);
+        customerSummaryService.rebuildForCustomers(touchedCustomers);
+        changeFeedService.recordUpserts(ChangeFeedService.ORDER, orderIds);
+        return outcome;
+    }
+
+    private String validateItems(OfflineOrder order, Map<Long, MenuItem> menuItems) {
+        for (OrderItemRequest item : order.getOrderItems()) {
+            MenuItem menuItem = menuItems.get(item.getMenuItemId());
+            if (menuItem == null) {
+                return String.format("Menu item with id %d not found", item.getMenuItemId());
+            }
+            if (menuItem.getAvailable() == null || !menuItem.getAvailable()) {
+                return String.format("Menu item '%s' is currently not available", menuItem.getName());
+            }
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                return String.format("Invalid quantity %d for menu item %s", item.getQuantity(), menuItem.getName());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Draws random order ids until none of them is taken, checking each round with one query.
+     */
+    private List<String> allocateOrderIds(int count) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (int attempt = 0; attempt < MAX_ID_ATTEMPTS; attempt++) {
+            while (ids.size() < count) {
+                ids.add(OrderIdGenerator.nextId());
+            }
+            List<String> taken = namedJdbcTemplate.queryForList(EXISTING_ORDER_IDS_SQL,
+                    new MapSqlParameterSource("ids", ids), String.class);
+            if (taken.isEmpty()) {
+                return new ArrayList<>(ids);
+            }
+            taken.forEach(ids::remove);
+        }
+        throw new IllegalStateException("Could not allocate " + count + " unused order ids");
+    }
+
+    private Map<String, OfflineOrderBatchResult.Entry> rejectAll(List<OfflineOrder> chunk, String message) {
+        Map<String, OfflineOrderBatchResult.Entry> outcome = new LinkedHashMap<>();
+        for (OfflineOrder order : chunk) {
+            outcome.put(order.getClientOrderId(),
+                    new OfflineOrderBatchResult.Entry(order.getClientOrderId(), null, REJECTED, message));
+        }
+        return outcome;
+    }
+}
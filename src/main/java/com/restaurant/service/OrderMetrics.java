@@ -0,0 +1,178 @@
+package com.restaurant.service;
+
+import com.restaurant.entity.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Business metrics of the order write path:
+ * <ul>
+ *   <li>{@code orders.create.phase} - order creation time per phase ({@code validation},
+ *       {@code lookup} of the customer and menu items, {@code persist} up to commit), tagged by
+ *       {@code api} ({@code by-name} or {@code by-id})</li>
+ *   <li>{@code orders.lines} - lines per created order</li>
+ *   <li>{@code orders.line.resolution.failures} - order lines rejected, tagged by {@code cause}</li>
+ *   <li>{@code orders.status} - orders per status, refreshed every
+ *       {@code app.metrics.orders.status-refresh-ms} with one indexed {@code GROUP BY}</li>
+ * </ul>
+ * Every meter is registered up front, so recording is an array lookup and never goes through
+ * the registry. Timers publish a handful of fixed SLO buckets rather than
+ * full percentile histograms, which keeps the Prometheus series count low while still allowing
+ * {@code histogram_quantile} alerts.
+ */
+@Component
+public class OrderMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderMetrics.class);
+
+    private static final Duration[] PHASE_BUCKETS = {Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10),
+            Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250),
+            Duration.ofMillis(500), Duration.ofSeconds(1)};
+    private static final String[] PHASES = {"validation", "lookup", "persist"};
+    private static final int VALIDATION = 0;
+    private static final int LOOKUP = 1;
+    private static final int PERSIST = 2;
+
+    public enum Api {
+        BY_NAME("by-name"),
+        BY_ID("by-id");
+
+        private final String tag;
+
+        Api(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public enum LineFailure {
+        DUPLICATE_ITEM("duplicate_item"),
+        ITEM_NOT_FOUND("item_not_found"),
+        ITEM_UNAVAILABLE("item_unavailable"),
+        INVALID_QUANTITY("invalid_quantity");
+
+        private final String tag;
+
+        LineFailure(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer[][] phaseTimers = new Timer[Api.values().length][PHASES.length];
+    private final DistributionSummary[] lines = new DistributionSummary[Api.values().length];
+    private final Counter[][] lineFailures = new Counter[Api.values().length][LineFailure.values().length];
+    private final Map<OrderStatus, AtomicLong> statusCounts = new EnumMap<>(OrderStatus.class);
+
+    @Autowired
+    public OrderMetrics(MeterRegistry meterRegistry, JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        for (Api api : Api.values()) {
+            for (int phase = 0; phase < PHASES.length; phase++) {
+                phaseTimers[api.ordinal()][phase] = Timer.builder("orders.create.phase")
+                        .tag("api", api.tag)
+                        .tag("phase", PHASES[phase])
+                        .description("Order creation time per phase")
+                        .serviceLevelObjectives(PHASE_BUCKETS)
+                        .register(meterRegistry);
+            }
+            lines[api.ordinal()] = DistributionSummary.builder("orders.lines")
+                    .tag("api", api.tag)
+                    .description("Lines per created order")
+                    .serviceLevelObjectives(1, 2, 3, 5, 10, 20, 50)
+                    .register(meterRegistry);
+            for (LineFailure failure : LineFailure.values()) {
+                lineFailures[api.ordinal()][failure.ordinal()] = Counter.builder("orders.line.resolution.failures")
+                        .tag("api", api.tag)
+                        .tag("cause", failure.tag)
+                        .description("Order lines rejected while resolving menu items")
+                        .register(meterRegistry);
+            }
+        }
+        for (OrderStatus status : OrderStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            statusCounts.put(status, count);
+            Gauge.builder("orders.status", count, AtomicLong::get)
+                    .tag("status", status.name())
+                    .description("Orders currently in each status")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Records the validation phase that began at {@code startNanos} and returns the start of the next one.
+     */
+    public long validated(Api api, long startNanos) {
+        return record(phaseTimers[api.ordinal()][VALIDATION], startNanos);
+    }
+
+    /**
+     * Records the customer and menu item lookup phase and returns the start of the persist phase.
+     */
+    public long resolved(Api api, long startNanos) {
+        return record(phaseTimers[api.ordinal()][LOOKUP], startNanos);
+    }
+
+    /**
+     * Records the persist phase and the order's line count once the surrounding transaction
+     * commits, so the flush and commit are included and rolled-back orders are not counted.
+     */
+    public void persisted(Api api, long startNanos, int lineCount) {
+        Timer timer = phaseTimers[api.ordinal()][PERSIST];
+        DistributionSummary summary = lines[api.ordinal()];
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(timer, startNanos);
+            summary.record(lineCount);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(timer, startNanos);
+                summary.record(lineCount);
+            }
+        });
+    }
+
+    public void lineRejected(Api api, LineFailure failure) {
+        lineFailures[api.ordinal()][failure.ordinal()].increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.metrics.orders.status-refresh-ms:30000}",
+            initialDelayString = "${app.metrics.orders.status-refresh-ms:30000}")
+    public void refreshStatusCounts() {
+        Map<OrderStatus, Long> counts = new EnumMap<>(OrderStatus.class);
+        try {
+            jdbcTemplate.query("SELECT status, COUNT(*) FROM orders GROUP BY status", (RowCallbackHandler) row ->
+                    counts.put(OrderStatus.valueOf(row.getString(1)), row.getLong(2)));
+        } catch (DataAccessException e) {
+            logger.debug("Could not refresh order status counts: {}", e.getMessage());
+            return;
+        }
+        statusCounts.forEach((status, count) -> count.set(counts.getOrDefault(status, 0L)));
+    }
+
+    private static long record(Timer timer, long startNanos) {
+        long now = System.nanoTime();
+        timer.record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+}
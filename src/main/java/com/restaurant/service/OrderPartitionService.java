@@ -0,0 +1,226 @@
+package com.restaurant.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the time-partitioned layout of {@code orders} and {@code order_items}, one period per
+ * calendar month of {@code created_at}. Off unless {@code app.orders.partitioning.enabled} is set.
+ * <ul>
+ *   <li>PostgreSQL: the tables are range-partitioned (converted once with
+ *       {@code db/postgres/orders-partitioned.sql}). Partitions for the current month and the next
+ *       {@code months-ahead} are created ahead of time; partitions older than
+ *       {@code retention-months} are detached and left as standalone tables to archive or drop.</li>
+ *   <li>Derby has no partitioning, so the live tables hold the retained months and each expired
+ *       month is moved, one transaction per month, into its own {@code orders_pYYYY_MM} /
+ *       {@code order_items_pYYYY_MM} tables. Items go with their order's month.</li>
+ * </ul>
+ * Expiring a period is archiving, not deletion: the orders leave the API and the read model, but
+ * customer summaries keep their lifetime totals and no change-feed tombstones are written.
+ * A retention of 0 keeps every month.
+ */
+@Service
+public class OrderPartitionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderPartitionService.class);
+    private static final Pattern PARTITION_NAME = Pattern.compile("^(?:orders|order_items)_p(\\d{4})_(\\d{2})$");
+    private static final String[] TABLES = {"orders", "order_items"};
+    private static final LocalDateTime ALL_HISTORY = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    @Autowired
+    public OrderPartitionService(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${app.orders.partitioning.enabled:false}") boolean enabled,
+                                 @Value("${app.orders.partitioning.months-ahead:2}") int monthsAhead,
+                                 @Value("${app.orders.partitioning.retention-months:0}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    /**
+     * Start of the periods that hold recent orders: the current and the previous month. Queries
+     * for recent orders bound {@code created_at} by this so only those partitions are scanned.
+     */
+    public static LocalDateTime currentPartitionsStart() {
+        return YearMonth.now().minusMonths(1).atDay(1).atStartOfDay();
+    }
+
+    /**
+     * Start of the oldest period kept by the retention policy, or the start of all history when
+     * every month is kept. Queries over all live orders bound {@code created_at} by this, so the
+     * partitions of expired periods that are not detached yet are pruned.
+     */
+    public LocalDateTime liveOrdersStart() {
+        return retentionMonths > 0
+                ? YearMonth.now().minusMonths(retentionMonths - 1L).atDay(1).atStartOfDay()
+                : ALL_HISTORY;
+    }
+
+    public static String partitionName(String table, YearMonth month) {
+        return String.format("%s_p%04d_%02d", table, month.getYear(), month.getMonthValue());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        if (enabled) {
+            maintain(YearMonth.now());
+        }
+    }
+
+    @Scheduled(cron = "${app.orders.partitioning.cron:0 15 2 * * *}")
+    public void scheduledMaintenance() {
+        if (enabled) {
+            maintain(YearMonth.now());
+        }
+    }
+
+    /**
+     * Creates upcoming partitions and expires old ones as of {@code current}.
+     * @return the months that were detached or archived
+     */
+    public synchronized List<YearMonth> maintain(YearMonth current) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        boolean postgres = product != null && product.toLowerCase().contains("postgres");
+        if (postgres && !isPartitioned("orders")) {
+            logger.warn("Order partitioning is enabled but orders is not a partitioned table; "
+                    + "run db/postgres/orders-partitioned.sql first");
+            return List.of();
+        }
+
+        if (postgres) {
+            createUpcomingPartitions(current);
+        }
+        if (retentionMonths <= 0) {
+            return List.of();
+        }
+        YearMonth oldestKept = current.minusMonths(retentionMonths - 1L);
+        List<YearMonth> expired = postgres ? detachExpiredPartitions(oldestKept) : archiveExpiredMonths(oldestKept);
+
+        // Derived rows of the expired orders; the read model and dedupe records only cover live orders
+        Timestamp cutoff = Timestamp.valueOf(oldestKept.atDay(1).atStartOfDay());
+        if (!expired.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM order_views WHERE order_date < ? AND order_id NOT IN (SELECT id FROM orders)",
+                    cutoff);
+            logger.info("Expired order periods {} (keeping {} months from {})", expired, retentionMonths, oldestKept);
+        }
+        return expired;
+    }
+
+    private void createUpcomingPartitions(YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            for (String table : TABLES) {
+                String sql = String.format("CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        partitionName(table, month), table, month.atDay(1), month.plusMonths(1).atDay(1));
+                try {
+                    jdbcTemplate.execute(sql);
+                } catch (DataAccessException e) {
+                    // Typically rows for this month already sit in the default partition
+                    logger.warn("Could not create partition {}: {}", partitionName(table, month), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private List<YearMonth> detachExpiredPartitions(YearMonth oldestKept) {
+        List<YearMonth> detached = new ArrayList<>();
+        for (String table : TABLES) {
+            List<String> partitions = jdbcTemplate.queryForList(
+                    "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                            + "JOIN pg_class p ON p.oid = i.inhparent WHERE p.relname = ?", String.class, table);
+            for (String partition : partitions) {
+                YearMonth month = monthOf(partition);
+                if (month == null || !month.isBefore(oldestKept)) {
+                    continue;
+                }
+                jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+                if (!detached.contains(month)) {
+                    detached.add(month);
+                }
+            }
+        }
+        if (!detached.isEmpty()) {
+            jdbcTemplate.update("DELETE FROM order_client_ids WHERE order_id NOT IN (SELECT id FROM orders)");
+        }
+        return detached;
+    }
+
+    private List<YearMonth> archiveExpiredMonths(YearMonth oldestKept) {
+        Timestamp cutoff = Timestamp.valueOf(oldestKept.atDay(1).atStartOfDay());
+        List<YearMonth> archived = new ArrayList<>();
+        // Oldest populated month first; each pass empties that month from the live tables
+        Timestamp oldest;
+        while ((oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM orders WHERE created_at < ?", Timestamp.class, cutoff)) != null) {
+            YearMonth period = YearMonth.from(oldest.toLocalDateTime());
+            transactionTemplate.executeWithoutResult(status -> archiveMonth(period));
+            archived.add(period);
+        }
+        return archived;
+    }
+
+    private void archiveMonth(YearMonth month) {
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        String orders = partitionName("orders", month);
+        String items = partitionName("order_items", month);
+        String inMonth = "SELECT id FROM orders WHERE created_at >= ? AND created_at < ?";
+
+        createArchiveTable(orders, "orders");
+        createArchiveTable(items, "order_items");
+        jdbcTemplate.update("INSERT INTO " + items + " SELECT * FROM order_items WHERE order_id IN (" + inMonth + ")", from, to);
+        jdbcTemplate.update("INSERT INTO " + orders + " SELECT * FROM orders WHERE created_at >= ? AND created_at < ?",
+                from, to);
+        jdbcTemplate.update("DELETE FROM order_client_ids WHERE order_id IN (" + inMonth + ")", from, to);
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (" + inMonth + ")", from, to);
+        jdbcTemplate.update("DELETE FROM orders WHERE created_at >= ? AND created_at < ?", from, to);
+    }
+
+    private void createArchiveTable(String name, String likeTable) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM SYS.SYSTABLES WHERE TABLENAME = ?", Integer.class, name.toUpperCase());
+        if (existing == null || existing == 0) {
+            jdbcTemplate.execute("CREATE TABLE " + name + " AS SELECT * FROM " + likeTable + " WITH NO DATA");
+        }
+    }
+
+    private boolean isPartitioned(String table) {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE relname = ?", String.class, table);
+        return kinds.contains("p");
+    }
+
+    private static YearMonth monthOf(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        return matcher.matches()
+                ? YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                : null;
+    }
+}
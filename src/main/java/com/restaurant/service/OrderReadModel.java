@@ -0,0 +1,479 @@
+package com.restaurant.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.dto.OrderFields;
+import com.restaurant.dto.OrderResponse;
+import com.restaurant.entity.OrderStatus;
+import com.restaurant.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Denormalized read model behind the GET order endpoints: one {@code order_views} row per order
+ * holding the rendered {@link OrderResponse} (scalar fields as columns, items as JSON), so a read
+ * is a single-table lookup instead of four joined tables and lazy loads.
+ * <p>
+ * The model is maintained asynchronously from the durable change feed ({@code sync_changes},
+ * see {@link ChangeFeedService}): every {@code app.orders.read-model.refresh-interval-ms},
+ * {@link #refreshPending()} applies the order, customer and menu item entries committed since the
+ * last run, which bounds how far reads lag behind writes. Orders are re-rendered; a customer change
+ * rewrites the denormalized name and phone columns with one statement; a menu item change
+ * re-renders the orders containing it, a page at a time, only when its name (the one menu field an
+ * order view shows) differs from the name last rendered ({@code order_views_menu_names}).
+ * The last applied seq is kept in {@code order_views_progress}, so changes whose refresh had not
+ * run yet when the process stopped are applied after a restart. {@link #rebuild()} re-renders
+ * every order from the write model.
+ */
+@Service
+public class OrderReadModel {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderReadModel.class);
+    private static final int BATCH_SIZE = 500;
+    private static final int FEED_PAGE_SIZE = 5000;
+    private static final TypeReference<List<OrderResponse.OrderItemResponse>> ITEMS_TYPE = new TypeReference<>() {
+    };
+
+    private static final String INSERT_SQL = "INSERT INTO order_views (order_id, customer_id, customer_name, "
+            + "customer_phone, status, total_amount, order_date, items, refreshed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String CUSTOMER_COLUMNS_SQL = "UPDATE order_views SET "
+            + "customer_name = (SELECT c.name FROM customers c WHERE c.id = order_views.customer_id), "
+            + "customer_phone = (SELECT c.phone_number FROM customers c WHERE c.id = order_views.customer_id) "
+            + "WHERE customer_id IN (:ids)";
+    private static final String ORDERS_WITH_ITEMS_SQL = "SELECT DISTINCT order_id FROM order_items "
+            + "WHERE menu_item_id IN (:ids) AND order_id > :after ORDER BY order_id FETCH FIRST " + BATCH_SIZE + " ROWS ONLY";
+    private static final String RENDERED_NAME_SQL = "INSERT INTO order_views_menu_names (menu_item_id, name) VALUES (?, ?)";
+
+    private final OrderRepository orderRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ChangeFeedService changeFeedService;
+
+    // Orders a read found missing from the model, drained by refreshPending()
+    private final Set<String> pendingOrders = ConcurrentHashMap.newKeySet();
+    // Feed entries and orders left to apply after the last run, for the gauge
+    private final AtomicInteger pending = new AtomicInteger();
+    // Guarded by this: the persisted checkpoint (-1 until read) and the entries above it already applied
+    private long appliedThrough = -1;
+    private final Set<Long> appliedSeqs = new HashSet<>();
+
+    @Autowired
+    public OrderReadModel(OrderRepository orderRepository,
+                          JdbcTemplate jdbcTemplate,
+                          NamedParameterJdbcTemplate namedJdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          ChangeFeedService changeFeedService) {
+        this.orderRepository = orderRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.changeFeedService = changeFeedService;
+        meterRegistry.gauge("orders.read_model.pending", pending);
+    }
+
+    public Optional<OrderResponse> findById(String orderId, OrderFields fields) {
+        List<OrderResponse> rows = query(fields, "WHERE order_id = ?", orderId);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    public List<OrderResponse> findAll(OrderFields fields) {
+        return query(fields, "ORDER BY order_id");
+    }
+
+    public List<OrderResponse> findByStatus(OrderStatus status, OrderFields fields) {
+        return query(fields, "WHERE status = ? ORDER BY order_id", status.name());
+    }
+
+    public List<OrderResponse> findByCustomerPhone(String phoneNumber, OrderFields fields) {
+        return query(fields, "WHERE customer_phone = ? ORDER BY order_id", phoneNumber);
+    }
+
+    public Optional<OrderResponse> findLatestByCustomerPhone(String phoneNumber, OrderFields fields) {
+        List<OrderResponse> rows = query(fields,
+                "WHERE customer_phone = ? ORDER BY order_date DESC FETCH FIRST 1 ROWS ONLY", phoneNumber);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    private List<OrderResponse> query(OrderFields fields, String clause, Object... args) {
+        // The items document is only read when items are requested
+        String sql = "SELECT order_id, customer_name, customer_phone, status, total_amount, order_date"
+                + (fields.needsItems() ? ", items" : "") + " FROM order_views " + clause;
+        return jdbcTemplate.query(sql, (rs, rowNum) -> toResponse(rs, fields), args);
+    }
+
+    private OrderResponse toResponse(ResultSet rs, OrderFields fields) throws SQLException {
+        OrderResponse response = new OrderResponse();
+        String orderId = rs.getString("order_id");
+        if (fields.includes("id")) {
+            response.setId(orderId);
+        }
+        if (fields.includes("orderNumber")) {
+            response.setOrderNumber(orderId);
+        }
+        if (fields.includes("customerName")) {
+            response.setCustomerName(rs.getString("customer_name"));
+        }
+        if (fields.includes("customerPhone")) {
+            response.setCustomerPhone(rs.getString("customer_phone"));
+        }
+        if (fields.includes("orderDate")) {
+            Timestamp orderDate = rs.getTimestamp("order_date");
+            response.setOrderDate(orderDate != null ? orderDate.toLocalDateTime() : null);
+        }
+        if (fields.includes("status")) {
+            response.setStatus(OrderStatus.valueOf(rs.getString("status")));
+        }
+        if (fields.includes("totalAmount")) {
+            response.setTotalAmount(rs.getBigDecimal("total_amount"));
+        }
+        if (fields.needsItems()) {
+            response.setItems(readItems(rs.getString("items")));
+        }
+        return response;
+    }
+
+    /**
+     * Marks one order for refresh, e.g. after a read found it missing from the model.
+     */
+    public void markDirty(String orderId) {
+        pendingOrders.add(orderId);
+    }
+
+    /**
+     * Re-renders the orders touched by change-feed entries committed since the last run. A failed
+     * batch stops the run; its entries are read again and retried on the next one.
+     * <p>
+     * Entries are applied as soon as they are visible, but the checkpoint stops at the first gap
+     * in the seqs that a running transaction may still fill (see
+     * {@link ChangeFeedService#contiguousThrough}); that entry must still be read after a restart.
+     */
+    @Scheduled(fixedDelayString = "${app.orders.read-model.refresh-interval-ms:250}")
+    public synchronized void refreshPending() {
+        if (appliedThrough < 0) {
+            appliedThrough = readCheckpoint();
+        }
+        Set<String> hinted = drain(pendingOrders);
+        if (!hinted.isEmpty() && !render(new ArrayList<>(hinted))) {
+            pendingOrders.addAll(hinted);
+        }
+
+        long checkpoint = appliedThrough;
+        boolean contiguous = true;
+        long after = appliedThrough;
+        List<ChangeFeedService.FeedEntry> page;
+        do {
+            page = changeFeedService.readEntries(after, FEED_PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            if (!apply(page)) {
+                advanceCheckpoint(checkpoint);
+                pending.set(page.size() + pendingOrders.size());
+                return;
+            }
+            long last = page.get(page.size() - 1).seq();
+            if (contiguous) {
+                checkpoint = changeFeedService.contiguousThrough(checkpoint, page);
+                contiguous = checkpoint == last;
+            }
+            after = last;
+        } while (page.size() == FEED_PAGE_SIZE);
+        advanceCheckpoint(checkpoint);
+        pending.set(pendingOrders.size());
+    }
+
+    /**
+     * Renders the orders affected by the feed entries not applied yet.
+     * @return false when a batch failed
+     */
+    private boolean apply(List<ChangeFeedService.FeedEntry> entries) {
+        Set<String> orderIds = new LinkedHashSet<>();
+        Set<Long> customers = new LinkedHashSet<>();
+        Set<Long> customersRemoved = new LinkedHashSet<>();
+        Set<Long> menuItems = new LinkedHashSet<>();
+        List<Long> seqs = new ArrayList<>(entries.size());
+        for (ChangeFeedService.FeedEntry entry : entries) {
+            if (appliedSeqs.contains(entry.seq())) {
+                continue;
+            }
+            seqs.add(entry.seq());
+            switch (entry.entityType()) {
+                case ChangeFeedService.ORDER -> orderIds.add(entry.entityId());
+                case ChangeFeedService.CUSTOMER -> (ChangeFeedService.DELETE.equals(entry.operation())
+                        ? customersRemoved : customers).add(Long.valueOf(entry.entityId()));
+                case ChangeFeedService.MENU_ITEM -> menuItems.add(Long.valueOf(entry.entityId()));
+                default -> {
+                    // Not part of the order read model
+                }
+            }
+        }
+        if (seqs.isEmpty()) {
+            return true;
+        }
+
+        try {
+            if (!customersRemoved.isEmpty()) {
+                namedJdbcTemplate.update("DELETE FROM order_views WHERE customer_id IN (:customerIds)",
+                        new MapSqlParameterSource("customerIds", customersRemoved));
+            }
+            if (!customers.isEmpty()) {
+                // Customer name and phone are denormalized into columns of each of their orders
+                namedJdbcTemplate.update(CUSTOMER_COLUMNS_SQL, new MapSqlParameterSource("ids", customers));
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Order read model refresh failed, will retry: {}", e.getMessage());
+            return false;
+        }
+        if (!render(new ArrayList<>(orderIds)) || !applyMenuItems(menuItems)) {
+            return false;
+        }
+        appliedSeqs.addAll(seqs);
+        return true;
+    }
+
+    /**
+     * Re-renders the orders containing the menu items whose name changed since it was last
+     * rendered, one page of orders per transaction, then records the names rendered.
+     * @return false when a page failed
+     */
+    private boolean applyMenuItems(Set<Long> menuItems) {
+        if (menuItems.isEmpty()) {
+            return true;
+        }
+        Map<Long, String> renamed = new HashMap<>();
+        try {
+            Map<Long, String> current = menuNames("SELECT id, name FROM menu_items WHERE id IN (:ids)", menuItems);
+            Map<Long, String> rendered = menuNames(
+                    "SELECT menu_item_id, name FROM order_views_menu_names WHERE menu_item_id IN (:ids)", menuItems);
+            for (Long id : menuItems) {
+                String name = current.get(id);
+                if (name == null || !rendered.containsKey(id) || !name.equals(rendered.get(id))) {
+                    renamed.put(id, name);
+                }
+            }
+            if (renamed.isEmpty()) {
+                return true;
+            }
+            String after = "";
+            List<String> page;
+            do {
+                page = namedJdbcTemplate.queryForList(ORDERS_WITH_ITEMS_SQL,
+                        new MapSqlParameterSource("ids", renamed.keySet()).addValue("after", after), String.class);
+                if (!page.isEmpty() && !render(page)) {
+                    return false;
+                }
+                after = page.isEmpty() ? after : page.get(page.size() - 1);
+            } while (page.size() == BATCH_SIZE);
+
+            // The names read before rendering: a rename committed meanwhile is seen as a change next time
+            List<Object[]> names = new ArrayList<>();
+            renamed.forEach((id, name) -> {
+                if (name != null) {
+                    names.add(new Object[]{id, name});
+                }
+            });
+            transactionTemplate.executeWithoutResult(status -> {
+                namedJdbcTemplate.update("DELETE FROM order_views_menu_names WHERE menu_item_id IN (:ids)",
+                        new MapSqlParameterSource("ids", renamed.keySet()));
+                jdbcTemplate.batchUpdate(RENDERED_NAME_SQL, names);
+            });
+        } catch (RuntimeException e) {
+            logger.warn("Order read model refresh of {} menu items failed, will retry: {}", renamed.size(), e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private Map<Long, String> menuNames(String sql, Set<Long> ids) {
+        Map<Long, String> names = new HashMap<>();
+        namedJdbcTemplate.query(sql, new MapSqlParameterSource("ids", ids),
+                rs -> {
+                    names.put(rs.getLong(1), rs.getString(2));
+                });
+        return names;
+    }
+
+    private boolean render(List<String> ids) {
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<String> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> refresh(batch));
+            } catch (RuntimeException e) {
+                logger.warn("Order read model refresh of {} orders failed, will retry: {}", batch.size(), e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void advanceCheckpoint(long checkpoint) {
+        if (checkpoint <= appliedThrough) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE order_views_progress SET applied_through = ? WHERE id = 1 AND applied_through < ?",
+                checkpoint, checkpoint);
+        appliedThrough = checkpoint;
+        appliedSeqs.removeIf(seq -> seq <= checkpoint);
+    }
+
+    private long readCheckpoint() {
+        Long applied = jdbcTemplate.queryForObject(
+                "SELECT applied_through FROM order_views_progress WHERE id = 1", Long.class);
+        return applied != null ? applied : 0;
+    }
+
+    /**
+     * Rebuilds the whole model from the write model, in batches of order ids. Rows are replaced
+     * batch by batch, so reads keep being served while it runs.
+     * @return the number of orders rendered
+     */
+    public synchronized int rebuild() {
+        long started = System.currentTimeMillis();
+        // Everything committed before the rebuild starts is covered by it
+        long covered = Math.max(changeFeedService.committedThrough(), prunedThrough());
+        // Rendered with the current menu names, which later menu item entries compare against
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM order_views_menu_names");
+            jdbcTemplate.update("INSERT INTO order_views_menu_names (menu_item_id, name) SELECT id, name FROM menu_items");
+        });
+        int rendered = 0;
+        String after = "";
+        List<String> batch;
+        do {
+            batch = jdbcTemplate.queryForList(
+                    "SELECT id FROM orders WHERE id > ? ORDER BY id FETCH FIRST " + BATCH_SIZE + " ROWS ONLY",
+                    String.class, after);
+            if (!batch.isEmpty()) {
+                List<String> ids = batch;
+                transactionTemplate.executeWithoutResult(status -> refresh(ids));
+                rendered += batch.size();
+                after = batch.get(batch.size() - 1);
+            }
+        } while (batch.size() == BATCH_SIZE);
+        jdbcTemplate.update("DELETE FROM order_views WHERE order_id NOT IN (SELECT id FROM orders)");
+        if (appliedThrough < 0) {
+            appliedThrough = readCheckpoint();
+        }
+        advanceCheckpoint(covered);
+        logger.info("Rebuilt order read model: {} orders in {} ms", rendered, System.currentTimeMillis() - started);
+        return rendered;
+    }
+
+    /**
+     * Rebuilds the model on startup when it is missing orders, e.g. after an upgrade or a restore,
+     * or when the change feed was pruned past its checkpoint. Otherwise the first
+     * {@link #refreshPending()} replays the feed entries written since the checkpoint, including
+     * those whose refresh was lost when the previous process stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfIncomplete() {
+        Long orders = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Long.class);
+        Long views = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_views", Long.class);
+        long checkpoint = readCheckpoint();
+        if (orders != null && !orders.equals(views)) {
+            logger.info("Order read model has {} of {} orders, rebuilding", views, orders);
+            rebuild();
+        } else if (checkpoint < prunedThrough()) {
+            logger.info("Change feed was pruned past the order read model checkpoint {}, rebuilding", checkpoint);
+            rebuild();
+        } else if (checkpoint == 0 && currentFeedSeq() > 0) {
+            // First start with a checkpoint; one pass over the orders beats replaying the whole feed
+            logger.info("Order read model has no checkpoint yet, rebuilding");
+            rebuild();
+        }
+    }
+
+    private long currentFeedSeq() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(seq) FROM sync_changes", Long.class);
+        return max != null ? max : 0;
+    }
+
+    private long prunedThrough() {
+        Long prunedThrough = jdbcTemplate.queryForObject(
+                "SELECT pruned_through FROM sync_retention WHERE id = 1", Long.class);
+        return prunedThrough != null ? prunedThrough : 0;
+    }
+
+    private void refresh(List<String> orderIds) {
+        List<OrderResponse> responses = orderRepository.findOrderViewsByIds(orderIds, OrderFields.ALL);
+        Map<String, Long> customerIds = new HashMap<>();
+        namedJdbcTemplate.query("SELECT id, customer_id FROM orders WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", orderIds),
+                rs -> {
+                    customerIds.put(rs.getString("id"), rs.getLong("customer_id"));
+                });
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(responses.size());
+        for (OrderResponse response : responses) {
+            rows.add(new Object[]{response.getId(), customerIds.get(response.getId()), response.getCustomerName(),
+                    response.getCustomerPhone(), response.getStatus().name(), response.getTotalAmount(),
+                    response.getOrderDate() != null ? Timestamp.valueOf(response.getOrderDate()) : null,
+                    writeItems(response.getItems()), now});
+        }
+        // Orders that no longer exist simply lose their row
+        namedJdbcTemplate.update("DELETE FROM order_views WHERE order_id IN (:ids)",
+                new MapSqlParameterSource("ids", orderIds));
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    private String writeItems(List<OrderResponse.OrderItemResponse> items) {
+        try {
+            return objectMapper.writeValueAsString(items != null ? items : List.of());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order items", e);
+        }
+    }
+
+    private List<OrderResponse.OrderItemResponse> readItems(String json) {
+        if (json == null) {
+            return new ArrayList<>();
+        }
+        try {
+            return objectMapper.readValue(json, ITEMS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupt order items document", e);
+        }
+    }
+
+    private static <T> Set<T> drain(Set<T> pending) {
+        Set<T> drained = new LinkedHashSet<>();
+        for (T key : pending) {
+            if (pending.remove(key)) {
+                drained.add(key);
+            }
+        }
+        return drained;
+    }
+}
@@ -16,6 +16,7 @@ import org.springframework.web.server.ResponseStatusException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,19 +26,33 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final CustomerService customerService;
     private final MenuService menuService;
+    private final CustomerSummaryService customerSummaryService;
+    private final ChangeFeedService changeFeedService;
+    private final OrderMetrics orderMetrics;
+    private final OrderPartitionService orderPartitionService;
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
 
     @Autowired
     public OrderService(OrderRepository orderRepository,
                        CustomerService customerService,
-                       MenuService menuService) {
+                       MenuService menuService,
+                       CustomerSummaryService customerSummaryService,
+                       ChangeFeedService changeFeedService,
+                       OrderMetrics orderMetrics,
+                       OrderPartitionService orderPartitionService) {
         this.orderRepository = orderRepository;
         this.customerService = customerService;
         this.menuService = menuService;
+        this.customerSummaryService = customerSummaryService;
+        this.changeFeedService = changeFeedService;
+        this.orderMetrics = orderMetrics;
+        this.orderPartitionService = orderPartitionService;
     }
 
     @Transactional
     public Order createOrderByName(String customerPhone, List<OrderItemByNameRequest> orderItemRequests) {
+        long phaseStart = System.nanoTime();
+
         // Validate input
         if (orderItemRequests == null || orderItemRequests.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Order must contain at least one item");
@@ -50,9 +65,12 @@ public class OrderService {
                 .count();
                 
         if (uniqueMenuItems != orderItemRequests.size()) {
+            orderMetrics.lineRejected(OrderMetrics.Api.BY_NAME, OrderMetrics.LineFailure.DUPLICATE_ITEM);
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Duplicate menu items found in the order");
         }
 
+        phaseStart = orderMetrics.validated(OrderMetrics.Api.BY_NAME, phaseStart);
+
         // Get customer
         Customer customer = customerService.getCustomerByPhone(customerPhone)
                 .orElseThrow(() -> new ResponseStatusException(
@@ -66,12 +84,15 @@ public class OrderService {
         // Add order items
         for (OrderItemByNameRequest itemRequest : orderItemRequests) {
             MenuItem menuItem = menuService.getMenuItemByName(itemRequest.getMenuItemName())
-                    .orElseThrow(() -> new ResponseStatusException(
-                            HttpStatus.BAD_REQUEST,
-                            String.format("Menu item with name '%s' not found", itemRequest.getMenuItemName())
-                    ));
+                    .orElseThrow(() -> {
+                        orderMetrics.lineRejected(OrderMetrics.Api.BY_NAME, OrderMetrics.LineFailure.ITEM_NOT_FOUND);
+                        return new ResponseStatusException(
+                                HttpStatus.BAD_REQUEST,
+                                String.format("Menu item with name '%s' not found", itemRequest.getMenuItemName()));
+                    });
 
             if (menuItem.getAvailable() == null || !menuItem.getAvailable()) {
+                orderMetrics.lineRejected(OrderMetrics.Api.BY_NAME, OrderMetrics.LineFailure.ITEM_UNAVAILABLE);
                 throw new ResponseStatusException(
                         HttpStatus.BAD_REQUEST,
                         String.format("Menu item '%s' is currently not available", menuItem.getName())
@@ -79,6 +100,7 @@ public class OrderService {
             }
 
             if (itemRequest.getQuantity() <= 0) {
+                orderMetrics.lineRejected(OrderMetrics.Api.BY_NAME, OrderMetrics.LineFailure.INVALID_QUANTITY);
                 throw new ResponseStatusException(
                         HttpStatus.BAD_REQUEST,
                         String.format("Invalid quantity %d for menu item %s",
@@ -91,19 +113,26 @@ public class OrderService {
             OrderItem orderItem = new OrderItem(order, menuItem, itemRequest.getQuantity());
             order.addOrderItem(orderItem);
         }
+        phaseStart = orderMetrics.resolved(OrderMetrics.Api.BY_NAME, phaseStart);
 
         // Calculate total amount
         order.calculateTotalAmount();
         
         // Save and return the order
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        customerSummaryService.recordOrder(savedOrder);
+        changeFeedService.recordUpsert(ChangeFeedService.ORDER, savedOrder.getId());
+        orderMetrics.persisted(OrderMetrics.Api.BY_NAME, phaseStart, orderItemRequests.size());
+        return savedOrder;
     }
 
     @Transactional
     public Order createOrder(String customerPhone, List<OrderItemRequest> orderItems) {
+        long phaseStart = System.nanoTime();
         if (orderItems == null || orderItems.isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Order must contain at least one item");
         }
+        phaseStart = orderMetrics.validated(OrderMetrics.Api.BY_ID, phaseStart);
 
         // Get customer
         Customer customer = customerService.getCustomerByPhone(customerPhone)
@@ -118,11 +147,15 @@ public class OrderService {
         // Add order items
         for (OrderItemRequest itemRequest : orderItems) {
             MenuItem menuItem = menuService.getMenuItemById(itemRequest.getMenuItemId())
-                    .orElseThrow(() -> new ResponseStatusException(
-                            HttpStatus.BAD_REQUEST,
-                            String.format("Menu item with id %d not found", itemRequest.getMenuItemId())));
+                    .orElseThrow(() -> {
+                        orderMetrics.lineRejected(OrderMetrics.Api.BY_ID, OrderMetrics.LineFailure.ITEM_NOT_FOUND);
+                        return new ResponseStatusException(
+                                HttpStatus.BAD_REQUEST,
+                                String.format("Menu item with id %d not found", itemRequest.getMenuItemId()));
+                    });
 
             if (itemRequest.getQuantity() <= 0) {
+                orderMetrics.lineRejected(OrderMetrics.Api.BY_ID, OrderMetrics.LineFailure.INVALID_QUANTITY);
                 throw new ResponseStatusException(
                         HttpStatus.BAD_REQUEST,
                         String.format("Invalid quantity %d for menu item %s",
@@ -133,20 +166,28 @@ public class OrderService {
             OrderItem orderItem = new OrderItem(order, menuItem, itemRequest.getQuantity());
             order.getOrderItems().add(orderItem);
         }
+        phaseStart = orderMetrics.resolved(OrderMetrics.Api.BY_ID, phaseStart);
 
         order.calculateTotalAmount();
 
-        return orderRepository.save(order);
+        Order savedOrder = orderRepository.save(order);
+        customerSummaryService.recordOrder(savedOrder);
+        changeFeedService.recordUpsert(ChangeFeedService.ORDER, savedOrder.getId());
+        orderMetrics.persisted(OrderMetrics.Api.BY_ID, phaseStart, orderItems.size());
+        return savedOrder;
     }
 
+    @Transactional(readOnly = true)
     public Optional<Order> getOrderById(String id) {
         return orderRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByCustomerPhone(String phoneNumber) {
-        return orderRepository.findByCustomerPhone(phoneNumber);
+        return orderRepository.findByCustomerPhoneSince(phoneNumber, orderPartitionService.liveOrdersStart());
     }
 
+    @Transactional(readOnly = true)
     public List<Order> getAllOrders() {
         return orderRepository.findAll();
     }
@@ -154,22 +195,35 @@ public class OrderService {
     @Transactional
     public Order updateOrderStatus(String id, OrderStatus status) {
         return orderRepository.findById(id).map(order -> {
+            OrderStatus previousStatus = order.getStatus();
             order.setStatus(status);
             order.setUpdatedAt(java.time.LocalDateTime.now());
-            return orderRepository.save(order);
+            Order savedOrder = orderRepository.save(order);
+            customerSummaryService.recordStatusChange(savedOrder, previousStatus);
+            changeFeedService.recordUpsert(ChangeFeedService.ORDER, savedOrder.getId());
+            return savedOrder;
         }).orElseThrow(() -> new ResponseStatusException(
                 HttpStatus.NOT_FOUND,
                 String.format("Order not found with id: %s", id)));
     }
 
+    @Transactional(readOnly = true)
     public List<Order> getOrdersByStatus(OrderStatus status) {
-        return orderRepository.findByStatus(status);
+        return orderRepository.findByStatusSince(status, orderPartitionService.liveOrdersStart());
     }
 
-    public Long getOrderCountByStatus(OrderStatus status) {
-        return orderRepository.countByStatus(status);
+    /**
+     * Counts the orders with {@code status} created from {@code since} on, or over all live orders
+     * when {@code since} is null.
+     */
+    @Transactional(readOnly = true)
+    public Long getOrderCountByStatus(OrderStatus status, LocalDateTime since) {
+        LocalDateTime liveStart = orderPartitionService.liveOrdersStart();
+        return orderRepository.countByStatusSince(status,
+                since != null && since.isAfter(liveStart) ? since : liveStart);
     }
     
+    @Transactional(readOnly = true)
     public Optional<Order> getLatestOrderByCustomerPhone(String phoneNumber) {
         if (phoneNumber == null || phoneNumber.trim().isEmpty()) {
             throw new ResponseStatusException(
@@ -177,9 +231,13 @@ public class OrderService {
                 "Phone number cannot be empty"
             );
         }
-        logger.info("Looking for latest order for phone number: {}", phoneNumber);
-        Optional<Order> order = orderRepository.findLatestOrderByCustomerPhone(phoneNumber);
-        logger.info("Found order for phone {}: {}", phoneNumber, order.isPresent() ? order.get().getId() : "Not found");
+        // Recent partitions first; only customers without a recent order cost a scan of the full history
+        Optional<Order> order = orderRepository.findLatestOrderByCustomerPhoneSince(
+                        phoneNumber, OrderPartitionService.currentPartitionsStart())
+                .or(() -> orderRepository.findLatestOrderByCustomerPhone(phoneNumber));
+        if (logger.isDebugEnabled()) {
+            logger.debug("Latest order for phone {}: {}", phoneNumber, order.map(Order::getId).orElse("Not found"));
+        }
         return order;
     }
 }
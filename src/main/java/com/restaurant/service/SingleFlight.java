@@ -0,0 +1,96 @@
+package com.restaurant.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads into one call. The first caller for a key runs the loader;
+ * callers arriving while it is in flight wait for and share its result (or exception).
+ * Nothing is kept once the call completes. A caller that joins a call already in flight can still
+ * get a result read before a write it has itself seen commit, up to one query's duration older
+ * than what an uncoalesced read would return; reads that must see such a write should not be
+ * coalesced.
+ * <p>
+ * Shared results are handed to several threads and transactions, so they must be immutable values
+ * or mapped copies (DTOs), never entities, which belong to the leader's persistence context. Calls are counted in {@code singleflight.calls}, tagged by operation and
+ * by role ({@code leader} or {@code coalesced}).
+ */
+@Component
+public class SingleFlight {
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter[]> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public SingleFlight(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> loader) {
+        String flightKey = operation + ':' + key;
+        CompletableFuture<Object> ours = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, ours);
+        Counter[] operationCounters = countersFor(operation);
+
+        if (existing != null) {
+            operationCounters[1].increment();
+            try {
+                return (T) existing.join();
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            } catch (CancellationException e) {
+                throw new IllegalStateException("Coalesced call for " + flightKey + " was cancelled", e);
+            }
+        }
+
+        operationCounters[0].increment();
+        try {
+            T result = loader.get();
+            ours.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            ours.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, ours);
+        }
+    }
+
+    /**
+     * Number of keys with a call currently in flight.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Counter[] countersFor(String operation) {
+        return counters.computeIfAbsent(operation, op -> new Counter[]{
+                Counter.builder("singleflight.calls").tag("operation", op).tag("role", "leader")
+                        .description("Reads that went to the database").register(meterRegistry),
+                Counter.builder("singleflight.calls").tag("operation", op).tag("role", "coalesced")
+                        .description("Reads that shared an in-flight call").register(meterRegistry)
+        });
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return e;
+    }
+}
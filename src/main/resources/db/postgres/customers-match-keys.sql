@@ -0,0 +1,11 @@
+-- Adds the matching keys that CustomerImportService compares imported rows against: the lower-case
+-- email and the phone number's digits (with a leading '+'). Run once before deploying the version
+-- that writes them; the application fills the keys of existing customers on startup.
+
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS email_key VARCHAR(255);
+ALTER TABLE customers ADD COLUMN IF NOT EXISTS phone_key VARCHAR(20);
+
+-- Not unique: customers stored before matching ignored formatting may share a key, and the import
+-- reports those rows instead of guessing
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_email_key ON customers (email_key);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_phone_key ON customers (phone_key);
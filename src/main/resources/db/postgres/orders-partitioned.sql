@@ -0,0 +1,121 @@
+-- Converts orders and order_items into tables range-partitioned by created_at, one partition per
+-- month (PostgreSQL 13+). Run once in a maintenance window, then set
+-- app.orders.partitioning.enabled=true so OrderPartitionService creates upcoming partitions and
+-- detaches expired ones.
+--
+-- A partitioned table's primary key must include the partition key, so orders is keyed by
+-- (id, created_at) and the foreign keys that referenced orders(id) alone are dropped. The
+-- application already deletes order items, client ids and orders explicitly.
+--
+-- That key only makes (id, created_at) unique, so order ids are claimed in order_ids by a trigger:
+-- an insert that reuses an id fails with a unique violation whatever its created_at. Ids of
+-- detached partitions stay claimed, so an archived month can be attached again.
+
+BEGIN;
+
+ALTER TABLE order_client_ids DROP CONSTRAINT IF EXISTS fk_order_client_ids_order;
+DROP TRIGGER IF EXISTS generate_order_id ON orders;
+
+ALTER TABLE order_items RENAME TO order_items_unpartitioned;
+ALTER TABLE orders RENAME TO orders_unpartitioned;
+DROP INDEX IF EXISTS idx_orders_customer, idx_orders_status, idx_order_items_order, idx_order_items_menu_item;
+
+CREATE TABLE orders (
+    id VARCHAR(20) NOT NULL,
+    customer_id BIGINT NOT NULL REFERENCES customers (id) ON DELETE CASCADE,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING' REFERENCES order_status_enum (status),
+    total_amount DECIMAL(10, 2) DEFAULT 0.00,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE order_items (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    order_id VARCHAR(20) NOT NULL,
+    menu_item_id BIGINT NOT NULL REFERENCES menu_items (id) ON DELETE CASCADE,
+    quantity INTEGER NOT NULL,
+    unit_price DECIMAL(10, 2) NOT NULL,
+    total_price DECIMAL(10, 2) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE order_ids (
+    id VARCHAR(20) NOT NULL PRIMARY KEY
+);
+
+CREATE FUNCTION claim_order_id() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO order_ids (id) VALUES (NEW.id);
+    ELSIF TG_OP = 'UPDATE' THEN
+        IF NEW.id <> OLD.id THEN
+            UPDATE order_ids SET id = NEW.id WHERE id = OLD.id;
+        END IF;
+    ELSE
+        DELETE FROM order_ids WHERE id = OLD.id;
+        RETURN OLD;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Created on the parent, so every partition gets its own (small) copy
+CREATE INDEX idx_orders_id ON orders (id);
+CREATE INDEX idx_orders_customer ON orders (customer_id, created_at);
+CREATE INDEX idx_orders_status ON orders (status, created_at);
+CREATE INDEX idx_order_items_order ON order_items (order_id);
+CREATE INDEX idx_order_items_menu_item ON order_items (menu_item_id);
+
+-- Monthly partitions from the oldest existing order up to two months ahead; names match
+-- OrderPartitionService.partitionName (orders_p2024_01, order_items_p2024_01, ...)
+DO $$
+DECLARE
+    month DATE := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM orders_unpartitioned), now()));
+    last_month DATE := date_trunc('month', now()) + INTERVAL '2 months';
+    suffix TEXT;
+BEGIN
+    WHILE month <= last_month LOOP
+        suffix := to_char(month, '"p"YYYY"_"MM');
+        EXECUTE format('CREATE TABLE orders_%s PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                       suffix, month, month + INTERVAL '1 month');
+        EXECUTE format('CREATE TABLE order_items_%s PARTITION OF order_items FOR VALUES FROM (%L) TO (%L)',
+                       suffix, month, month + INTERVAL '1 month');
+        month := month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+-- Catches rows outside every monthly range, e.g. offline uploads for an already detached month
+CREATE TABLE orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE order_items_default PARTITION OF order_items DEFAULT;
+
+INSERT INTO orders (id, customer_id, status, total_amount, created_at, updated_at)
+SELECT id, customer_id, status, total_amount, created_at, updated_at FROM orders_unpartitioned;
+
+-- The existing ids were unique under the old primary key; claim them in one pass, then let the
+-- trigger claim every new one
+INSERT INTO order_ids (id) SELECT id FROM orders;
+
+CREATE TRIGGER claim_order_id
+    BEFORE INSERT OR UPDATE OF id OR DELETE ON orders
+    FOR EACH ROW
+    EXECUTE FUNCTION claim_order_id();
+
+-- Items take their order's created_at (the application writes them that way too), so an order and
+-- its items always share a partition and are detached together
+INSERT INTO order_items (id, order_id, menu_item_id, quantity, unit_price, total_price, created_at)
+SELECT oi.id, oi.order_id, oi.menu_item_id, oi.quantity, oi.unit_price, oi.total_price, o.created_at
+FROM order_items_unpartitioned oi
+JOIN orders_unpartitioned o ON o.id = oi.order_id;
+
+SELECT setval(pg_get_serial_sequence('order_items', 'id'), COALESCE((SELECT MAX(id) FROM order_items), 0) + 1, false);
+
+DROP TABLE order_items_unpartitioned;
+DROP TABLE orders_unpartitioned;
+
+COMMIT;
+
+ANALYZE orders;
+ANALYZE order_ids;
+ANALYZE order_items;
@@ -24,6 +24,9 @@ CREATE TABLE customers (
     address CLOB,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP,
+    -- Matching keys (lower-case email, phone digits) kept by the application on every write
+    email_key VARCHAR(255),
+    phone_key VARCHAR(20),
     CONSTRAINT uk_customers_email UNIQUE (email),
     CONSTRAINT uk_customers_phone UNIQUE (phone_number)
 );
@@ -76,13 +79,114 @@ CREATE TABLE order_items (
         ON DELETE CASCADE
 );
 
+-- Client-generated ids of orders uploaded by offline POS terminals, so replayed uploads are idempotent
+CREATE TABLE order_client_ids (
+    client_order_id VARCHAR(64) NOT NULL PRIMARY KEY,
+    order_id VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_order_client_ids_order
+        FOREIGN KEY (order_id)
+        REFERENCES orders (id)
+        ON DELETE CASCADE
+);
+
+-- Per-customer lifetime summary, maintained on order creation/cancellation
+CREATE TABLE customer_summaries (
+    customer_id BIGINT NOT NULL PRIMARY KEY,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    lifetime_spend DECIMAL(12, 2) NOT NULL DEFAULT 0.00,
+    last_order_at TIMESTAMP,
+    favourite_menu_item_id BIGINT,
+    favourite_item_name VARCHAR(255),
+    favourite_item_quantity BIGINT,
+    updated_at TIMESTAMP
+);
+
+-- Running quantity per customer and menu item, used to pick the favourite item
+CREATE TABLE customer_item_stats (
+    customer_id BIGINT NOT NULL,
+    menu_item_id BIGINT NOT NULL,
+    quantity BIGINT NOT NULL,
+    PRIMARY KEY (customer_id, menu_item_id)
+);
+
+-- Denormalized order read model: one rendered OrderResponse per order, maintained asynchronously
+CREATE TABLE order_views (
+    order_id VARCHAR(20) NOT NULL PRIMARY KEY,
+    customer_id BIGINT,
+    customer_name VARCHAR(255),
+    customer_phone VARCHAR(20),
+    status VARCHAR(20) NOT NULL,
+    total_amount DECIMAL(10, 2),
+    order_date TIMESTAMP,
+    items CLOB,
+    refreshed_at TIMESTAMP NOT NULL
+);
+
+-- Change feed for POS delta sync: one row per insert/update/delete of an order, menu item or
+-- customer. Clients page through it by seq, which is the primary key, so a sync never scans the
+-- entity tables.
+CREATE TABLE sync_changes (
+    seq BIGINT NOT NULL GENERATED ALWAYS AS IDENTITY (START WITH 1, INCREMENT BY 1) PRIMARY KEY,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id VARCHAR(40) NOT NULL,
+    operation VARCHAR(10) NOT NULL,
+    changed_at TIMESTAMP NOT NULL
+);
+
+-- Highest seq removed by retention pruning; cursors below it need a full resync
+CREATE TABLE sync_retention (
+    id INTEGER NOT NULL PRIMARY KEY,
+    pruned_through BIGINT NOT NULL
+);
+
+INSERT INTO sync_retention (id, pruned_through) VALUES (1, 0);
+
+-- Highest sync_changes seq the order read model has applied, with everything before it
+CREATE TABLE order_views_progress (
+    id INTEGER NOT NULL PRIMARY KEY,
+    applied_through BIGINT NOT NULL
+);
+
+INSERT INTO order_views_progress (id, applied_through) VALUES (1, 0);
+
+-- Menu item names as last rendered into order_views; a menu item change only re-renders orders
+-- when the name differs
+CREATE TABLE order_views_menu_names (
+    menu_item_id BIGINT NOT NULL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL
+);
+
+-- Written to the primary every few hundred milliseconds; how far a read replica's copy trails
+-- behind is its replication lag
+CREATE TABLE replication_heartbeat (
+    id INTEGER NOT NULL PRIMARY KEY,
+    beat_millis BIGINT NOT NULL
+);
+
+INSERT INTO replication_heartbeat (id, beat_millis) VALUES (1, 0);
+
+-- Checksum of the schema scripts last applied; with app.sql.init.skip-when-unchanged a restart
+-- skips the scripts while it still matches (see SchemaScriptInitializer)
+CREATE TABLE schema_checksum (
+    id INTEGER NOT NULL PRIMARY KEY,
+    checksum VARCHAR(64) NOT NULL,
+    applied_at TIMESTAMP NOT NULL
+);
+
 -- Create indexes for better query performance
 CREATE INDEX idx_customers_phone ON customers(phone_number);
+CREATE INDEX idx_customers_email_key ON customers(email_key);
+CREATE INDEX idx_customers_phone_key ON customers(phone_key);
 CREATE INDEX idx_menu_items_category ON menu_items(category);
 CREATE INDEX idx_orders_customer ON orders(customer_id);
 CREATE INDEX idx_orders_status ON orders(status);
 CREATE INDEX idx_order_items_order ON order_items(order_id);
 CREATE INDEX idx_order_items_menu_item ON order_items(menu_item_id);
+CREATE INDEX idx_sync_changes_changed_at ON sync_changes(changed_at);
+CREATE INDEX idx_order_views_phone ON order_views(customer_phone);
+CREATE INDEX idx_order_views_status ON order_views(status);
+CREATE INDEX idx_order_views_customer ON order_views(customer_id);
 
 -- Create triggers to automatically update the updated_at column
 -- Derby uses a different syntax for triggers
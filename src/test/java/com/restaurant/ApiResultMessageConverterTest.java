@@ -0,0 +1,58 @@
+package com.restaurant;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.config.ApiResultMessageConverter;
+import com.restaurant.dto.ApiResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiResultMessageConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ApiResultMessageConverter converter = new ApiResultMessageConverter(objectMapper);
+
+    @Test
+    void write_PageEnvelope_ShouldKeepFlatShapeAndOmitNulls() throws Exception {
+        ApiResult.Page<String> page = new ApiResult.Page<>(List.of("a", "b"));
+        page.setTotalCount(10L);
+        page.setHasNext(true);
+
+        JsonNode json = write(page);
+
+        assertEquals("success", json.get("status").asText());
+        assertEquals(2, json.get("count").asInt(), "count should be a top-level field");
+        assertEquals(10, json.get("totalCount").asInt());
+        assertEquals(2, json.get("data").size());
+        assertFalse(json.has("message"), "Null fields should be omitted");
+        assertFalse(json.has("nextCursor"), "Null fields should be omitted");
+    }
+
+    @Test
+    void write_ErrorEnvelope_ShouldCarryMessageAndTimestamp() throws Exception {
+        JsonNode json = write(ApiResult.error("Customer not found with id: 1"));
+
+        assertEquals("error", json.get("status").asText());
+        assertEquals("Customer not found with id: 1", json.get("message").asText());
+        assertTrue(json.has("timestamp"), "Errors should be timestamped");
+        assertFalse(json.has("data"));
+    }
+
+    @Test
+    void canRead_ShouldBeWriteOnly() {
+        assertFalse(converter.canRead(ApiResult.class, MediaType.APPLICATION_JSON));
+        assertTrue(converter.canWrite(ApiResult.Exists.class, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(String.class, MediaType.APPLICATION_JSON));
+    }
+
+    private JsonNode write(ApiResult<?> body) throws Exception {
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(body, MediaType.APPLICATION_JSON, output);
+        return objectMapper.readTree(output.getBodyAsString());
+    }
+}
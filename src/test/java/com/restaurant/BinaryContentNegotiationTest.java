@@ -0,0 +1,99 @@
+package com.restaurant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.restaurant.config.WebConfig;
+import com.restaurant.dto.OrderResponse;
+import com.restaurant.entity.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryContentNegotiationTest {
+
+    private static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final List<HttpMessageConverter<?>> converters = configuredConverters();
+
+    @Test
+    void binaryEncodings_ShouldRoundTripOrderResponse() throws Exception {
+        OrderResponse order = sampleOrder();
+
+        assertEquals(order, roundTrip(order, CBOR));
+        assertEquals(order, roundTrip(order, SMILE));
+    }
+
+    @Test
+    void binaryEncodings_ShouldBeSmallerThanJson() throws Exception {
+        OrderResponse order = sampleOrder();
+        int json = write(order, MediaType.APPLICATION_JSON).length;
+
+        assertTrue(write(order, CBOR).length < json, "CBOR should be more compact than JSON");
+        assertTrue(write(order, SMILE).length < json, "Smile should be more compact than JSON");
+    }
+
+    @Test
+    void wildcardAccept_ShouldStillPreferJson() {
+        HttpMessageConverter<?> first = converters.stream()
+                .filter(converter -> converter.canWrite(OrderResponse.class, MediaType.ALL))
+                .findFirst()
+                .orElseThrow();
+
+        assertInstanceOf(MappingJackson2HttpMessageConverter.class, first);
+    }
+
+    private List<HttpMessageConverter<?>> configuredConverters() {
+        List<HttpMessageConverter<?>> list = new ArrayList<>();
+        list.add(new MappingJackson2HttpMessageConverter(objectMapper));
+        new WebConfig(objectMapper).extendMessageConverters(list);
+        return list;
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] write(Object body, MediaType mediaType) throws Exception {
+        HttpMessageConverter<Object> converter = (HttpMessageConverter<Object>) converters.stream()
+                .filter(c -> c.canWrite(body.getClass(), mediaType))
+                .findFirst()
+                .orElseThrow();
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(body, mediaType, output);
+        return output.getBodyAsBytes();
+    }
+
+    @SuppressWarnings("unchecked")
+    private OrderResponse roundTrip(OrderResponse order, MediaType mediaType) throws Exception {
+        HttpMessageConverter<Object> reader = (HttpMessageConverter<Object>) converters.stream()
+                .filter(c -> c.canRead(OrderResponse.class, mediaType))
+                .findFirst()
+                .orElseThrow();
+        MockHttpInputMessage input = new MockHttpInputMessage(write(order, mediaType));
+        input.getHeaders().setContentType(mediaType);
+        return (OrderResponse) reader.read(OrderResponse.class, input);
+    }
+
+    private OrderResponse sampleOrder() {
+        List<OrderResponse.OrderItemResponse> items = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            items.add(new OrderResponse.OrderItemResponse("Item " + i, 2,
+                    new BigDecimal("9.99"), new BigDecimal("19.98")));
+        }
+        return new OrderResponse("ORD-20240101-0001", "ORD-20240101-0001", "John Doe", "+1234567890",
+                LocalDateTime.of(2024, 1, 1, 12, 30), OrderStatus.PENDING, new BigDecimal("99.90"), items);
+    }
+}
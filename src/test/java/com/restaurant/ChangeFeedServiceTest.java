@@ -0,0 +1,186 @@
+package com.restaurant;
+
+import com.restaurant.dto.SyncChanges;
+import com.restaurant.entity.Customer;
+import com.restaurant.entity.MenuItem;
+import com.restaurant.repository.CustomerRepository;
+import com.restaurant.repository.MenuItemRepository;
+import com.restaurant.repository.OrderRepository;
+import com.restaurant.service.ChangeFeedService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs with {@code app.sync.max-writer-millis=0}, so gaps left by rollbacks never hold the cursor;
+ * open gaps and the writer limit are checked with separate instances.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:derby:memory:changeFeed;create=true",
+        "app.sync.max-writer-millis=0"
+})
+@ActiveProfiles("test")
+class ChangeFeedServiceTest {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void getChanges_PagedWithCursor_ShouldReturnEveryChangeOnce() {
+        long since = changeFeedService.currentCursor();
+        List<Long> menuItemIds = jdbcTemplate.queryForList(
+                "SELECT id FROM menu_items ORDER BY id FETCH FIRST 5 ROWS ONLY", Long.class);
+        transactionTemplate.executeWithoutResult(status ->
+                changeFeedService.recordUpserts(ChangeFeedService.MENU_ITEM, menuItemIds));
+
+        List<Long> seen = new ArrayList<>();
+        int pages = 0;
+        SyncChanges page;
+        do {
+            page = changeFeedService.getChanges(since, 2);
+            assertTrue(page.getCursor() > since, "Every page moves the cursor");
+            page.getMenuItems().stream().map(MenuItem::getId).forEach(seen::add);
+            since = page.getCursor();
+            pages++;
+        } while (page.isHasMore());
+
+        assertEquals(3, pages);
+        assertEquals(menuItemIds, seen.stream().sorted().toList());
+        assertEquals(changeFeedService.currentCursor(), since);
+        SyncChanges caughtUp = changeFeedService.getChanges(since, 2);
+        assertEquals(since, caughtUp.getCursor());
+        assertFalse(caughtUp.isHasMore());
+        assertTrue(caughtUp.getMenuItems().isEmpty());
+    }
+
+    @Test
+    void getChanges_DeletedEntities_ShouldReturnTombstones() {
+        long since = changeFeedService.currentCursor();
+        Long deleted = insertCustomer("Tombstone", "tombstone@example.com", "555-400-0001");
+        Long vanished = insertCustomer("Vanished", "vanished@example.com", "555-400-0002");
+        Long kept = insertCustomer("Kept", "kept@example.com", "555-400-0003");
+        transactionTemplate.executeWithoutResult(status -> {
+            changeFeedService.recordUpserts(ChangeFeedService.CUSTOMER, List.of(deleted, vanished, kept));
+            jdbcTemplate.update("DELETE FROM customers WHERE id IN (?, ?)", deleted, vanished);
+            // vanished is deleted without a tombstone of its own
+            changeFeedService.recordDeletes(ChangeFeedService.CUSTOMER, List.of(deleted));
+            changeFeedService.recordDeletes(ChangeFeedService.ORDER, List.of("ORDGONE"));
+        });
+
+        SyncChanges changes = changeFeedService.getChanges(since, 100);
+
+        assertEquals(List.of(kept), changes.getCustomers().stream().map(Customer::getId).toList());
+        assertEquals(List.of(deleted, vanished), changes.getDeleted().getCustomers());
+        assertEquals(List.of("ORDGONE"), changes.getDeleted().getOrders());
+        assertTrue(changes.getOrders().isEmpty());
+    }
+
+    @Test
+    void getChanges_EntryAfterOpenGap_ShouldBeHeldBack() {
+        ChangeFeedService gapAware = newChangeFeedService(60_000);
+        Long menuItemId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM menu_items", Long.class);
+        transactionTemplate.executeWithoutResult(status ->
+                changeFeedService.recordUpserts(ChangeFeedService.MENU_ITEM, List.of(menuItemId)));
+        long beforeGap = changeFeedService.currentCursor();
+        // A writer that allocated the next seq and then rolled back
+        transactionTemplate.executeWithoutResult(status -> {
+            changeFeedService.recordUpserts(ChangeFeedService.MENU_ITEM, List.of(menuItemId));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                changeFeedService.recordUpserts(ChangeFeedService.CUSTOMER, List.of(1L)));
+
+        SyncChanges held = gapAware.getChanges(beforeGap, 10);
+
+        assertEquals(beforeGap, held.getCursor(), "The writer of the missing seq may still commit");
+        assertTrue(held.getCustomers().isEmpty());
+        assertFalse(held.isHasMore());
+        assertTrue(gapAware.currentCursor() <= beforeGap);
+        assertEquals(1, changeFeedService.getChanges(beforeGap, 10).getCustomers().size(),
+                "Served once the gap has expired");
+    }
+
+    @Test
+    void recordUpserts_WriterOverTimeLimit_ShouldRollBack() {
+        ChangeFeedService limited = newChangeFeedService(50);
+        long since = changeFeedService.currentCursor();
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            limited.recordUpserts(ChangeFeedService.CUSTOMER, List.of(1L));
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sync_changes WHERE seq > ?",
+                Integer.class, since));
+    }
+
+    @Test
+    void getChanges_CursorBeforePrunedHistory_ShouldReturnGone() {
+        long since = changeFeedService.currentCursor();
+        jdbcTemplate.update("INSERT INTO sync_changes (entity_type, entity_id, operation, changed_at) "
+                + "VALUES ('ORDER', 'ORDOLD', 'UPSERT', ?)", Timestamp.valueOf(LocalDateTime.now().minusDays(31)));
+        long pruned = jdbcTemplate.queryForObject("SELECT MAX(seq) FROM sync_changes", Long.class);
+
+        changeFeedService.pruneHistory();
+
+        ResponseStatusException gone = assertThrows(ResponseStatusException.class,
+                () -> changeFeedService.getChanges(since, 10));
+        assertEquals(HttpStatus.GONE, gone.getStatusCode());
+        assertEquals(pruned, changeFeedService.currentCursor(), "A full sync resumes from the pruned seq");
+        assertEquals(pruned, changeFeedService.getChanges(pruned, 10).getCursor());
+    }
+
+    @Test
+    void getChanges_InvalidArguments_ShouldThrow() {
+        long since = changeFeedService.currentCursor();
+
+        assertThrows(IllegalArgumentException.class, () -> changeFeedService.getChanges(-1, 10));
+        assertThrows(IllegalArgumentException.class, () -> changeFeedService.getChanges(since, 0));
+        assertThrows(IllegalArgumentException.class, () -> changeFeedService.getChanges(since, 1001));
+    }
+
+    private ChangeFeedService newChangeFeedService(long maxWriterMillis) {
+        return new ChangeFeedService(jdbcTemplate, namedJdbcTemplate, orderRepository, menuItemRepository,
+                customerRepository, maxWriterMillis, 30, 1000);
+    }
+
+    private Long insertCustomer(String name, String email, String phone) {
+        jdbcTemplate.update("INSERT INTO customers (name, email, phone_number) VALUES (?, ?, ?)", name, email, phone);
+        return jdbcTemplate.queryForObject("SELECT id FROM customers WHERE phone_number = ?", Long.class, phone);
+    }
+}
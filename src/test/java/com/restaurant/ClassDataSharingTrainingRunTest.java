@@ -0,0 +1,42 @@
+package com.restaurant;
+
+import com.restaurant.config.ClassDataSharingTrainingRun;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The Docker image trains the AppCDS archive with the prod context path; the default training
+ * paths must reach the menu handlers under it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:derby:memory:trainingRun;create=true",
+        "server.servlet.context-path=/api"
+})
+@ActiveProfiles("test")
+class ClassDataSharingTrainingRunTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ClassDataSharingTrainingRun trainingRun;
+
+    @Test
+    void train_DefaultPathsUnderProdContextPath_ShouldAllSucceed() {
+        assertEquals(List.of(), trainingRun.train("http://localhost:" + port + "/api"));
+    }
+
+    @Test
+    void train_PathsMissingTheControllerPrefix_ShouldBeReported() {
+        ClassDataSharingTrainingRun unprefixed = new ClassDataSharingTrainingRun(true, List.of("/menu"));
+
+        assertEquals(List.of("/menu"), unprefixed.train("http://localhost:" + port + "/api"));
+    }
+}
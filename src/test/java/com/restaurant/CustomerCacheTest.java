@@ -0,0 +1,128 @@
+package com.restaurant;
+
+import com.restaurant.entity.Customer;
+import com.restaurant.service.CustomerCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerCacheTest {
+
+    private static final String TEST_PHONE = "9951402390";
+
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerCache customerCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        customerCache = new CustomerCache(meterRegistry, 100, 300);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getByPhone_SecondLookup_ShouldNotHitLoader() {
+        Customer customer = customer(1L, TEST_PHONE);
+
+        customerCache.getByPhone(TEST_PHONE, phone -> load(customer));
+        Optional<Customer> cached = customerCache.getByPhone(TEST_PHONE, phone -> load(customer));
+
+        assertTrue(cached.isPresent(), "Customer should be returned from the cache");
+        assertEquals(1, loads.get(), "Loader should only run on the first lookup");
+        customerCache.getById(1L, id -> load(customer));
+        assertEquals(1, loads.get(), "Phone lookup should also populate the id cache");
+        assertTrue(meterRegistry.get("customers.cache.hit.ratio").tag("cache", "customers.byId").gauge().value() > 0,
+                "Hit ratio gauge should be published");
+    }
+
+    @Test
+    void evict_WhenPhoneChanged_ShouldDropOldPhoneMapping() {
+        customerCache.getByPhone(TEST_PHONE, phone -> load(customer(1L, TEST_PHONE)));
+        customerCache.evict(1L);
+        customerCache.getById(1L, id -> load(customer(1L, "1112223333")));
+
+        Optional<Customer> byOldPhone = customerCache.getByPhone(TEST_PHONE, phone -> load(null));
+
+        assertFalse(byOldPhone.isPresent(), "Old phone number should no longer resolve to the customer");
+        assertEquals(3, loads.get(), "Lookup by the old phone number should go to the loader");
+    }
+
+    @Test
+    void evict_ShouldRemoveIdAndPhoneEntries() {
+        Customer customer = customer(1L, TEST_PHONE);
+        customerCache.getByPhone(TEST_PHONE, phone -> load(customer));
+
+        customerCache.evict(1L);
+        customerCache.getByPhone(TEST_PHONE, phone -> load(customer));
+
+        assertEquals(2, loads.get(), "Evicted customer should be reloaded");
+    }
+
+    @Test
+    void getById_CallerModifiesResult_ShouldNotChangeCachedCustomer() {
+        Customer first = customerCache.getById(1L, id -> load(customer(1L, TEST_PHONE))).orElseThrow();
+        first.setName("Changed By Caller");
+
+        Customer second = customerCache.getById(1L, id -> load(null)).orElseThrow();
+
+        assertNotSame(first, second);
+        assertEquals("Test User", second.getName());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evict_DuringLoad_ShouldNotKeepTheValueLoadedBeforeTheWrite() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> read = executor.submit(() -> customerCache.getById(1L, id -> {
+                loading.countDown();
+                await(release);
+                return load(customer(1L, TEST_PHONE));
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<?> write = executor.submit(() -> customerCache.evict(1L));
+            Thread.sleep(100);
+            release.countDown();
+            read.get(5, TimeUnit.SECONDS);
+            write.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        customerCache.getById(1L, id -> load(customer(1L, "1112223333")));
+
+        assertEquals(2, loads.get(), "The write's eviction should not be overtaken by the earlier load");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Optional<Customer> load(Customer customer) {
+        loads.incrementAndGet();
+        return Optional.ofNullable(customer);
+    }
+
+    private static Customer customer(Long id, String phone) {
+        Customer customer = new Customer("Test User", "test@example.com", phone);
+        customer.setId(id);
+        return customer;
+    }
+}
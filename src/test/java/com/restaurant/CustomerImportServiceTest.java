@@ -0,0 +1,100 @@
+package com.restaurant;
+
+import com.restaurant.dto.CustomerImportResult;
+import com.restaurant.entity.Customer;
+import com.restaurant.service.CustomerImportService;
+import com.restaurant.service.CustomerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:derby:memory:customerImport;create=true")
+@ActiveProfiles("test")
+class CustomerImportServiceTest {
+
+    @Autowired
+    private CustomerImportService customerImportService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void importCsv_ExistingCustomerFormattedDifferently_ShouldUpdateIt() throws Exception {
+        jdbcTemplate.update("INSERT INTO customers (name, email, phone_number) VALUES (?, ?, ?)",
+                "Ada Lovelace", "Ada@Example.com", "(555) 010-2030");
+        // Stored without matching keys, like a customer written before the key columns existed
+        assertTrue(customerImportService.backfillMatchKeys() >= 1);
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM customers WHERE email = 'Ada@Example.com'", Long.class);
+
+        CustomerImportResult result = importCsv("""
+                name,email,phoneNumber
+                Ada King,ada@example.com,555.010.2030
+                Grace Hopper,grace@example.com,555-010-4040
+                """);
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getInserted());
+        assertEquals(0, result.getFailed(), () -> String.valueOf(result.getErrors()));
+        assertEquals("Ada King", jdbcTemplate.queryForObject(
+                "SELECT name FROM customers WHERE id = ?", String.class, id));
+    }
+
+    @Test
+    void importCsv_NewCustomer_ShouldBeFoundByPhoneAsWritten() throws Exception {
+        importCsv("""
+                name,email,phone
+                Alan Turing,Alan@Example.com,+44 20 7946 0000
+                """);
+
+        Customer customer = customerService.getCustomerByPhone("+44 20 7946 0000").orElseThrow();
+        assertEquals("Alan@Example.com", customer.getEmail());
+    }
+
+    @Test
+    void importCsv_KeyMatchingTwoExistingCustomers_ShouldRejectOnlyThatRow() throws Exception {
+        jdbcTemplate.update("INSERT INTO customers (name, email, phone_number) VALUES (?, ?, ?)",
+                "Twin A", "twin.a@example.com", "555-777-8888");
+        jdbcTemplate.update("INSERT INTO customers (name, email, phone_number) VALUES (?, ?, ?)",
+                "Twin B", "twin.b@example.com", "5557778888");
+        customerImportService.backfillMatchKeys();
+
+        CustomerImportResult result = importCsv("""
+                name,email,phoneNumber
+                Twin C,twin.c@example.com,555 777 8888
+                Edsger Dijkstra,edsger@example.com,555-010-5050
+                """);
+
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getLine());
+        assertEquals(1, result.getInserted());
+    }
+
+    @Test
+    void importCsv_CustomerCreatedThroughApi_ShouldMatchByStoredKeys() throws Exception {
+        Customer saved = customerService.saveCustomer(new Customer("Barbara Liskov", "Barbara@Example.com", "555 010 6060"));
+        assertEquals("5550106060", jdbcTemplate.queryForObject(
+                "SELECT phone_key FROM customers WHERE id = ?", String.class, saved.getId()));
+
+        CustomerImportResult result = importCsv("""
+                name,email,phoneNumber
+                Barbara Liskov,barbara@example.com,(555) 010-6060
+                """);
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(0, result.getInserted());
+    }
+
+    private CustomerImportResult importCsv(String csv) throws Exception {
+        return customerImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+}
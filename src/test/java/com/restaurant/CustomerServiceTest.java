@@ -0,0 +1,61 @@
+package com.restaurant;
+
+import com.restaurant.entity.Customer;
+import com.restaurant.repository.CustomerRepository;
+import com.restaurant.repository.OrderRepository;
+import com.restaurant.service.ChangeFeedService;
+import com.restaurant.service.CustomerCache;
+import com.restaurant.service.CustomerService;
+import com.restaurant.service.CustomerSummaryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CustomerServiceTest {
+
+    private CustomerRepository customerRepository;
+    private CustomerService customerService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        customerRepository = mock(CustomerRepository.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.getArgument(0, TransactionCallback.class).doInTransaction(null));
+        customerService = new CustomerService(customerRepository, mock(OrderRepository.class),
+                new CustomerCache(new SimpleMeterRegistry(), 100, 300), mock(CustomerSummaryService.class),
+                mock(ChangeFeedService.class), transactionTemplate, mock(EntityManagerFactory.class), 30000, 1000);
+    }
+
+    @Test
+    void countCustomers_SaveDuringCount_ShouldNotCacheTheOlderCount() {
+        Customer customer = new Customer("Test User", "test@example.com", "9951402390");
+        customer.setId(1L);
+        when(customerRepository.save(customer)).thenReturn(customer);
+        AtomicInteger counts = new AtomicInteger();
+        when(customerRepository.count()).thenAnswer(invocation -> {
+            if (counts.incrementAndGet() == 1) {
+                // Counted before the save committed, returned after it
+                customerService.saveCustomer(customer);
+                return 5L;
+            }
+            return 6L;
+        });
+
+        assertEquals(5L, customerService.countCustomers());
+        assertEquals(6L, customerService.countCustomers(), "The pre-save count should not have been cached");
+        assertEquals(6L, customerService.countCustomers());
+        assertEquals(2, counts.get(), "A count not raced by a write is cached");
+    }
+}
@@ -0,0 +1,98 @@
+package com.restaurant;
+
+import com.restaurant.dto.OrderItemByNameRequest;
+import com.restaurant.service.CustomerSummaryService;
+import com.restaurant.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:derby:memory:customerSummary;create=true")
+@ActiveProfiles("test")
+class CustomerSummaryServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerSummaryService customerSummaryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void recordOrder_ConcurrentFirstOrders_ShouldBothBeCounted() throws Exception {
+        List<OrderItemByNameRequest> items = List.of(item("Margherita Pizza", 1), item("Caesar Salad", 2));
+        // Derby compiles statements on first use; do that once before racing
+        jdbcTemplate.update("INSERT INTO customers (name, email, phone_number) VALUES (?, ?, ?)",
+                "Warm-up", "warm.up@example.com", "555-300-0100");
+        orderService.createOrderByName("555-300-0100", items);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 5; i++) {
+                String phone = "555-300-000" + i;
+                jdbcTemplate.update("INSERT INTO customers (name, email, phone_number) VALUES (?, ?, ?)",
+                        "Racer " + i, "racer" + i + "@example.com", phone);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> orders = new ArrayList<>();
+                for (int t = 0; t < 2; t++) {
+                    orders.add(executor.submit(() -> {
+                        start.await();
+                        return orderService.createOrderByName(phone, items);
+                    }));
+                }
+                start.countDown();
+                for (Future<?> order : orders) {
+                    order.get();
+                }
+
+                Long customerId = customerId(phone);
+                assertEquals(2L, jdbcTemplate.queryForObject(
+                        "SELECT order_count FROM customer_summaries WHERE customer_id = ?", Long.class, customerId));
+                assertEquals(4L, jdbcTemplate.queryForObject("SELECT quantity FROM customer_item_stats s "
+                        + "JOIN menu_items m ON m.id = s.menu_item_id WHERE s.customer_id = ? AND m.name = ?",
+                        Long.class, customerId, "Caesar Salad"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rebuildIfEmpty_OrdersWithoutSummaries_ShouldBackfill() {
+        String phone = "555-300-1000";
+        jdbcTemplate.update("INSERT INTO customers (name, email, phone_number) VALUES (?, ?, ?)",
+                "Backfill", "backfill@example.com", phone);
+        orderService.createOrderByName(phone, List.of(item("Caesar Salad", 3)));
+        jdbcTemplate.update("DELETE FROM customer_summaries");
+
+        customerSummaryService.rebuildIfEmpty();
+
+        assertEquals(1L, jdbcTemplate.queryForObject(
+                "SELECT order_count FROM customer_summaries WHERE customer_id = ?", Long.class, customerId(phone)));
+        assertEquals("Caesar Salad", customerSummaryService.getSummary(customerId(phone))
+                .orElseThrow().getFavouriteItemName());
+    }
+
+    private Long customerId(String phone) {
+        return jdbcTemplate.queryForObject("SELECT id FROM customers WHERE phone_number = ?", Long.class, phone);
+    }
+
+    private static OrderItemByNameRequest item(String name, int quantity) {
+        OrderItemByNameRequest request = new OrderItemByNameRequest();
+        request.setMenuItemName(name);
+        request.setQuantity(quantity);
+        return request;
+    }
+}
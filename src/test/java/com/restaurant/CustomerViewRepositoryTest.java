@@ -0,0 +1,52 @@
+package com.restaurant;
+
+import com.restaurant.dto.CustomerListItem;
+import com.restaurant.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:derby:memory:customerViews;create=true")
+@ActiveProfiles("test")
+class CustomerViewRepositoryTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findCustomerViews_SelectedFields_ShouldPopulateOnlyThoseAndKeepTheCursor() {
+        // DataLoader seeds two customers
+        jdbcTemplate.update("INSERT INTO customers (name, email, phone_number) VALUES (?, ?, ?)",
+                "Barbara Liskov", "barbara@example.com", "555-300-0001");
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM customers ORDER BY id FETCH FIRST 3 ROWS ONLY", Long.class);
+
+        Slice<CustomerListItem> page = customerRepository.findCustomerViews(null, PageRequest.of(0, 2), Set.of("name"));
+
+        assertEquals(2, page.getNumberOfElements());
+        assertTrue(page.hasNext());
+        CustomerListItem first = page.getContent().get(0);
+        assertNotNull(first.getName());
+        assertNull(first.getId());
+        assertNull(first.getEmail());
+        assertNull(first.getCreatedAt());
+        assertEquals(ids.subList(0, 2), page.getContent().stream().map(CustomerListItem::getCursor).toList());
+
+        Slice<CustomerListItem> next = customerRepository.findCustomerViews(ids.get(1), PageRequest.of(0, 1),
+                CustomerListItem.ALLOWED_FIELDS);
+        assertEquals(ids.get(2), next.getContent().get(0).getId());
+        assertNotNull(next.getContent().get(0).getPhoneNumber());
+    }
+}
@@ -0,0 +1,66 @@
+package com.restaurant;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Startup-time regression check for the {@code fast-startup} profile: the context must be ready
+ * and the first request served within {@code -Dstartup.budget-ms} (default 20 s, generous for CI
+ * machines; tighten it locally when working on startup).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:derby:memory:fastStartup;create=true")
+@ActiveProfiles({"test", "fast-startup"})
+class FastStartupTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(FastStartupTest.class);
+    private static final long BUDGET_MS = Long.getLong("startup.budget-ms", 20000);
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SqlDataSourceScriptDatabaseInitializer initializer;
+
+    @Test
+    void firstRequest_ShouldBeServedWithinStartupBudget() {
+        long start = System.nanoTime();
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/menu", String.class);
+        long firstRequestMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(meterRegistry.find("application.first.request.time").timeGauge(),
+                "First successful request should be recorded");
+
+        // application.first.request.time counts from JVM start, which in a shared test JVM includes
+        // earlier tests, so the budget is checked against Spring Boot's own ready time instead
+        TimeGauge ready = meterRegistry.find("application.ready.time").timeGauge();
+        assertNotNull(ready);
+        long total = (long) ready.value(TimeUnit.MILLISECONDS) + firstRequestMillis;
+        logger.info("fast-startup: ready after {} ms, first request {} ms",
+                (long) ready.value(TimeUnit.MILLISECONDS), firstRequestMillis);
+        assertTrue(total < BUDGET_MS, "Startup to first request took " + total + " ms, budget " + BUDGET_MS + " ms");
+    }
+
+    @Test
+    void initializeDatabase_UnchangedScripts_ShouldSkipThem() {
+        assertFalse(initializer.initializeDatabase(), "schema.sql was applied at startup and is unchanged");
+    }
+}
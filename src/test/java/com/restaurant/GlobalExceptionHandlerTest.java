@@ -0,0 +1,65 @@
+package com.restaurant;
+
+import com.restaurant.controller.CustomerController;
+import com.restaurant.controller.GlobalExceptionHandler;
+import com.restaurant.controller.OrderController;
+import com.restaurant.dto.ApiResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void handleDataIntegrityViolation_CustomerWrite_ShouldNameTheDuplicateField() {
+        ResponseEntity<ApiResult<Void>> response = handler.handleDataIntegrityViolation(
+                duplicate("duplicate key value violates unique constraint \"customers_email_key\""),
+                handlerMethod(CustomerController.class, "createCustomer"));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Email already exists", response.getBody().getMessage());
+    }
+
+    @Test
+    void handleDataIntegrityViolation_OtherEndpoint_ShouldReturnGenericConflict() {
+        ResponseEntity<ApiResult<Void>> response = handler.handleDataIntegrityViolation(
+                duplicate("duplicate key value violates unique constraint \"orders_pkey\""),
+                handlerMethod(OrderController.class, "createOrderByName"));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("The request conflicts with existing data", response.getBody().getMessage());
+    }
+
+    @Test
+    void handleUnexpected_ShouldNotExposeTheExceptionMessage() {
+        ResponseEntity<ApiResult<Void>> response = handler.handleUnexpected(
+                new IllegalStateException("SELECT * FROM customers failed: connection refused"));
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
+        assertEquals("An unexpected error occurred", response.getBody().getMessage());
+    }
+
+    private static DataIntegrityViolationException duplicate(String detail) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new SQLIntegrityConstraintViolationException(detail));
+    }
+
+    private static HandlerMethod handlerMethod(Class<?> controller, String name) {
+        Method method = Arrays.stream(controller.getMethods())
+                .filter(candidate -> candidate.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+        return new HandlerMethod(mock(controller), method);
+    }
+}
@@ -0,0 +1,122 @@
+package com.restaurant;
+
+import com.restaurant.config.HttpRequestEventFilter;
+import com.restaurant.config.JfrProfiler;
+import com.restaurant.config.ProfilingAccessFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrProfilingTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void start_ShouldSummarizeRequestsAndWriteRecording() throws Exception {
+        JfrProfiler profiler = new JfrProfiler(directory, 60, 120, 50, 2, 20, 10, 5, 150);
+        try {
+            String id = (String) profiler.start(Duration.ofSeconds(60)).get("id");
+            assertThrows(IllegalStateException.class, () -> profiler.start(Duration.ofSeconds(10)));
+
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/menu");
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/menu");
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+            while (!endpoints(profiler).containsKey("GET /api/menu") && System.nanoTime() < deadline) {
+                new HttpRequestEventFilter().doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+                Thread.sleep(200);
+            }
+            assertTrue(endpoints(profiler).containsKey("GET /api/menu"), "Request events should be streamed live");
+
+            assertTrue(profiler.stop());
+            assertFalse(profiler.stop(), "Nothing left to stop");
+            Path file = profiler.recording(id).orElseThrow();
+            assertTrue(Files.size(file) > 0);
+            assertEquals(List.of(id), profiler.status().get("recordings"));
+            assertTrue(profiler.recording("../" + id).isEmpty());
+        } finally {
+            profiler.destroy();
+        }
+    }
+
+    @Test
+    void start_DurationAboveMaximum_ShouldRefuse() {
+        JfrProfiler profiler = new JfrProfiler(directory, 60, 120, 50, 2, 20, 10, 5, 150);
+
+        assertThrows(IllegalArgumentException.class, () -> profiler.start(Duration.ofSeconds(121)));
+        assertThrows(IllegalArgumentException.class, () -> profiler.start(Duration.ZERO));
+    }
+
+    @Test
+    void accessFilter_ShouldRequireConfiguredBearerToken() throws Exception {
+        assertEquals(404, call(new ProfilingAccessFilter("/actuator", List.of(), ""), "/actuator/profiling", "Bearer secret"));
+
+        ProfilingAccessFilter filter = new ProfilingAccessFilter("/actuator", List.of("loggers"), "secret");
+        assertEquals(401, call(filter, "/actuator/profiling", null));
+        assertEquals(401, call(filter, "/actuator/profiling/20260101-000000000", "Bearer wrong"));
+        assertEquals(401, call(filter, "/actuator/profiling;x=1", null));
+        assertEquals(200, call(filter, "/actuator/profiling", "Bearer secret"));
+        assertEquals(401, call(filter, "/actuator/loggers/org.hibernate.SQL", null));
+        assertEquals(200, call(filter, "/actuator/loggers/org.hibernate.SQL", "Bearer secret"));
+        assertEquals(200, call(filter, "/actuator/metrics", null), "Other endpoints are not affected");
+        assertEquals(200, call(filter, "/actuator/loggersx", null));
+    }
+
+    @Test
+    void accessFilter_DefaultProfile_ShouldProtectLoggersAndSlowQueries() throws Exception {
+        // src/test/resources has its own application.properties that shadows the shipped one
+        ProfilingAccessFilter filter = new ProfilingAccessFilter("/actuator",
+                protectedEndpoints(new FileSystemResource("src/main/resources/application.properties")), "");
+
+        assertEquals(404, call(filter, "/actuator/loggers/org.hibernate.SQL", null));
+        assertEquals(404, call(filter, "/actuator/slowqueries", null));
+    }
+
+    @Test
+    void accessFilter_ProdProfile_ShouldProtectLoggersAndSlowQueries() throws Exception {
+        ProfilingAccessFilter filter = new ProfilingAccessFilter("/actuator",
+                protectedEndpoints(new ClassPathResource("application-prod.properties")), "secret");
+
+        assertEquals(401, call(filter, "/actuator/loggers/org.hibernate.SQL", null));
+        assertEquals(401, call(filter, "/actuator/slowqueries", null));
+        assertEquals(200, call(filter, "/actuator/slowqueries", "Bearer secret"));
+    }
+
+    private static List<String> protectedEndpoints(Resource propertiesFile) throws Exception {
+        Properties properties = PropertiesLoaderUtils.loadProperties(propertiesFile);
+        return List.of(properties.getProperty("app.profiling.protected-endpoints").split(","));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> endpoints(JfrProfiler profiler) {
+        Map<String, Object> summary = (Map<String, Object>) profiler.status().get("summary");
+        return (Map<String, Object>) summary.get("endpoints");
+    }
+
+    private static int call(ProfilingAccessFilter filter, String uri, String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,43 @@
+package com.restaurant;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.restaurant.config.LogRateLimitTurboFilter;
+import com.restaurant.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application with the real {@code logback-spring.xml}, including the hot-path rate
+ * limit turbo filter.
+ */
+@SpringBootTest(properties = "app.logging.hot-path.max-events-per-second=5")
+@ActiveProfiles("test")
+class LoggingConfigurationTest {
+
+    @Test
+    void hotPathLogger_OverTheCap_ShouldDropInfoButKeepWarn() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        LogRateLimitTurboFilter filter = context.getTurboFilterList().stream()
+                .filter(LogRateLimitTurboFilter.class::isInstance)
+                .map(LogRateLimitTurboFilter.class::cast)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Rate limit turbo filter should be installed"));
+        Logger logger = context.getLogger(OrderService.class);
+        long droppedBefore = filter.getDropped();
+
+        assertFalse(logger.isEnabledFor(Level.TRACE), "Levels below the effective level stay disabled");
+        for (int i = 0; i < 1000; i++) {
+            logger.info("rate limit probe {}", i);
+        }
+        assertTrue(logger.isEnabledFor(Level.WARN), "WARN is never rate limited");
+
+        // The cap is 5/s here, 50/s if another test context re-initialized logging with the default
+        assertTrue(filter.getDropped() - droppedBefore >= 500, "INFO events over the cap should be denied");
+    }
+}
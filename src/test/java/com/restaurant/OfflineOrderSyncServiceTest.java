@@ -0,0 +1,225 @@
+package com.restaurant;
+
+import com.restaurant.dto.OfflineOrderBatchRequest.OfflineOrder;
+import com.restaurant.dto.OfflineOrderBatchResult;
+import com.restaurant.dto.OrderItemByNameRequest;
+import com.restaurant.dto.OrderItemRequest;
+import com.restaurant.entity.MenuItem;
+import com.restaurant.repository.MenuItemRepository;
+import com.restaurant.service.ChangeFeedService;
+import com.restaurant.service.CustomerSummaryService;
+import com.restaurant.service.OfflineOrderSyncService;
+import com.restaurant.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:derby:memory:offlineOrderSync;create=true")
+@ActiveProfiles("test")
+class OfflineOrderSyncServiceTest {
+
+    private static final String PHONE = "123-456-7890";
+
+    @Autowired
+    private OfflineOrderSyncService offlineOrderSyncService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private CustomerSummaryService customerSummaryService;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Test
+    void sync_BackdatedOrder_ShouldWriteItemsWithTheOrdersCreatedAt() {
+        LocalDateTime takenAt = LocalDateTime.of(2026, 1, 31, 23, 59, 30);
+
+        OfflineOrderBatchResult result = offlineOrderSyncService.sync(List.of(order("pos-1-created-at", takenAt)));
+
+        String orderId = result.getResults().get(0).getOrderId();
+        assertEquals(List.of(Timestamp.valueOf(takenAt)), itemCreatedAt(orderId));
+        assertEquals(Timestamp.valueOf(takenAt), orderCreatedAt(orderId));
+    }
+
+    @Test
+    void createOrder_ShouldWriteItemsWithTheOrdersCreatedAt() {
+        OrderItemByNameRequest first = new OrderItemByNameRequest();
+        first.setMenuItemName("Caesar Salad");
+        first.setQuantity(1);
+        OrderItemByNameRequest second = new OrderItemByNameRequest();
+        second.setMenuItemName("Margherita Pizza");
+        second.setQuantity(2);
+
+        String orderId = orderService.createOrderByName(PHONE, List.of(first, second)).getId();
+
+        Timestamp createdAt = orderCreatedAt(orderId);
+        assertEquals(List.of(createdAt, createdAt), itemCreatedAt(orderId));
+    }
+
+    @Test
+    void sync_ReplayedUpload_ShouldReportDuplicatesWithTheExistingOrderIds() {
+        List<OfflineOrder> batch = List.of(order("pos-1-replay-a", null), order("pos-1-replay-b", null));
+        OfflineOrderBatchResult first = offlineOrderSyncService.sync(batch);
+
+        OfflineOrderBatchResult replay = offlineOrderSyncService.sync(batch);
+
+        assertEquals(2, first.getCreated());
+        assertEquals(0, replay.getCreated());
+        assertEquals(2, replay.getDuplicates());
+        for (int i = 0; i < batch.size(); i++) {
+            OfflineOrderBatchResult.Entry entry = replay.getResults().get(i);
+            assertEquals(OfflineOrderBatchResult.DUPLICATE, entry.getOutcome());
+            assertEquals(first.getResults().get(i).getOrderId(), entry.getOrderId());
+        }
+        assertEquals(2, clientIdCount("pos-1-replay-%"));
+    }
+
+    @Test
+    void sync_RepeatedClientIdInBatch_ShouldCreateOneOrder() {
+        OfflineOrderBatchResult result = offlineOrderSyncService.sync(
+                List.of(order("pos-1-repeat", null), order("pos-1-repeat", null)));
+
+        assertEquals(2, result.getReceived());
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(result.getResults().get(0).getOrderId(), result.getResults().get(1).getOrderId());
+        assertEquals(1, clientIdCount("pos-1-repeat"));
+    }
+
+    @Test
+    void sync_InvalidOrders_ShouldRejectThemAndCreateTheRest() {
+        MenuItem icedTea = menuItemRepository.findById(menuItemId("Iced Tea")).orElseThrow();
+        icedTea.setAvailable(false);
+        menuItemRepository.save(icedTea);
+        OfflineOrder unknownCustomer = order("pos-1-reject-customer", null);
+        unknownCustomer.setCustomerPhone("000-000-0000");
+        OfflineOrder unknownItem = order("pos-1-reject-item", null);
+        unknownItem.getOrderItems().get(0).setMenuItemId(-1L);
+        OfflineOrder unavailable = order("pos-1-reject-unavailable", null);
+        unavailable.getOrderItems().get(0).setMenuItemId(icedTea.getId());
+        OfflineOrder badQuantity = order("pos-1-reject-quantity", null);
+        badQuantity.getOrderItems().get(0).setQuantity(0);
+
+        OfflineOrderBatchResult result = offlineOrderSyncService.sync(List.of(unknownCustomer, unknownItem,
+                unavailable, badQuantity, order("pos-1-reject-valid", null)));
+
+        assertEquals(4, result.getRejected());
+        assertEquals(1, result.getCreated());
+        List<OfflineOrderBatchResult.Entry> entries = result.getResults();
+        assertEquals("Customer with phone number 000-000-0000 is not registered", entries.get(0).getMessage());
+        assertEquals("Menu item with id -1 not found", entries.get(1).getMessage());
+        assertEquals("Menu item 'Iced Tea' is currently not available", entries.get(2).getMessage());
+        assertEquals("Invalid quantity 0 for menu item Caesar Salad", entries.get(3).getMessage());
+        for (OfflineOrderBatchResult.Entry rejected : entries.subList(0, 4)) {
+            assertEquals(OfflineOrderBatchResult.REJECTED, rejected.getOutcome());
+            assertNull(rejected.getOrderId());
+        }
+        assertEquals(OfflineOrderBatchResult.CREATED, entries.get(4).getOutcome());
+        assertEquals(1, clientIdCount("pos-1-reject-%"));
+    }
+
+    @Test
+    void sync_BatchAboveMaximum_ShouldRefuse() {
+        OfflineOrderSyncService limited = newSyncService(jdbcTemplate, 2, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> limited.sync(List.of(order("pos-1-max-a", null),
+                order("pos-1-max-b", null), order("pos-1-max-c", null))));
+        assertEquals(0, clientIdCount("pos-1-max-%"));
+    }
+
+    @Test
+    void sync_ConcurrentUploadOfTheSameOrder_ShouldRetryChunkAndReportDuplicate() {
+        // Another terminal's upload commits the same client order id between this chunk's
+        // duplicate check and its insert
+        String otherOrderId = "ORDCONFLICT";
+        JdbcTemplate racing = new JdbcTemplate(jdbcTemplate.getDataSource()) {
+            private boolean raced;
+
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                if (!raced && sql.startsWith("INSERT INTO order_client_ids")) {
+                    raced = true;
+                    CompletableFuture.runAsync(() -> {
+                        jdbcTemplate.update("INSERT INTO orders (id, customer_id, status, total_amount, created_at) "
+                                + "SELECT ?, id, 'PENDING', 9.99, CURRENT_TIMESTAMP FROM customers WHERE phone_number = ?",
+                                otherOrderId, PHONE);
+                        jdbcTemplate.update("INSERT INTO order_client_ids (client_order_id, order_id, created_at) "
+                                + "VALUES (?, ?, CURRENT_TIMESTAMP)", "pos-1-race-a", otherOrderId);
+                    }).join();
+                }
+                return super.batchUpdate(sql, batchArgs);
+            }
+        };
+        OfflineOrderSyncService syncService = newSyncService(racing, 500, 5000);
+
+        OfflineOrderBatchResult result = syncService.sync(List.of(order("pos-1-race-a", null), order("pos-1-race-b", null)));
+
+        OfflineOrderBatchResult.Entry raced = result.getResults().get(0);
+        assertEquals(OfflineOrderBatchResult.DUPLICATE, raced.getOutcome());
+        assertEquals(otherOrderId, raced.getOrderId());
+        OfflineOrderBatchResult.Entry retried = result.getResults().get(1);
+        assertEquals(OfflineOrderBatchResult.CREATED, retried.getOutcome());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM orders WHERE id = ?", Integer.class, retried.getOrderId()));
+        assertEquals(2, clientIdCount("pos-1-race-%"));
+    }
+
+    private OfflineOrderSyncService newSyncService(JdbcTemplate jdbcTemplate, int chunkSize, int maxBatchSize) {
+        return new OfflineOrderSyncService(jdbcTemplate, namedJdbcTemplate, transactionTemplate, menuItemRepository,
+                customerSummaryService, changeFeedService, chunkSize, maxBatchSize);
+    }
+
+    private int clientIdCount(String pattern) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_client_ids WHERE client_order_id LIKE ?",
+                Integer.class, pattern);
+    }
+
+    private OfflineOrder order(String clientOrderId, LocalDateTime createdAt) {
+        OrderItemRequest item = new OrderItemRequest();
+        item.setMenuItemId(menuItemId("Caesar Salad"));
+        item.setQuantity(1);
+        OfflineOrder order = new OfflineOrder();
+        order.setClientOrderId(clientOrderId);
+        order.setCustomerPhone(PHONE);
+        order.setCreatedAt(createdAt);
+        order.setOrderItems(List.of(item));
+        return order;
+    }
+
+    private Long menuItemId(String name) {
+        return jdbcTemplate.queryForObject("SELECT id FROM menu_items WHERE name = ?", Long.class, name);
+    }
+
+    private Timestamp orderCreatedAt(String orderId) {
+        return jdbcTemplate.queryForObject("SELECT created_at FROM orders WHERE id = ?", Timestamp.class, orderId);
+    }
+
+    private List<Timestamp> itemCreatedAt(String orderId) {
+        return jdbcTemplate.queryForList("SELECT created_at FROM order_items WHERE order_id = ?", Timestamp.class, orderId);
+    }
+}
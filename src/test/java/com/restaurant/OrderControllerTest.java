@@ -1,12 +1,14 @@
 package com.restaurant;
 
 import com.restaurant.controller.OrderController;
+import com.restaurant.dto.OrderFields;
 import com.restaurant.dto.OrderResponse;
 import com.restaurant.entity.Customer;
 import com.restaurant.entity.Order;
 import com.restaurant.entity.OrderStatus;
 import com.restaurant.mapper.OrderMapper;
 import com.restaurant.repository.CustomerRepository;
+import com.restaurant.service.OrderReadModel;
 import com.restaurant.service.OrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,6 +18,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -36,6 +39,10 @@ class OrderControllerTest {
     @Mock
     private OrderMapper orderMapper;
 
+    // Empty by default, so reads fall back to the write model
+    @Mock
+    private OrderReadModel orderReadModel;
+
     @InjectMocks
     private OrderController orderController;
 
@@ -46,7 +53,7 @@ class OrderControllerTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         // Reset mocks before each test
-        org.mockito.Mockito.reset(orderService, orderMapper, customerRepository);
+        org.mockito.Mockito.reset(orderService, orderMapper, customerRepository, orderReadModel);
     }
 
     @Test
@@ -67,10 +74,10 @@ class OrderControllerTest {
         orderResponse.setTotalAmount(new BigDecimal("100.00"));
         
         when(orderService.getLatestOrderByCustomerPhone(TEST_PHONE)).thenReturn(Optional.of(order));
-        when(orderMapper.toOrderResponse(order)).thenReturn(orderResponse);
+        when(orderMapper.toOrderResponse(order, OrderFields.ALL)).thenReturn(orderResponse);
 
         // Act
-        ResponseEntity<OrderResponse> response = orderController.getLatestOrderByCustomerPhone(TEST_PHONE);
+        ResponseEntity<OrderResponse> response = orderController.getLatestOrderByCustomerPhone(TEST_PHONE, null);
 
         // Assert
         assertNotNull(response, "Response should not be null");
@@ -90,7 +97,7 @@ class OrderControllerTest {
         when(orderService.getLatestOrderByCustomerPhone(TEST_PHONE)).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<OrderResponse> response = orderController.getLatestOrderByCustomerPhone(TEST_PHONE);
+        ResponseEntity<OrderResponse> response = orderController.getLatestOrderByCustomerPhone(TEST_PHONE, null);
 
         // Assert
         assertNotNull(response, "Response should not be null");
@@ -102,12 +109,45 @@ class OrderControllerTest {
     @Test
     void getLatestOrderByCustomerPhone_WhenPhoneNumberIsEmpty_ShouldReturnBadRequest() {
         // Act
-        ResponseEntity<OrderResponse> response = orderController.getLatestOrderByCustomerPhone("");
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> orderController.getLatestOrderByCustomerPhone("", null));
 
         // Assert
-        assertNotNull(response, "Response should not be null");
-        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode(), "Status code should be BAD_REQUEST");
-        assertFalse(response.hasBody(), "Response should not have a body");
-        assertNull(response.getBody(), "Response body should be null");
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode(), "Status code should be BAD_REQUEST");
+        assertEquals("Phone number cannot be empty", error.getReason());
+    }
+
+    @Test
+    void getOrdersByStatus_UnknownStatus_ShouldReturnBadRequestWithReason() {
+        ResponseStatusException error = assertThrows(ResponseStatusException.class,
+                () -> orderController.getOrdersByStatus("SHIPPED", null));
+
+        assertEquals(HttpStatus.BAD_REQUEST, error.getStatusCode());
+        assertTrue(error.getReason().contains("Invalid order status 'SHIPPED'"));
+    }
+
+    @Test
+    void getLatestOrderByCustomerPhone_WithFields_ShouldMapOnlyRequestedFields() {
+        // Arrange
+        Order order = new Order(new Customer("Test User", "test@example.com", TEST_PHONE));
+        order.setId(TEST_ORDER_ID);
+        when(orderService.getLatestOrderByCustomerPhone(TEST_PHONE)).thenReturn(Optional.of(order));
+        when(orderMapper.toOrderResponse(org.mockito.ArgumentMatchers.eq(order),
+                org.mockito.ArgumentMatchers.argThat(fields -> !fields.isAll()
+                        && fields.includes("id") && fields.includes("status") && !fields.needsItems())))
+                .thenReturn(new OrderResponse());
+
+        // Act
+        ResponseEntity<OrderResponse> response = orderController.getLatestOrderByCustomerPhone(TEST_PHONE, "id, status");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Status code should be OK");
+        assertNotNull(response.getBody(), "Sparse response should be mapped");
+    }
+
+    @Test
+    void getLatestOrderByCustomerPhone_WithUnknownField_ShouldReject() {
+        assertThrows(IllegalArgumentException.class,
+                () -> orderController.getLatestOrderByCustomerPhone(TEST_PHONE, "id,secret"));
     }
 }
@@ -0,0 +1,120 @@
+package com.restaurant;
+
+import com.restaurant.dto.OrderItemByNameRequest;
+import com.restaurant.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Creates orders by item name (customer lookup, one name lookup per line, inserts) in this test's
+ * application, where the second-level and query caches are on, and in a second application on its
+ * own database with both caches turned off. Run with {@code -Dbenchmark.orders=1000} for steadier
+ * latency figures.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:derby:memory:cacheBenchmark;create=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=create",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+class OrderCreateCacheBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderCreateCacheBenchmarkTest.class);
+    private static final int ORDERS = Integer.getInteger("benchmark.orders", 50);
+    private static final String PHONE = "123-456-7890";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void createOrderByName_WithWarmCache_ShouldIssueFewerStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Run cached = run(orderService, meterRegistry, statistics::clear);
+        long hits = statistics.getSecondLevelCacheHitCount() + statistics.getQueryCacheHitCount();
+
+        Run uncached;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(RestaurantManagementApplication.class)
+                .profiles("test")
+                .properties("spring.datasource.url=jdbc:derby:memory:cacheBenchmarkUncached;create=true",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "spring.jpa.show-sql=false",
+                        "server.port=0")
+                .run()) {
+            uncached = run(context.getBean(OrderService.class), context.getBean(MeterRegistry.class), () -> { });
+        }
+
+        logger.info("Order create x{}: cached {} statements, {} ms/order; uncached {} statements, {} ms/order",
+                ORDERS, cached.statements, String.format("%.3f", cached.millisPerOrder()),
+                uncached.statements, String.format("%.3f", uncached.millisPerOrder()));
+        assertTrue(hits > 0, "Expected second-level or query cache hits");
+        assertTrue(cached.statements < uncached.statements,
+                "Cached run issued " + cached.statements + " statements, uncached " + uncached.statements);
+    }
+
+    /**
+     * Warms up (which also fills any caches), then times {@link #ORDERS} order creations.
+     */
+    private static Run run(OrderService orderService, MeterRegistry meterRegistry, Runnable afterWarmUp) {
+        List<OrderItemByNameRequest> items = List.of(
+                item("Margherita Pizza", 2), item("Pepperoni Pizza", 1), item("Caesar Salad", 1));
+        for (int i = 0; i < 10; i++) {
+            orderService.createOrderByName(PHONE, items);
+        }
+        afterWarmUp.run();
+
+        double statementsBefore = statementCount(meterRegistry);
+        long elapsed = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            long start = System.nanoTime();
+            orderService.createOrderByName(PHONE, items);
+            elapsed += System.nanoTime() - start;
+        }
+        return new Run((long) (statementCount(meterRegistry) - statementsBefore), elapsed);
+    }
+
+    private static double statementCount(MeterRegistry meterRegistry) {
+        return meterRegistry.find("repository.statements").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private static OrderItemByNameRequest item(String name, int quantity) {
+        OrderItemByNameRequest request = new OrderItemByNameRequest();
+        request.setMenuItemName(name);
+        request.setQuantity(quantity);
+        return request;
+    }
+
+    private record Run(long statements, long elapsedNanos) {
+        double millisPerOrder() {
+            return elapsedNanos / 1_000_000.0 / ORDERS;
+        }
+    }
+}
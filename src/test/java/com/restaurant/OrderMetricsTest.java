@@ -0,0 +1,88 @@
+package com.restaurant;
+
+import com.restaurant.service.OrderMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private OrderMetrics orderMetrics;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:derby:memory:orderMetrics;create=true");
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        populator.setContinueOnError(true);
+        populator.execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM customers");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        meterRegistry = new SimpleMeterRegistry();
+        orderMetrics = new OrderMetrics(meterRegistry, jdbcTemplate);
+    }
+
+    @Test
+    void persisted_InsideTransaction_ShouldRecordOnlyCommittedOrders() {
+        transactionTemplate.executeWithoutResult(status -> {
+            long start = orderMetrics.resolved(OrderMetrics.Api.BY_NAME,
+                    orderMetrics.validated(OrderMetrics.Api.BY_NAME, System.nanoTime()));
+            orderMetrics.persisted(OrderMetrics.Api.BY_NAME, start, 3);
+            assertEquals(0, persistTimer().count(), "Persist is recorded at commit");
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            orderMetrics.persisted(OrderMetrics.Api.BY_NAME, System.nanoTime(), 1);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(1, persistTimer().count());
+        assertEquals(1, meterRegistry.get("orders.create.phase").tag("phase", "validation").tag("api", "by-name")
+                .timer().count());
+        assertEquals(3.0, meterRegistry.get("orders.lines").tag("api", "by-name").summary().totalAmount());
+    }
+
+    @Test
+    void lineRejected_ShouldCountByCause() {
+        orderMetrics.lineRejected(OrderMetrics.Api.BY_ID, OrderMetrics.LineFailure.ITEM_NOT_FOUND);
+        orderMetrics.lineRejected(OrderMetrics.Api.BY_ID, OrderMetrics.LineFailure.ITEM_NOT_FOUND);
+
+        assertEquals(2, meterRegistry.get("orders.line.resolution.failures").tag("api", "by-id")
+                .tag("cause", "item_not_found").counter().count());
+        assertEquals(0, meterRegistry.get("orders.line.resolution.failures").tag("api", "by-id")
+                .tag("cause", "item_unavailable").counter().count());
+    }
+
+    @Test
+    void refreshStatusCounts_ShouldPublishOrdersPerStatus() {
+        jdbcTemplate.update("INSERT INTO customers (name, email, phone_number) VALUES ('A', 'a@example.com', '1')");
+        Long customerId = jdbcTemplate.queryForObject("SELECT id FROM customers", Long.class);
+        jdbcTemplate.update("INSERT INTO orders (id, customer_id, status) VALUES ('ORD1', ?, 'PENDING')", customerId);
+        jdbcTemplate.update("INSERT INTO orders (id, customer_id, status) VALUES ('ORD2', ?, 'PENDING')", customerId);
+        jdbcTemplate.update("INSERT INTO orders (id, customer_id, status) VALUES ('ORD3', ?, 'READY')", customerId);
+
+        orderMetrics.refreshStatusCounts();
+
+        assertEquals(2.0, meterRegistry.get("orders.status").tag("status", "PENDING").gauge().value());
+        assertEquals(1.0, meterRegistry.get("orders.status").tag("status", "READY").gauge().value());
+        assertEquals(0.0, meterRegistry.get("orders.status").tag("status", "DELIVERED").gauge().value());
+    }
+
+    private Timer persistTimer() {
+        return meterRegistry.get("orders.create.phase").tag("phase", "persist").tag("api", "by-name").timer();
+    }
+}
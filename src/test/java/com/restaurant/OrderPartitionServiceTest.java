@@ -0,0 +1,108 @@
+package com.restaurant;
+
+import com.restaurant.service.OrderPartitionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the Derby per-period strategy against an in-memory database.
+ */
+class OrderPartitionServiceTest {
+
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:derby:memory:partitionTest;create=true");
+        jdbc = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        jdbc.execute("CREATE TABLE orders (id VARCHAR(20) PRIMARY KEY, customer_id BIGINT NOT NULL, "
+                + "created_at TIMESTAMP NOT NULL)");
+        jdbc.execute("CREATE TABLE order_items (id BIGINT PRIMARY KEY, order_id VARCHAR(20) NOT NULL, quantity INTEGER)");
+        jdbc.execute("CREATE TABLE order_client_ids (client_order_id VARCHAR(64) PRIMARY KEY, order_id VARCHAR(20))");
+        jdbc.execute("CREATE TABLE order_views (order_id VARCHAR(20) PRIMARY KEY, order_date TIMESTAMP)");
+
+        insertOrder("ORD00001", 1, LocalDateTime.of(2026, 1, 15, 12, 0));
+        insertOrder("ORD00002", 2, LocalDateTime.of(2026, 1, 31, 23, 59));
+        insertOrder("ORD00003", 3, LocalDateTime.of(2026, 9, 1, 0, 0));
+        insertOrder("ORD00004", 4, LocalDateTime.of(2026, 10, 2, 8, 30));
+        jdbc.update("INSERT INTO order_client_ids VALUES ('pos-1-17', 'ORD00001')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (String table : List.of("orders_p2026_01", "order_items_p2026_01", "order_client_ids", "order_items",
+                "orders", "order_views")) {
+            try {
+                jdbc.execute("DROP TABLE " + table);
+            } catch (DataAccessException e) {
+                // Period tables only exist when a month was archived
+            }
+        }
+    }
+
+    @Test
+    void maintain_ShouldMoveExpiredMonthsIntoPeriodTables() {
+        OrderPartitionService service = new OrderPartitionService(jdbc, transactionTemplate, true, 2, 2);
+
+        List<YearMonth> expired = service.maintain(YearMonth.of(2026, 10));
+
+        assertEquals(List.of(YearMonth.of(2026, 1)), expired);
+        assertEquals(List.of("ORD00003", "ORD00004"),
+                jdbc.queryForList("SELECT id FROM orders ORDER BY id", String.class));
+        assertEquals(2, count("orders_p2026_01"));
+        assertEquals(2, count("order_items_p2026_01"));
+        assertEquals(2, count("order_items"));
+        assertEquals(0, count("order_client_ids"));
+        assertEquals(2, count("order_views"));
+    }
+
+    @Test
+    void maintain_ZeroRetention_ShouldKeepEverything() {
+        OrderPartitionService service = new OrderPartitionService(jdbc, transactionTemplate, true, 2, 0);
+
+        assertTrue(service.maintain(YearMonth.of(2026, 10)).isEmpty());
+        assertEquals(4, count("orders"));
+    }
+
+    @Test
+    void liveOrdersStart_ShouldFollowRetention() {
+        OrderPartitionService keepThree = new OrderPartitionService(jdbc, transactionTemplate, true, 2, 3);
+        OrderPartitionService keepAll = new OrderPartitionService(jdbc, transactionTemplate, true, 2, 0);
+
+        assertEquals(YearMonth.now().minusMonths(2).atDay(1).atStartOfDay(), keepThree.liveOrdersStart());
+        assertTrue(keepAll.liveOrdersStart().isBefore(LocalDateTime.of(2000, 1, 1, 0, 0)));
+    }
+
+    @Test
+    void partitionName_ShouldMatchPostgresScript() {
+        assertEquals("orders_p2026_01", OrderPartitionService.partitionName("orders", YearMonth.of(2026, 1)));
+        assertEquals("order_items_p2025_12", OrderPartitionService.partitionName("order_items", YearMonth.of(2025, 12)));
+    }
+
+    private void insertOrder(String id, long itemId, LocalDateTime createdAt) {
+        jdbc.update("INSERT INTO orders (id, customer_id, created_at) VALUES (?, 1, ?)", id, Timestamp.valueOf(createdAt));
+        jdbc.update("INSERT INTO order_items (id, order_id, quantity) VALUES (?, ?, 1)", itemId, id);
+        jdbc.update("INSERT INTO order_views (order_id, order_date) VALUES (?, ?)", id, Timestamp.valueOf(createdAt));
+    }
+
+    private int count(String table) {
+        Integer count = jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,223 @@
+package com.restaurant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.dto.OrderFields;
+import com.restaurant.dto.OrderItemByNameRequest;
+import com.restaurant.dto.OrderResponse;
+import com.restaurant.entity.Customer;
+import com.restaurant.entity.MenuItem;
+import com.restaurant.entity.OrderStatus;
+import com.restaurant.repository.CustomerRepository;
+import com.restaurant.repository.MenuItemRepository;
+import com.restaurant.repository.OrderRepository;
+import com.restaurant.service.ChangeFeedService;
+import com.restaurant.service.CustomerService;
+import com.restaurant.service.MenuService;
+import com.restaurant.service.OrderReadModel;
+import com.restaurant.service.OrderService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives fresh {@link OrderReadModel} instances against the context's database, standing in for
+ * the application after a restart. The context's own model only refreshes once an hour here.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:derby:memory:orderReadModel;create=true",
+        "app.orders.read-model.refresh-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class OrderReadModelTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void refreshPending_ChangeNotAppliedBeforeRestart_ShouldBeAppliedFromCheckpoint() {
+        String orderId = createOrder();
+        OrderReadModel beforeRestart = newReadModel(0);
+        beforeRestart.refreshPending();
+        assertEquals(OrderStatus.PENDING, status(beforeRestart, orderId));
+
+        // Committed, but the process stops before its refresh runs
+        jdbcTemplate.update("UPDATE orders SET status = 'CONFIRMED' WHERE id = ?", orderId);
+        long seq = recordOrderChange(orderId, LocalDateTime.now().minusMinutes(1));
+
+        OrderReadModel afterRestart = newReadModel(0);
+        afterRestart.refreshPending();
+
+        assertEquals(OrderStatus.CONFIRMED, status(afterRestart, orderId));
+        assertTrue(checkpoint() >= seq);
+    }
+
+    @Test
+    void refreshPending_EntryAfterOpenGap_ShouldApplyWithoutPassingIt() {
+        String orderId = createOrder();
+        OrderReadModel readModel = newReadModel(60_000);
+        readModel.refreshPending();
+        long before = checkpoint();
+
+        jdbcTemplate.update("UPDATE orders SET status = 'PREPARING' WHERE id = ?", orderId);
+        burnSeq();
+        long seq = recordOrderChange(orderId, LocalDateTime.now());
+        readModel.refreshPending();
+
+        assertEquals(OrderStatus.PREPARING, status(readModel, orderId), "Applied as soon as it is visible");
+        assertTrue(checkpoint() < seq, "The writer of the missing seq may still commit");
+        assertTrue(checkpoint() >= before);
+    }
+
+    @Test
+    void refreshPending_EntryAfterExpiredGap_ShouldPassIt() {
+        String orderId = createOrder();
+        OrderReadModel readModel = newReadModel(60_000);
+        readModel.refreshPending();
+
+        burnSeq();
+        // Older than twice the writer limit, so the missing seq can only have rolled back
+        long seq = recordOrderChange(orderId, LocalDateTime.now().minusMinutes(5));
+        readModel.refreshPending();
+
+        assertTrue(checkpoint() >= seq);
+    }
+
+    @Test
+    void refreshPending_MenuItemPriceChange_ShouldNotRerenderOrders() {
+        newReadModel(0).rebuild();
+        MenuItem item = otherMenuItem();
+        String orderId = createOrder(item.getName());
+        OrderReadModel readModel = newReadModel(0);
+        readModel.refreshPending();
+        Timestamp rendered = refreshedAt(orderId);
+
+        item.setPrice(item.getPrice().add(BigDecimal.ONE));
+        menuService.saveMenuItem(item);
+        readModel.refreshPending();
+        assertEquals(rendered, refreshedAt(orderId), "Past orders keep their unit prices");
+
+        String originalName = item.getName();
+        item.setName(originalName + " (Large)");
+        menuService.saveMenuItem(item);
+        readModel.refreshPending();
+        OrderResponse view = readModel.findById(orderId, OrderFields.ALL).orElseThrow();
+        assertEquals(originalName + " (Large)", view.getItems().get(0).getMenuItemName());
+
+        item.setName(originalName);
+        menuService.saveMenuItem(item);
+        readModel.refreshPending();
+    }
+
+    @Test
+    void refreshPending_CustomerChange_ShouldUpdateColumnsWithoutRerendering() {
+        String orderId = createOrder();
+        OrderReadModel readModel = newReadModel(0);
+        readModel.refreshPending();
+        Timestamp rendered = refreshedAt(orderId);
+
+        Customer customer = customerRepository.findByPhoneNumber("123-456-7890").orElseThrow();
+        String originalName = customer.getName();
+        customer.setName("Renamed Customer");
+        customerService.saveCustomer(customer);
+        readModel.refreshPending();
+
+        assertEquals("Renamed Customer", readModel.findById(orderId, OrderFields.ALL).orElseThrow().getCustomerName());
+        assertEquals(rendered, refreshedAt(orderId));
+        customer.setName(originalName);
+        customerService.saveCustomer(customer);
+        readModel.refreshPending();
+    }
+
+    private String createOrder() {
+        return createOrder("Caesar Salad");
+    }
+
+    private String createOrder(String menuItemName) {
+        OrderItemByNameRequest item = new OrderItemByNameRequest();
+        item.setMenuItemName(menuItemName);
+        item.setQuantity(1);
+        return orderService.createOrderByName("123-456-7890", List.of(item)).getId();
+    }
+
+    private long recordOrderChange(String orderId, LocalDateTime changedAt) {
+        jdbcTemplate.update("INSERT INTO sync_changes (entity_type, entity_id, operation, changed_at) "
+                + "VALUES ('ORDER', ?, 'UPSERT', ?)", orderId, Timestamp.valueOf(changedAt));
+        return jdbcTemplate.queryForObject("SELECT MAX(seq) FROM sync_changes", Long.class);
+    }
+
+    private MenuItem otherMenuItem() {
+        Long id = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM menu_items WHERE name <> 'Caesar Salad' AND available = true", Long.class);
+        return menuItemRepository.findById(id).orElseThrow();
+    }
+
+    /**
+     * Allocates a seq that never commits, like a writer that rolled back.
+     */
+    private void burnSeq() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO sync_changes (entity_type, entity_id, operation, changed_at) "
+                    + "VALUES ('ORDER', 'ORDROLLBACK', 'UPSERT', ?)", Timestamp.valueOf(LocalDateTime.now()));
+            status.setRollbackOnly();
+        });
+    }
+
+    private Timestamp refreshedAt(String orderId) {
+        return jdbcTemplate.queryForObject("SELECT refreshed_at FROM order_views WHERE order_id = ?",
+                Timestamp.class, orderId);
+    }
+
+    private long checkpoint() {
+        return jdbcTemplate.queryForObject("SELECT applied_through FROM order_views_progress WHERE id = 1", Long.class);
+    }
+
+    private static OrderStatus status(OrderReadModel readModel, String orderId) {
+        return readModel.findById(orderId, OrderFields.ALL).orElseThrow().getStatus();
+    }
+
+    private OrderReadModel newReadModel(long maxWriterMillis) {
+        ChangeFeedService changeFeed = new ChangeFeedService(jdbcTemplate, namedJdbcTemplate, orderRepository,
+                menuItemRepository, customerRepository, maxWriterMillis, 30, 1000);
+        return new OrderReadModel(orderRepository, jdbcTemplate, namedJdbcTemplate, transactionTemplate,
+                objectMapper, new SimpleMeterRegistry(), changeFeed);
+    }
+}
@@ -0,0 +1,59 @@
+package com.restaurant;
+
+import com.restaurant.config.ReplicaRouting;
+import com.restaurant.controller.ReactiveOrderController;
+import com.restaurant.mapper.OrderMapper;
+import com.restaurant.service.MenuService;
+import com.restaurant.service.OrderReadModel;
+import com.restaurant.service.OrderService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReactiveOrderControllerTest {
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRouting.endRequest();
+    }
+
+    @Test
+    void getAllMenuItems_ShouldReadInARoutedReadOnlyTransactionKeepingStickiness() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        AtomicReference<TransactionDefinition> definition = new AtomicReference<>();
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            definition.set(invocation.getArgument(0));
+            return new SimpleTransactionStatus();
+        });
+        MenuService menuService = mock(MenuService.class);
+        AtomicBoolean primaryOnly = new AtomicBoolean();
+        when(menuService.getAllMenuItems()).thenAnswer(invocation -> {
+            primaryOnly.set(ReplicaRouting.isPrimaryOnlyRequest());
+            return List.of();
+        });
+        ReactiveOrderController controller = new ReactiveOrderController(mock(OrderService.class), menuService,
+                mock(OrderMapper.class), mock(OrderReadModel.class), new TransactionTemplate(transactionManager),
+                Schedulers.boundedElastic());
+
+        // A client that wrote within the read-your-writes window
+        ReplicaRouting.beginRequest(true);
+        controller.getAllMenuItems().block();
+
+        assertTrue(definition.get().isReadOnly());
+        assertTrue(definition.get().getName().startsWith("com.restaurant.service.MenuService."));
+        assertTrue(primaryOnly.get(), "Stickiness must follow the call onto the database scheduler");
+    }
+}
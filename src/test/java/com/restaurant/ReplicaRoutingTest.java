@@ -0,0 +1,173 @@
+package com.restaurant;
+
+import com.restaurant.config.ReplicaRouting;
+import com.restaurant.config.ReplicaRoutingConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two in-memory Derby databases stand in for the primary and a replica; each holds a marker row
+ * naming itself, so a query shows which one a transaction was routed to.
+ */
+class ReplicaRoutingTest {
+
+    private static final String ROUTED_READ = "com.restaurant.service.OrderService.getAllOrders";
+
+    private JdbcTemplate primaryJdbc;
+    private JdbcTemplate replicaJdbc;
+    private ReplicaRouting routing;
+    private JdbcTemplate routedJdbc;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = new DriverManagerDataSource("jdbc:derby:memory:routingPrimary;create=true");
+        DataSource replica = new DriverManagerDataSource("jdbc:derby:memory:routingReplica;create=true");
+        primaryJdbc = createDatabase(primary, "primary");
+        replicaJdbc = createDatabase(replica, "replica");
+
+        routing = new ReplicaRouting(primary, Map.of("replica-1", replica),
+                List.of("com.restaurant.service.OrderService."), 1000, new SimpleMeterRegistry());
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing.getRoutingDataSource());
+        routedJdbc = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRouting.endRequest();
+        for (JdbcTemplate jdbc : List.of(primaryJdbc, replicaJdbc)) {
+            jdbc.execute("DROP TABLE db_marker");
+            jdbc.execute("DROP TABLE replication_heartbeat");
+        }
+    }
+
+    @Test
+    void readOnlyServiceTransaction_ReplicaInSync_ShouldReadReplica() {
+        replicateHeartbeat();
+
+        assertEquals("replica", runIn(ROUTED_READ, true));
+    }
+
+    @Test
+    void readOnlyServiceTransaction_BeforeFirstLagCheck_ShouldReadPrimary() {
+        assertEquals("primary", runIn(ROUTED_READ, true));
+    }
+
+    @Test
+    void readOnlyServiceTransaction_ReplicaLagging_ShouldFallBackToPrimary() {
+        replicateHeartbeat();
+        // Replication stalls: the primary moves on, the replica keeps a minute-old heartbeat
+        replicaJdbc.update("UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1",
+                System.currentTimeMillis() - 60_000);
+        routing.checkReplicas();
+
+        assertTrue(routing.getReplicaLag().get("replica-1") > 1000);
+        assertEquals("primary", runIn(ROUTED_READ, true));
+    }
+
+    @Test
+    void readOnlyServiceTransaction_ReplicaUnreachable_ShouldFallBackToPrimary() {
+        replicateHeartbeat();
+        replicaJdbc.execute("DROP TABLE replication_heartbeat");
+        routing.measureReplicaLag();
+        replicaJdbc.execute("CREATE TABLE replication_heartbeat (id INTEGER NOT NULL PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+
+        assertEquals(Long.MAX_VALUE, routing.getReplicaLag().get("replica-1"));
+        assertEquals("primary", runIn(ROUTED_READ, true));
+    }
+
+    @Test
+    void readWriteOrUnroutedTransaction_ShouldUsePrimary() {
+        replicateHeartbeat();
+
+        assertEquals("primary", runIn("com.restaurant.service.OrderService.updateOrderStatus", false));
+        assertEquals("primary", runIn("com.restaurant.service.ChangeFeedService.getChanges", true));
+        assertEquals("primary", routedJdbc.queryForObject("SELECT name FROM db_marker", String.class));
+    }
+
+    @Test
+    void readAfterWriteInSameRequest_ShouldStayOnPrimary() {
+        replicateHeartbeat();
+        ReplicaRouting.beginRequest(false);
+
+        assertEquals("replica", runIn(ROUTED_READ, true));
+        runIn("com.restaurant.service.OrderService.updateOrderStatus", false);
+        assertEquals("primary", runIn(ROUTED_READ, true));
+    }
+
+    @Test
+    void stickyRequest_ShouldReadPrimary() {
+        replicateHeartbeat();
+        ReplicaRouting.beginRequest(true);
+
+        assertEquals("primary", runIn(ROUTED_READ, true));
+    }
+
+    @Test
+    void replicaSafeCacheCustomizer_ShouldDisableSecondLevelAndQueryCaches() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+        properties.put(AvailableSettings.USE_QUERY_CACHE, "true");
+
+        new ReplicaRoutingConfig(List.of(" ")).replicaSafeCacheCustomizer().customize(properties);
+        assertEquals("true", properties.get(AvailableSettings.USE_SECOND_LEVEL_CACHE), "No replica configured");
+
+        new ReplicaRoutingConfig(List.of("jdbc:derby:memory:routingReplica")).replicaSafeCacheCustomizer()
+                .customize(properties);
+        assertEquals("false", properties.get(AvailableSettings.USE_SECOND_LEVEL_CACHE));
+        assertEquals("false", properties.get(AvailableSettings.USE_QUERY_CACHE));
+    }
+
+    @Test
+    void readYourWritesFilter_StickyShorterThanLagWindow_ShouldRefuseToStart() {
+        ReplicaRoutingConfig withReplica = new ReplicaRoutingConfig(List.of("jdbc:derby:memory:routingReplica"));
+
+        assertThrows(IllegalStateException.class, () -> withReplica.readYourWritesFilter(5000, 5000, 500));
+        assertTrue(withReplica.readYourWritesFilter(5500, 5000, 500).isEnabled());
+        assertFalse(new ReplicaRoutingConfig(List.of()).readYourWritesFilter(5000, 5000, 500).isEnabled(),
+                "Not checked without replicas");
+    }
+
+    private String runIn(String transactionName, boolean readOnly) {
+        transactionTemplate.setName(transactionName);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status ->
+                routedJdbc.queryForObject("SELECT name FROM db_marker", String.class));
+    }
+
+    /**
+     * Writes the primary's heartbeat, copies it to the replica the way replication would, and
+     * measures lag.
+     */
+    private void replicateHeartbeat() {
+        routing.writeHeartbeat();
+        Long beat = primaryJdbc.queryForObject("SELECT beat_millis FROM replication_heartbeat WHERE id = 1", Long.class);
+        replicaJdbc.update("UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1", beat);
+        routing.measureReplicaLag();
+    }
+
+    private static JdbcTemplate createDatabase(DataSource dataSource, String name) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE db_marker (name VARCHAR(20) NOT NULL)");
+        jdbc.update("INSERT INTO db_marker (name) VALUES (?)", name);
+        jdbc.execute("CREATE TABLE replication_heartbeat (id INTEGER NOT NULL PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        jdbc.update("INSERT INTO replication_heartbeat (id, beat_millis) VALUES (1, 0)");
+        return jdbc;
+    }
+}
@@ -0,0 +1,135 @@
+package com.restaurant;
+
+import com.restaurant.entity.MenuItem;
+import com.restaurant.repository.MenuItemRepository;
+import com.restaurant.service.MenuService;
+import com.restaurant.service.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight(meterRegistry);
+    }
+
+    @Test
+    void execute_ConcurrentIdenticalCalls_ShouldShareOneLoad() throws Exception {
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("menu.category", "Pizza", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "result";
+                })));
+            }
+            // Wait until every follower has joined the in-flight call before letting the leader finish
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalesced() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("result", result.get(5, TimeUnit.SECONDS), "Every caller should get the shared result");
+            }
+            assertEquals(1, loads.get(), "Loader should run once for concurrent identical calls");
+            assertEquals(callers - 1, coalesced(), "Followers should be counted as coalesced");
+            assertEquals(0, singleFlight.inFlightCount(), "No call should remain in flight");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_SequentialCalls_ShouldNotReuseCompletedResult() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("order.byId", "ORD12345", loads::incrementAndGet);
+        int second = singleFlight.execute("order.byId", "ORD12345", loads::incrementAndGet);
+
+        assertEquals(2, second, "A call after completion should load fresh data");
+    }
+
+    @Test
+    void execute_WhenLoaderFails_ShouldPropagateException() {
+        IllegalStateException failure = assertThrows(IllegalStateException.class,
+                () -> singleFlight.execute("menu.available", "all", () -> {
+                    throw new IllegalStateException("database down");
+                }));
+
+        assertEquals("database down", failure.getMessage());
+        assertEquals(0, singleFlight.inFlightCount(), "Failed call should not stay in flight");
+    }
+
+    @Test
+    void getAllMenuItems_CoalescedCallers_ShouldEachGetTheirOwnCopies() throws Exception {
+        MenuItem entity = new MenuItem(1L, "Caesar Salad", "Romaine", new BigDecimal("9.99"), "Salad", true);
+        CountDownLatch release = new CountDownLatch(1);
+        MenuItemRepository repository = mock(MenuItemRepository.class);
+        when(repository.findByAvailableTrue()).thenAnswer(invocation -> {
+            await(release);
+            return List.of(entity);
+        });
+        MenuService menuService = new MenuService(repository, singleFlight, null);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<MenuItem>> first = executor.submit(menuService::getAllMenuItems);
+            Future<List<MenuItem>> second = executor.submit(menuService::getAllMenuItems);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalesced() < 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            MenuItem mine = first.get(5, TimeUnit.SECONDS).get(0);
+            MenuItem theirs = second.get(5, TimeUnit.SECONDS).get(0);
+            assertEquals(1, coalesced());
+            assertNotSame(mine, theirs);
+            assertNotSame(entity, mine, "The leader's entity should not be handed out");
+            mine.setPrice(BigDecimal.ONE);
+            assertEquals(new BigDecimal("9.99"), theirs.getPrice());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double coalesced() {
+        Counter counter = meterRegistry.find("singleflight.calls").tag("role", "coalesced").counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
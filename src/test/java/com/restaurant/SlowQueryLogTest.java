@@ -0,0 +1,46 @@
+package com.restaurant;
+
+import com.restaurant.config.SlowQueryLog;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    @Test
+    void keepsOnlyTheMostRecentEntriesNewestFirst() {
+        SlowQueryLog log = new SlowQueryLog(3, 100);
+
+        for (int i = 1; i <= 5; i++) {
+            log.record("select " + i, 150, "OrderRepository.findAll", 0, true);
+        }
+
+        List<SlowQueryLog.Entry> entries = log.snapshot();
+        assertEquals(3, entries.size());
+        assertEquals("select 5", entries.get(0).getSql());
+        assertEquals("select 3", entries.get(2).getSql());
+    }
+
+    @Test
+    void appliesThresholdAndClears() {
+        SlowQueryLog log = new SlowQueryLog(10, 100);
+
+        assertFalse(log.isSlow(99));
+        assertTrue(log.isSlow(100));
+
+        log.record("select 1", 120, null, 0, true);
+        log.clear();
+        assertTrue(log.snapshot().isEmpty());
+    }
+
+    @Test
+    void truncatesVeryLongStatements() {
+        SlowQueryLog log = new SlowQueryLog(1, 0);
+
+        log.record("x".repeat(5000), 1, null, 0, true);
+
+        assertTrue(log.snapshot().get(0).getSql().length() < 2100);
+    }
+}
@@ -0,0 +1,115 @@
+package com.restaurant;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.restaurant.service.ChangeFeedService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:derby:memory:syncController;create=true",
+        "app.sync.max-writer-millis=0"
+})
+@ActiveProfiles("test")
+class SyncControllerTest {
+
+    private static final String PHONE = "123-456-7890";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void syncOfflineOrders_ThenGetChanges_ShouldReturnTheCreatedOrder() {
+        long cursor = restTemplate.getForObject("/api/sync/cursor", JsonNode.class).path("data").asLong();
+        ObjectNode batch = objectMapper.createObjectNode();
+        batch.putArray("orders").add(order("pos-2-changes", PHONE));
+
+        ResponseEntity<JsonNode> upload = restTemplate.postForEntity("/api/sync/orders", batch, JsonNode.class);
+
+        assertEquals(HttpStatus.OK, upload.getStatusCode());
+        assertEquals("success", upload.getBody().path("status").asText());
+        String orderId = upload.getBody().path("data").path("results").path(0).path("orderId").asText();
+        JsonNode changes = restTemplate.getForObject("/api/sync/changes?since=" + cursor, JsonNode.class).path("data");
+        assertEquals(orderId, changes.path("orders").path(0).path("id").asText());
+        assertTrue(changes.path("cursor").asLong() > cursor);
+    }
+
+    @Test
+    void syncOfflineOrders_RejectedOrder_ShouldReturnPartial() {
+        ObjectNode batch = objectMapper.createObjectNode();
+        batch.putArray("orders").add(order("pos-2-partial-a", PHONE)).add(order("pos-2-partial-b", "000-000-0000"));
+
+        ResponseEntity<JsonNode> response = restTemplate.postForEntity("/api/sync/orders", batch, JsonNode.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("partial", response.getBody().path("status").asText());
+        assertEquals(1, response.getBody().path("data").path("created").asInt());
+        assertEquals(1, response.getBody().path("data").path("rejected").asInt());
+    }
+
+    @Test
+    void syncOfflineOrders_EmptyBatch_ShouldReturnBadRequest() {
+        ObjectNode batch = objectMapper.createObjectNode();
+        batch.putArray("orders");
+
+        ResponseEntity<JsonNode> response = restTemplate.postForEntity("/api/sync/orders", batch, JsonNode.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody().path("message").asText().contains("Batch must contain at least one order"));
+    }
+
+    @Test
+    void getChanges_LimitAboveMaximum_ShouldReturnBadRequest() {
+        long cursor = changeFeedService.currentCursor();
+
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity(
+                "/api/sync/changes?since=" + cursor + "&limit=1001", JsonNode.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void getChanges_PrunedCursor_ShouldReturnGone() {
+        long cursor = changeFeedService.currentCursor();
+        jdbcTemplate.update("INSERT INTO sync_changes (entity_type, entity_id, operation, changed_at) "
+                + "VALUES ('ORDER', 'ORDOLD', 'UPSERT', ?)", Timestamp.valueOf(LocalDateTime.now().minusDays(31)));
+        changeFeedService.pruneHistory();
+
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity("/api/sync/changes?since=" + cursor, JsonNode.class);
+
+        assertEquals(HttpStatus.GONE, response.getStatusCode());
+        assertEquals("error", response.getBody().path("status").asText());
+        assertTrue(response.getBody().path("message").asText().contains("perform a full sync"));
+    }
+
+    private ObjectNode order(String clientOrderId, String phone) {
+        Long menuItemId = jdbcTemplate.queryForObject("SELECT id FROM menu_items WHERE name = ?", Long.class,
+                "Caesar Salad");
+        ObjectNode order = objectMapper.createObjectNode()
+                .put("clientOrderId", clientOrderId)
+                .put("customerPhone", phone);
+        order.putArray("orderItems").addObject().put("menuItemId", menuItemId).put("quantity", 1);
+        return order;
+    }
+}
@@ -0,0 +1,80 @@
+package com.restaurant;
+
+import com.restaurant.generator.SyntheticDataGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Generates small datasets into fresh in-memory Derby databases built from schema.sql.
+ */
+class SyntheticDataGeneratorTest {
+
+    private static final String ORDER_LINES = "SELECT o.id, c.email, o.status, o.total_amount, o.created_at, "
+            + "m.name, oi.quantity FROM orders o JOIN customers c ON c.id = o.customer_id "
+            + "JOIN order_items oi ON oi.order_id = o.id JOIN menu_items m ON m.id = oi.menu_item_id "
+            + "ORDER BY o.id, m.name";
+
+    @Test
+    void generate_SameSeed_ShouldProduceIdenticalDatasets() {
+        JdbcTemplate first = database("generatorA");
+        JdbcTemplate second = database("generatorB");
+
+        generator(first, 7, 3).generate();
+        generator(second, 7, 1).generate();
+
+        assertEquals(2000L, first.queryForObject("SELECT COUNT(*) FROM orders", Long.class));
+        assertEquals(300L, first.queryForObject("SELECT COUNT(*) FROM customers", Long.class));
+        assertEquals(40L, first.queryForObject("SELECT COUNT(*) FROM menu_items", Long.class));
+        List<Map<String, Object>> lines = first.queryForList(ORDER_LINES);
+        assertEquals(lines, second.queryForList(ORDER_LINES));
+    }
+
+    @Test
+    void generate_ShouldSkewItemPopularityAndFavourMealTimes() {
+        JdbcTemplate jdbc = database("generatorSkew");
+        generator(jdbc, 11, 2).generate();
+
+        List<Long> quantities = jdbc.queryForList("SELECT SUM(quantity) FROM order_items "
+                + "GROUP BY menu_item_id ORDER BY SUM(quantity) DESC", Long.class);
+        assertTrue(quantities.get(0) > 5 * quantities.get(quantities.size() - 1),
+                "Best seller should far outsell the least popular item: " + quantities);
+
+        Long dinner = jdbc.queryForObject("SELECT COUNT(*) FROM orders WHERE HOUR(created_at) = 19", Long.class);
+        Long night = jdbc.queryForObject("SELECT COUNT(*) FROM orders WHERE HOUR(created_at) = 3", Long.class);
+        assertTrue(dinner > 10 * night, "Expected a dinner peak: " + dinner + " vs " + night);
+    }
+
+    @Test
+    void generate_NonEmptyDatabase_ShouldRefuse() {
+        JdbcTemplate jdbc = database("generatorNonEmpty");
+        jdbc.update("INSERT INTO customers (name, email, phone_number) VALUES ('A', 'a@example.com', '1')");
+
+        assertThrows(IllegalStateException.class, () -> generator(jdbc, 1, 1).generate());
+    }
+
+    private static SyntheticDataGenerator generator(JdbcTemplate jdbc, long seed, int threads) {
+        DataSource dataSource = jdbc.getDataSource();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        return new SyntheticDataGenerator(jdbc, transactionTemplate, seed, 300, 40, 2000, 30, "2026-03-01",
+                1.1, 2.0, 250, threads);
+    }
+
+    private static JdbcTemplate database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:derby:memory:" + name + ";create=true");
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource("schema.sql"));
+        populator.setContinueOnError(true);
+        populator.execute(dataSource);
+        return new JdbcTemplate(dataSource);
+    }
+}
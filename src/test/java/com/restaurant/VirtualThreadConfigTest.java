@@ -0,0 +1,46 @@
+package com.restaurant;
+
+import com.restaurant.config.VirtualThreadConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class,
+                    TaskExecutionAutoConfiguration.class))
+            .withUserConfiguration(VirtualThreadConfig.class);
+
+    @Test
+    void applicationTaskExecutor_VirtualThreadsDisabled_ShouldKeepBootExecutor() {
+        contextRunner.run(context -> {
+            assertInstanceOf(ThreadPoolTaskExecutor.class,
+                    context.getBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME));
+        });
+    }
+
+    @Test
+    void applicationTaskExecutor_VirtualThreadsEnabled_ShouldUseThemOrFailStartup() {
+        contextRunner.withPropertyValues("app.threads.virtual.enabled=true").run(context -> {
+            if (Runtime.version().feature() >= 21) {
+                assertInstanceOf(TaskExecutorAdapter.class,
+                        context.getBean(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME));
+            } else {
+                Throwable failure = context.getStartupFailure();
+                assertNotNull(failure, "Requesting virtual threads on Java 17 must not be ignored");
+                while (failure != null && !(failure instanceof IllegalStateException)) {
+                    failure = failure.getCause();
+                }
+                assertNotNull(failure);
+                assertTrue(failure.getMessage().contains("needs Java 21+"));
+            }
+        });
+    }
+}